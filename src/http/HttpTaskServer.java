@@ -6,6 +6,7 @@ import com.sun.net.httpserver.HttpServer;
 import exception.TaskNotFoundException;
 import http.deserialiazer.*;
 import http.handler.*;
+import manager.ConcurrentTaskManager;
 import manager.Managers;
 import manager.TaskManager;
 import task.Epic;
@@ -17,31 +18,49 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class HttpTaskServer {
 
     public static final int DEFAULT_PORT = 8080;
     public static final int DEFAULT_MAX_CONNECTIONS = 0;
-
-    private static Gson gsonInstance;
-    private static Gson gsonStandardInstance;
+    public static final int DEFAULT_THREADS = 1;
 
     private final TaskManager taskManager;
     private final int port;
     private final int maxConnections;
+    private final int threads;
 
     private HttpServer httpServer;
+    private ExecutorService executor;
 
     HttpTaskServer(TaskManager taskManager) {
         this.taskManager = taskManager;
         this.port = DEFAULT_PORT;
         this.maxConnections = DEFAULT_MAX_CONNECTIONS;
+        this.threads = DEFAULT_THREADS;
     }
 
     HttpTaskServer(TaskManager taskManager, int port, int maxConnections) {
+        this(taskManager, port, maxConnections, DEFAULT_THREADS);
+    }
+
+    /**
+     * Server with several request handling threads. Task manager should be thread-safe if threads > 1,
+     * see {@link Managers#createNewConcurrent()}: handlers stream views of the manager after the response headers
+     * are sent, a concurrent change of a not thread-safe manager would break the response body.
+     * @throws IllegalArgumentException if threads > 1 and the manager isn't a {@link ConcurrentTaskManager}
+     */
+    HttpTaskServer(TaskManager taskManager, int port, int maxConnections, int threads) {
+        if (threads < 1) throw new IllegalArgumentException("Number of threads cannot be less than 1");
+        if (threads > 1 && !(taskManager instanceof ConcurrentTaskManager)) {
+            throw new IllegalArgumentException("Task manager should be thread-safe to handle requests in several threads");
+        }
         this.taskManager = taskManager;
         this.port = port;
         this.maxConnections = maxConnections;
+        this.threads = threads;
     }
 
     public static void main(String[] args) {
@@ -62,28 +81,11 @@ public class HttpTaskServer {
     }
 
     public static Gson getGson() {
-        if (gsonInstance == null) {
-            gsonInstance = new GsonBuilder()
-                    .excludeFieldsWithoutExposeAnnotation()
-                    .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeTypeAdapter())
-                    .registerTypeAdapter(Duration.class, new DurationTypeAdapter())
-                    .registerTypeAdapter(Task.class, new TaskJsonDeserializer())
-                    .registerTypeAdapter(Epic.class, new EpicJsonDeserializer())
-                    .registerTypeAdapter(Subtask.class, new SubtaskJsonDeserializer())
-                    .create();
-        }
-        return gsonInstance;
+        return GsonHolder.GSON;
     }
 
     public static Gson getStandardGson() {
-        if (gsonStandardInstance == null) {
-            gsonStandardInstance = new GsonBuilder()
-                    .excludeFieldsWithoutExposeAnnotation()
-                    .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeTypeAdapter())
-                    .registerTypeAdapter(Duration.class, new DurationTypeAdapter())
-                    .create();
-        }
-        return gsonStandardInstance;
+        return GsonHolder.STANDARD_GSON;
     }
 
     public void start() throws IOException {
@@ -94,14 +96,43 @@ public class HttpTaskServer {
         httpServer.createContext("/epics", new EpicsHttpHandler());
         httpServer.createContext("/history", new HistoryHttpHandler());
         httpServer.createContext("/prioritized", new PrioritizedHttpHandler());
+        httpServer.createContext("/search", new SearchHttpHandler());
+        httpServer.createContext("/calendar", new CalendarHttpHandler());
+        httpServer.createContext("/summary", new SummaryHttpHandler());
+        if (threads > 1) {
+            executor = Executors.newFixedThreadPool(threads);
+            httpServer.setExecutor(executor);
+        }
         httpServer.start();
         System.out.println("Сервер стартовал");
     }
 
     public void stop() {
         httpServer.stop(1);
+        if (executor != null) executor.shutdown();
         System.out.println("Сервер остановлен");
     }
 
+    /**
+     * Gson instances are created on the first use, class initialization makes it safe for handler threads
+     */
+    private static class GsonHolder {
+
+        static final Gson GSON = new GsonBuilder()
+                .excludeFieldsWithoutExposeAnnotation()
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeTypeAdapter())
+                .registerTypeAdapter(Duration.class, new DurationTypeAdapter())
+                .registerTypeAdapter(Task.class, new TaskJsonDeserializer())
+                .registerTypeAdapter(Epic.class, new EpicJsonDeserializer())
+                .registerTypeAdapter(Subtask.class, new SubtaskJsonDeserializer())
+                .create();
+
+        static final Gson STANDARD_GSON = new GsonBuilder()
+                .excludeFieldsWithoutExposeAnnotation()
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeTypeAdapter())
+                .registerTypeAdapter(Duration.class, new DurationTypeAdapter())
+                .create();
+
+    }
 
 }
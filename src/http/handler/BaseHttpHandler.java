@@ -1,9 +1,17 @@
 package http.handler;
 
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import com.sun.net.httpserver.HttpExchange;
+import http.HttpTaskServer;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 
 public abstract class BaseHttpHandler {
 
@@ -36,6 +44,27 @@ public abstract class BaseHttpHandler {
         exchange.close();
     }
 
+    /**
+     * Returns decoded parameters of the request query
+     * @param exchange HTTP exchange
+     * @return {@code Map<String, String>} values by names, empty if there is no query
+     */
+    protected Map<String, String> getQueryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();    // split before decoding, values may contain '&' or '='
+        if (query == null || query.isBlank()) return params;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0) params.put(decode(pair), "");
+            else params.put(decode(pair.substring(0, eq)), decode(pair.substring(eq + 1)));
+        }
+        return params;
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
     protected void sendJson(HttpExchange exchange, String json) throws IOException {
         byte[] response = json.getBytes(StandardCharsets.UTF_8);
         exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
@@ -44,4 +73,24 @@ public abstract class BaseHttpHandler {
         exchange.close();
     }
 
+    /**
+     * Sends the objects as JSON array writing them one by one to the response body (chunked),
+     * without building the whole JSON string or a copy of the collection
+     * @param exchange HTTP exchange
+     * @param items read-only view of objects to send
+     */
+    protected void sendJsonStream(HttpExchange exchange, Iterable<?> items) throws IOException {
+        Gson gson = HttpTaskServer.getGson();
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (JsonWriter writer = gson.newJsonWriter(new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)))) {
+            writer.beginArray();
+            for (Object item : items) gson.toJson(item, item.getClass(), writer);
+            writer.endArray();
+        } finally {
+            exchange.close();
+        }
+    }
+
 }
@@ -0,0 +1,71 @@
+package http.handler;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import http.HttpTaskServer;
+import manager.Managers;
+import task.Task;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CalendarHttpHandler extends BaseHttpHandler implements HttpHandler {
+
+    public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        Headers headers = exchange.getRequestHeaders();
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+        if ("GET".equals(method) && path.length == 3 && "day".equals(path[2])) {
+            getDay(exchange, getQueryParams(exchange));
+        } else if ("GET".equals(method) && path.length == 3 && "week".equals(path[2])) {
+            getWeek(exchange, getQueryParams(exchange));
+        } else {
+            sendBadRequest(exchange, "Not supported request");
+        }
+
+    }
+
+    /**
+     * GET /calendar/day?date=dd.MM.yyyy, today if date is not set
+     */
+    private void getDay(HttpExchange exchange, Map<String, String> params) throws IOException {
+        try {
+            List<Task> tasks = Managers.getDefault().getTasksOfDay(parseDate(params.get("date")));
+            sendJson(exchange, HttpTaskServer.getGson().toJson(tasks));
+        } catch (DateTimeParseException e) {
+            sendBadRequest(exchange, "Get error: wrong date format, expected dd.MM.yyyy");
+        }
+    }
+
+    /**
+     * GET /calendar/week?date=dd.MM.yyyy, current week if date is not set. Response is an object with 7 days as keys.
+     */
+    private void getWeek(HttpExchange exchange, Map<String, String> params) throws IOException {
+        try {
+            Map<LocalDate, List<Task>> week = Managers.getDefault().getTasksOfWeek(parseDate(params.get("date")));
+            Map<String, List<Task>> response = new LinkedHashMap<>();
+            week.forEach((day, tasks) -> response.put(day.format(DATE_FORMATTER), tasks));
+            sendJson(exchange, HttpTaskServer.getGson().toJson(response));
+        } catch (DateTimeParseException e) {
+            sendBadRequest(exchange, "Get error: wrong date format, expected dd.MM.yyyy");
+        }
+    }
+
+    private LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) return LocalDate.now();
+        return LocalDate.parse(value, DATE_FORMATTER);
+    }
+
+}
@@ -13,7 +13,7 @@ import task.Subtask;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
+import java.util.Collection;
 
 public class EpicsHttpHandler extends BaseHttpHandler implements HttpHandler {
 
@@ -69,15 +69,16 @@ public class EpicsHttpHandler extends BaseHttpHandler implements HttpHandler {
     }
 
     private void getEpicSubtasks(HttpExchange exchange, int taskId) throws IOException {
-        List<Subtask> subtasks = Managers.getDefault().getEpicSubtasks(taskId);
-        String json = HttpTaskServer.getGson().toJson(subtasks);
-        sendJson(exchange, json);
+        try {
+            Collection<Subtask> subtasks = Managers.getDefault().viewEpicSubtasks(taskId);
+            sendJsonStream(exchange, subtasks);
+        } catch (TaskNotFoundException e) {
+            sendNotFound(exchange, "Get error: Epic not found");
+        }
     }
 
     private void getEpics(HttpExchange exchange) throws IOException {
-        List<Epic> epics = Managers.getDefault().getEpics();
-        String json = HttpTaskServer.getGson().toJson(epics);
-        sendJson(exchange, json);
+        sendJsonStream(exchange, Managers.getDefault().viewEpics());
     }
 
     private void getEpicById(HttpExchange exchange, int taskId) throws IOException {
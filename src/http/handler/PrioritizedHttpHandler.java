@@ -9,7 +9,12 @@ import task.Task;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class PrioritizedHttpHandler extends BaseHttpHandler implements HttpHandler {
 
@@ -21,7 +26,14 @@ public class PrioritizedHttpHandler extends BaseHttpHandler implements HttpHandl
         String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
 
         if ("GET".equals(method) && path.length < 3) {
-            getPrioritized(exchange);
+            Map<String, String> params = getQueryParams(exchange);
+            if (params.isEmpty()) {
+                getPrioritized(exchange);
+            } else {
+                getTasksBetween(exchange, params);
+            }
+        } else if ("GET".equals(method) && path.length == 3 && "free-slots".equals(path[2])) {
+            getFreeSlot(exchange, getQueryParams(exchange));
         } else {
             sendBadRequest(exchange, "Not supported request");
         }
@@ -29,9 +41,68 @@ public class PrioritizedHttpHandler extends BaseHttpHandler implements HttpHandl
     }
 
     private void getPrioritized(HttpExchange exchange) throws IOException {
-        List<Task> tasks = Managers.getDefault().getPrioritizedTasks();
-        String json = HttpTaskServer.getGson().toJson(tasks);
-        sendJson(exchange, json);
+        sendJsonStream(exchange, Managers.getDefault().viewPrioritizedTasks());
+    }
+
+    /**
+     * GET /prioritized?from=dd.MM.yyyy HH:mm&to=dd.MM.yyyy HH:mm&limit=N, every parameter is optional.
+     * <br>Next page: GET /prioritized?from=start time of the last task&afterId=ID of the last task&to=...&limit=N
+     */
+    private void getTasksBetween(HttpExchange exchange, Map<String, String> params) throws IOException {
+        try {
+            LocalDateTime from = parseTime(params.get("from"));
+            LocalDateTime to = parseTime(params.get("to"));
+            int limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : Integer.MAX_VALUE;
+            List<Task> tasks;
+            if (params.containsKey("afterId")) {
+                if (from == null) throw new IllegalArgumentException("parameter 'from' is required with 'afterId'");
+                int afterId = Integer.parseInt(params.get("afterId"));
+                tasks = Managers.getDefault().getTasksAfter(from, afterId, to, limit);
+            } else {
+                tasks = Managers.getDefault().getTasksBetween(from, to, limit);
+            }
+            String json = HttpTaskServer.getGson().toJson(tasks);
+            sendJson(exchange, json);
+        } catch (DateTimeParseException e) {
+            sendBadRequest(exchange, "Get error: wrong time format, expected dd.MM.yyyy HH:mm");
+        } catch (NumberFormatException e) {
+            sendBadRequest(exchange, "Get error: wrong limit or afterId");
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, "Get error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * GET /prioritized/free-slots?duration=seconds&from=dd.MM.yyyy HH:mm&to=dd.MM.yyyy HH:mm, 'to' is optional
+     */
+    private void getFreeSlot(HttpExchange exchange, Map<String, String> params) throws IOException {
+        try {
+            if (!params.containsKey("duration") || !params.containsKey("from"))
+                throw new IllegalArgumentException("parameters 'duration' and 'from' are required");
+            Duration duration = Duration.ofSeconds(Long.parseLong(params.get("duration")));
+            LocalDateTime from = parseTime(params.get("from"));
+            LocalDateTime to = parseTime(params.get("to"));
+            LocalDateTime slot = Managers.getDefault().findFreeSlot(duration, from, to);
+            if (slot == null) {
+                sendNotFound(exchange, "Get error: no free slot");
+                return;
+            }
+            Map<String, LocalDateTime> response = new LinkedHashMap<>();
+            response.put("startTime", slot);
+            response.put("endTime", slot.plus(duration));
+            sendJson(exchange, HttpTaskServer.getGson().toJson(response));
+        } catch (DateTimeParseException e) {
+            sendBadRequest(exchange, "Get error: wrong time format, expected dd.MM.yyyy HH:mm");
+        } catch (NumberFormatException e) {
+            sendBadRequest(exchange, "Get error: wrong duration");
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, "Get error: " + e.getMessage());
+        }
+    }
+
+    private LocalDateTime parseTime(String value) {
+        if (value == null || value.isBlank()) return null;
+        return LocalDateTime.parse(value, Task.DATE_TIME_FORMATTER);
     }
 
 }
@@ -0,0 +1,50 @@
+package http.handler;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import http.HttpTaskServer;
+import manager.Managers;
+import task.Task;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class SearchHttpHandler extends BaseHttpHandler implements HttpHandler {
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        Headers headers = exchange.getRequestHeaders();
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+        if ("GET".equals(method) && path.length < 3) {
+            search(exchange, getQueryParams(exchange));
+        } else {
+            sendBadRequest(exchange, "Not supported request");
+        }
+
+    }
+
+    /**
+     * GET /search?q=words&limit=N, 'limit' is optional
+     */
+    private void search(HttpExchange exchange, Map<String, String> params) throws IOException {
+        try {
+            String query = params.get("q");
+            if (query == null || query.isBlank()) throw new IllegalArgumentException("parameter 'q' is required");
+            int limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : Integer.MAX_VALUE;
+            List<Task> found = Managers.getDefault().search(query, limit);
+            String json = HttpTaskServer.getGson().toJson(found);
+            sendJson(exchange, json);
+        } catch (NumberFormatException e) {
+            sendBadRequest(exchange, "Get error: wrong limit");
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, "Get error: " + e.getMessage());
+        }
+    }
+
+}
@@ -13,7 +13,6 @@ import task.Subtask;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
 
 public class SubtasksHttpHandler extends BaseHttpHandler implements HttpHandler {
 
@@ -63,9 +62,7 @@ public class SubtasksHttpHandler extends BaseHttpHandler implements HttpHandler
     }
 
     private void getSubtasks(HttpExchange exchange) throws IOException {
-        List<Subtask> subtasks = Managers.getDefault().getSubTasks();
-        String json = HttpTaskServer.getGson().toJson(subtasks);
-        sendJson(exchange, json);
+        sendJsonStream(exchange, Managers.getDefault().viewSubtasks());
     }
 
     private void getSubtaskById(HttpExchange exchange, int taskId) throws IOException {
@@ -0,0 +1,36 @@
+package http.handler;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import http.HttpTaskServer;
+import manager.BoardSummary;
+import manager.Managers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class SummaryHttpHandler extends BaseHttpHandler implements HttpHandler {
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        Headers headers = exchange.getRequestHeaders();
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+        if ("GET".equals(method) && path.length < 3) {
+            getSummary(exchange);
+        } else {
+            sendBadRequest(exchange, "Not supported request");
+        }
+
+    }
+
+    private void getSummary(HttpExchange exchange) throws IOException {
+        BoardSummary summary = Managers.getDefault().getSummary();
+        String json = HttpTaskServer.getGson().toJson(summary);
+        sendJson(exchange, json);
+    }
+
+}
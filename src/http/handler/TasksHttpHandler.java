@@ -15,7 +15,6 @@ import task.Task;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
 
 public class TasksHttpHandler extends BaseHttpHandler implements HttpHandler {
 
@@ -65,9 +64,7 @@ public class TasksHttpHandler extends BaseHttpHandler implements HttpHandler {
     }
 
     private void getTasks(HttpExchange exchange) throws IOException {
-        List<Task> tasks = Managers.getDefault().getTasks();
-        String json = HttpTaskServer.getGson().toJson(tasks);
-        sendJson(exchange, json);
+        sendJsonStream(exchange, Managers.getDefault().viewTasks());
     }
 
     private void getTaskById(HttpExchange exchange, int taskId) throws IOException {
@@ -0,0 +1,180 @@
+package manager;
+
+import exception.ManagerLoadException;
+import task.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+/**
+ * Compact binary storage of tasks, an alternative to CSV.
+ * <br>File layout: magic bytes {@code TMB}, version byte, then records until the end of file.
+ * A record is: type byte, varint ID, status byte, flags byte (1 — has start time, 2 — has duration),
+ * title and description as varint length + UTF-8 bytes, start time as zigzag varint of epoch minutes (UTC),
+ * duration as zigzag varint of seconds, and varint Epic ID for subtasks.
+ * <br>Start time keeps minutes precision like the CSV format. Epic status and timing are written but ignored
+ * on reading: they are calculated from subtasks.
+ */
+public final class BinaryTaskFormat {
+
+    public static final int VERSION = 1;
+    private static final byte[] MAGIC = {'T', 'M', 'B'};
+    private static final int HEADER_SIZE = MAGIC.length + 1;
+    private static final int HAS_START_TIME = 1;
+    private static final int HAS_DURATION = 2;
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private BinaryTaskFormat() {
+    }
+
+    /**
+     * Writes the header and all the records. The stream is not closed.
+     * @param out output stream, should be buffered
+     * @param records tasks, epics and subtasks in any order
+     */
+    public static void write(OutputStream out, Collection<? extends Task> records) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+        for (Task task : records) writeRecord(out, task);
+    }
+
+    private static void writeRecord(OutputStream out, Task task) throws IOException {
+        TaskType type = (task instanceof Epic) ? TaskType.EPIC
+                : (task instanceof Subtask) ? TaskType.SUBTASK : TaskType.TASK;
+        TaskStatus status = (task.getStatus() == null) ? TaskStatus.NEW : task.getStatus();
+        LocalDateTime startTime = task.getStartTime();
+        Duration duration = task.getDuration();
+        out.write(type.ordinal());
+        writeVarLong(out, task.getId());
+        out.write(status.ordinal());
+        out.write(((startTime != null) ? HAS_START_TIME : 0) | ((duration != null) ? HAS_DURATION : 0));
+        writeText(out, task.getTitle());
+        writeText(out, task.getDescription());
+        if (startTime != null) writeVarLong(out, zigzag(startTime.toEpochSecond(ZoneOffset.UTC) / 60));
+        if (duration != null) writeVarLong(out, zigzag(duration.toSeconds()));
+        if (type == TaskType.SUBTASK) {
+            Subtask subtask = (Subtask) task;
+            writeVarLong(out, (subtask.getEpic() != null) ? subtask.getEpic().getId() : subtask.getEpicId());
+        }
+    }
+
+    private static void writeText(OutputStream out, String text) throws IOException {
+        byte[] bytes = (text == null) ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Checks the header and returns a reader of the records
+     * @param data the whole file content
+     * @return {@code Reader} reader positioned at the first record
+     * @throws ManagerLoadException if the header is wrong or the version is not supported
+     */
+    public static Reader reader(byte[] data) {
+        if (data.length < HEADER_SIZE || data[0] != MAGIC[0] || data[1] != MAGIC[1] || data[2] != MAGIC[2]) {
+            throw new ManagerLoadException("Incorrect binary file: wrong header");
+        }
+        if (data[3] != VERSION) throw new ManagerLoadException("Unsupported binary file version: " + data[3]);
+        return new Reader(data);
+    }
+
+    /**
+     * Cursor over the records of a binary file
+     */
+    public static final class Reader {
+
+        private final byte[] data;
+        private int position = HEADER_SIZE;
+
+        private Reader(byte[] data) {
+            this.data = data;
+        }
+
+        public boolean hasNext() {
+            return position < data.length;
+        }
+
+        /**
+         * Reads the next record keeping its ID
+         * @return {@code Task} Task, Epic or Subtask object
+         * @throws ManagerLoadException if the record is broken
+         */
+        public Task next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            int start = position;
+            try {
+                TaskType type = TYPES[readByte()];
+                int id = readInt();
+                TaskStatus status = STATUSES[readByte()];
+                int flags = readByte();
+                String title = readText();
+                String description = readText();
+                LocalDateTime startTime = ((flags & HAS_START_TIME) == 0) ? null
+                        : LocalDateTime.ofEpochSecond(unzigzag(readVarLong()) * 60, 0, ZoneOffset.UTC);
+                Duration duration = ((flags & HAS_DURATION) == 0) ? null : Duration.ofSeconds(unzigzag(readVarLong()));
+                if (id < 1) throw new ManagerLoadException("Incorrect binary record at " + start + ": ID = " + id);
+                return switch (type) {
+                    case EPIC -> new Epic(id, title, description);
+                    case SUBTASK -> new Subtask(id, readInt(), title, description, status, startTime, duration);
+                    case TASK -> new Task(id, title, description, status, startTime, duration);
+                };
+            } catch (IndexOutOfBoundsException | DateTimeException e) {
+                throw new ManagerLoadException("Incorrect binary record at " + start);
+            }
+        }
+
+        private int readByte() {
+            return data[position++] & 0xFF;
+        }
+
+        private int readInt() {
+            long value = readVarLong();
+            if (value > Integer.MAX_VALUE) throw new ManagerLoadException("Incorrect binary record at " + position);
+            return (int) value;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new ManagerLoadException("Incorrect binary record at " + position + ": varint is too long");
+        }
+
+        private String readText() {
+            int length = readInt();
+            if (length > data.length - position) throw new IndexOutOfBoundsException();
+            String text = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return text;
+        }
+
+        private static long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+    }
+
+}
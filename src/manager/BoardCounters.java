@@ -0,0 +1,108 @@
+package manager;
+
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskStatus;
+import task.TaskType;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of records by type and status and of scheduled time, changed by the task manager on every write.
+ * <br>Every counter is atomic, so writers holding different locks may change them at the same time.
+ */
+public class BoardCounters {
+
+    private static final int STATUSES = TaskStatus.values().length;
+
+    private final AtomicIntegerArray records = new AtomicIntegerArray(TaskType.values().length * STATUSES);
+    private final AtomicInteger scheduled = new AtomicInteger();
+    private final AtomicLong scheduledSeconds = new AtomicLong();
+
+    /**
+     * Counts the record with its current status
+     * @param task Task, Epic or Subtask object
+     */
+    public void addRecord(Task task) {
+        changeStatusCount(typeOf(task), task.getStatus(), 1);
+    }
+
+    /**
+     * Stops counting the record with its current status
+     * @param task Task, Epic or Subtask object
+     */
+    public void removeRecord(Task task) {
+        changeStatusCount(typeOf(task), task.getStatus(), -1);
+    }
+
+    /**
+     * Moves the counted record from one status to another
+     * @param task record which status was changed
+     * @param oldStatus status before the change
+     */
+    public void changeStatus(Task task, TaskStatus oldStatus) {
+        if (oldStatus == task.getStatus()) return;
+        TaskType type = typeOf(task);
+        changeStatusCount(type, oldStatus, -1);
+        changeStatusCount(type, task.getStatus(), 1);
+    }
+
+    public void clearRecords() {
+        for (int i = 0; i < records.length(); i++) records.set(i, 0);
+    }
+
+    /**
+     * Counts the scheduled task and its duration
+     * @param task Task or Subtask object with start time
+     */
+    public void addScheduled(Task task) {
+        scheduled.incrementAndGet();
+        if (task.getDuration() != null) scheduledSeconds.addAndGet(task.getDuration().toSeconds());
+    }
+
+    /**
+     * Stops counting the scheduled task. Should be called before changing the task timing.
+     * @param task Task or Subtask object with start time
+     */
+    public void removeScheduled(Task task) {
+        scheduled.decrementAndGet();
+        if (task.getDuration() != null) scheduledSeconds.addAndGet(-task.getDuration().toSeconds());
+    }
+
+    public void clearScheduled() {
+        scheduled.set(0);
+        scheduledSeconds.set(0);
+    }
+
+    /**
+     * Returns current values of all the counters
+     * @return {@code BoardSummary} new object
+     */
+    public BoardSummary toSummary() {
+        return new BoardSummary(statusCounts(TaskType.TASK), statusCounts(TaskType.EPIC), statusCounts(TaskType.SUBTASK),
+                scheduled.get(), Duration.ofSeconds(scheduledSeconds.get()));
+    }
+
+    private Map<TaskStatus, Integer> statusCounts(TaskType type) {
+        Map<TaskStatus, Integer> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) counts.put(status, records.get(type.ordinal() * STATUSES + status.ordinal()));
+        return counts;
+    }
+
+    private void changeStatusCount(TaskType type, TaskStatus status, int delta) {
+        if (status != null) records.addAndGet(type.ordinal() * STATUSES + status.ordinal(), delta);
+    }
+
+    private static TaskType typeOf(Task task) {
+        if (task instanceof Epic) return TaskType.EPIC;
+        if (task instanceof Subtask) return TaskType.SUBTASK;
+        return TaskType.TASK;
+    }
+
+}
@@ -0,0 +1,176 @@
+package manager;
+
+import task.Epic;
+import task.Subtask;
+import task.Task;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable version of the board published by the concurrent task manager after every change.
+ * <br>Lists of tasks, epics, subtasks and prioritized tasks of one snapshot are always consistent with each other:
+ * readers never see a half-applied change, and a snapshot never changes after publishing.
+ * Lists are views of persistent trees, so neither publishing nor reading copies the whole board.
+ * <br>Snapshot keeps detached copies of the records made by {@link #freeze(Task)} when the change is published,
+ * so fields of its tasks never change either. Only the changed records are copied.
+ * Copies of epics don't hold their subtasks: subtasks of an epic are kept in a persistent map of the epic,
+ * so a change of one subtask copies only the subtask and the epic, see {@link #getEpicSubtasks(int)}.
+ */
+public final class BoardSnapshot {
+
+    private static final Comparator<ScheduleKey> SCHEDULE_ORDER =
+            Comparator.comparing(ScheduleKey::startTime).thenComparingInt(ScheduleKey::id);
+
+    private final long version;
+    private final PersistentSortedMap<Integer, Task> tasks;
+    private final PersistentSortedMap<Integer, Epic> epics;
+    private final PersistentSortedMap<Integer, Subtask> subtasks;
+    private final PersistentSortedMap<ScheduleKey, Task> prioritized;
+    private final PersistentSortedMap<Integer, PersistentSortedMap<Integer, Subtask>> epicSubtasks;
+
+    private BoardSnapshot(long version, PersistentSortedMap<Integer, Task> tasks, PersistentSortedMap<Integer, Epic> epics,
+                          PersistentSortedMap<Integer, Subtask> subtasks, PersistentSortedMap<ScheduleKey, Task> prioritized,
+                          PersistentSortedMap<Integer, PersistentSortedMap<Integer, Subtask>> epicSubtasks) {
+        this.version = version;
+        this.tasks = tasks;
+        this.epics = epics;
+        this.subtasks = subtasks;
+        this.prioritized = prioritized;
+        this.epicSubtasks = epicSubtasks;
+    }
+
+    /**
+     * Returns a snapshot of the empty board
+     * @return {@code BoardSnapshot} snapshot of version 0
+     */
+    public static BoardSnapshot empty() {
+        return new BoardSnapshot(0, PersistentSortedMap.empty(Comparator.naturalOrder()),
+                PersistentSortedMap.empty(Comparator.naturalOrder()), PersistentSortedMap.empty(Comparator.naturalOrder()),
+                PersistentSortedMap.empty(SCHEDULE_ORDER), PersistentSortedMap.empty(Comparator.naturalOrder()));
+    }
+
+    //#################################### Get methods ####################################
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Task> getTasks() {
+        return tasks.values();
+    }
+
+    public List<Epic> getEpics() {
+        return epics.values();
+    }
+
+    public List<Subtask> getSubtasks() {
+        return subtasks.values();
+    }
+
+    public List<Task> getPrioritizedTasks() {
+        return prioritized.values();
+    }
+
+    /**
+     * Returns subtasks of the epic ordered by ID
+     * @param epicId ID of the epic
+     * @return {@code List<Subtask>} view of the subtasks, empty if the epic has no subtasks or doesn't exist
+     */
+    public List<Subtask> getEpicSubtasks(int epicId) {
+        PersistentSortedMap<Integer, Subtask> epicMap = epicSubtasks.get(epicId);
+        return (epicMap == null) ? List.of() : epicMap.values();
+    }
+
+    /**
+     * Returns the epic of the snapshot
+     * @param epicId ID of the epic
+     * @return {@code Epic} copy of the epic, null if there is no such epic
+     */
+    public Epic getEpic(int epicId) {
+        return epics.get(epicId);
+    }
+
+    //#################################### Edit methods ####################################
+
+    /**
+     * Returns a detached copy of the live record to put to a snapshot. The copy of an epic keeps its status
+     * and timing but not its subtasks, so the cost doesn't depend on the number of subtasks.
+     * Should be called by the writer holding the lock that guards the record.
+     * @param task live Task, Epic or Subtask object
+     * @return {@code Task} new object
+     */
+    static Task freeze(Task task) {
+        return task.copy();
+    }
+
+    /**
+     * Puts the frozen record replacing its previous version, a record with start time is put to prioritized list too
+     * @param task copy made by {@link #freeze(Task)}
+     */
+    BoardSnapshot withRecord(Task task) {
+        BoardSnapshot removed = withoutRecord(task);
+        if (task instanceof Epic epic) {
+            return new BoardSnapshot(version, tasks, removed.epics.put(epic.getId(), epic), subtasks, prioritized,
+                    epicSubtasks);
+        }
+        PersistentSortedMap<ScheduleKey, Task> newPrioritized = (task.getStartTime() == null) ? removed.prioritized
+                : removed.prioritized.put(new ScheduleKey(task.getStartTime(), task.getId()), task);
+        if (task instanceof Subtask subtask) {
+            PersistentSortedMap<Integer, Subtask> epicMap = removed.epicSubtasks.get(subtask.getEpicId());
+            if (epicMap == null) epicMap = PersistentSortedMap.empty(Comparator.naturalOrder());
+            return new BoardSnapshot(version, tasks, epics, removed.subtasks.put(subtask.getId(), subtask), newPrioritized,
+                    removed.epicSubtasks.put(subtask.getEpicId(), epicMap.put(subtask.getId(), subtask)));
+        }
+        return new BoardSnapshot(version, removed.tasks.put(task.getId(), task), epics, subtasks, newPrioritized,
+                epicSubtasks);
+    }
+
+    /**
+     * Removes the record of the same type and ID and its place in prioritized list
+     * @param task live record or its copy
+     */
+    BoardSnapshot withoutRecord(Task task) {
+        if (task instanceof Epic) {
+            return epics.containsKey(task.getId()) ? new BoardSnapshot(version, tasks, epics.remove(task.getId()),
+                    subtasks, prioritized, epicSubtasks) : this;
+        }
+        boolean isSubtask = task instanceof Subtask;
+        Task old = isSubtask ? subtasks.get(task.getId()) : tasks.get(task.getId());
+        if (old == null) return this;
+        PersistentSortedMap<ScheduleKey, Task> newPrioritized = (old.getStartTime() == null) ? prioritized
+                : prioritized.remove(new ScheduleKey(old.getStartTime(), old.getId()));
+        if (isSubtask) {
+            return new BoardSnapshot(version, tasks, epics, subtasks.remove(task.getId()), newPrioritized,
+                    withoutEpicSubtask((Subtask) old));
+        }
+        return new BoardSnapshot(version, tasks.remove(task.getId()), epics, subtasks, newPrioritized, epicSubtasks);
+    }
+
+    BoardSnapshot withoutRecords() {
+        return empty().withVersion(version);
+    }
+
+    BoardSnapshot withVersion(long version) {
+        return new BoardSnapshot(version, tasks, epics, subtasks, prioritized, epicSubtasks);
+    }
+
+    /**
+     * Removes the subtask from the map of its epic, the map of the epic is dropped with its last subtask
+     * @param old copy of the subtask kept in this snapshot
+     */
+    private PersistentSortedMap<Integer, PersistentSortedMap<Integer, Subtask>> withoutEpicSubtask(Subtask old) {
+        PersistentSortedMap<Integer, Subtask> epicMap = epicSubtasks.get(old.getEpicId());
+        if (epicMap == null) return epicSubtasks;
+        PersistentSortedMap<Integer, Subtask> newEpicMap = epicMap.remove(old.getId());
+        return newEpicMap.isEmpty() ? epicSubtasks.remove(old.getEpicId()) : epicSubtasks.put(old.getEpicId(), newEpicMap);
+    }
+
+    /**
+     * Position of the task in prioritized list
+     */
+    private record ScheduleKey(LocalDateTime startTime, int id) {
+    }
+
+}
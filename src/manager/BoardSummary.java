@@ -0,0 +1,75 @@
+package manager;
+
+import com.google.gson.annotations.Expose;
+import task.TaskStatus;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Aggregates of the board: number of tasks, epics and subtasks by status, number of scheduled tasks and subtasks
+ * and their total duration. Built from counters of the task manager without reading the tasks.
+ */
+public final class BoardSummary {
+
+    @Expose
+    private final Map<TaskStatus, Integer> tasks;
+    @Expose
+    private final Map<TaskStatus, Integer> epics;
+    @Expose
+    private final Map<TaskStatus, Integer> subtasks;
+    @Expose
+    private final int scheduled;
+    @Expose
+    private final Duration scheduledTime;
+
+    public BoardSummary(Map<TaskStatus, Integer> tasks, Map<TaskStatus, Integer> epics, Map<TaskStatus, Integer> subtasks,
+                        int scheduled, Duration scheduledTime) {
+        this.tasks = Collections.unmodifiableMap(new EnumMap<>(tasks));
+        this.epics = Collections.unmodifiableMap(new EnumMap<>(epics));
+        this.subtasks = Collections.unmodifiableMap(new EnumMap<>(subtasks));
+        this.scheduled = scheduled;
+        this.scheduledTime = scheduledTime;
+    }
+
+    /**
+     * Returns number of simple tasks by status
+     * @return {@code Map<TaskStatus, Integer>} counts of all the statuses, zero counts included
+     */
+    public Map<TaskStatus, Integer> getTasks() {
+        return tasks;
+    }
+
+    public Map<TaskStatus, Integer> getEpics() {
+        return epics;
+    }
+
+    public Map<TaskStatus, Integer> getSubtasks() {
+        return subtasks;
+    }
+
+    /**
+     * Returns number of tasks and subtasks having start time
+     * @return {@code int} number of scheduled records
+     */
+    public int getScheduled() {
+        return scheduled;
+    }
+
+    /**
+     * Returns total duration of scheduled tasks and subtasks. Epics are not counted, they consist of subtasks.
+     * @return {@code Duration} sum of durations
+     */
+    public Duration getScheduledTime() {
+        return scheduledTime;
+    }
+
+    @Override
+    public String toString() {
+        return "BoardSummary{tasks=" + tasks + ", epics=" + epics + ", subtasks=" + subtasks
+                + ", scheduled=" + scheduled + ", scheduledTime=" + scheduledTime + "}";
+    }
+
+}
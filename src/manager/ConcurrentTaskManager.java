@@ -0,0 +1,877 @@
+package manager;
+
+import exception.TaskIntersectionException;
+import exception.TaskNotFoundException;
+import exception.WrongTaskArgumentException;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TaskFactory;
+import task.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe task manager containing all the data in RAM.
+ * <br>{@link LockMode#GLOBAL} — get methods share the read lock and run in parallel, edit and remove methods
+ * take the write lock, so every change is applied atomically and is visible to all the following reads.
+ * <br>{@link LockMode#STRIPED} — edit methods share the read lock too. Changes of an epic and its subtasks
+ * are serialized on the epic's stripe lock, changes of a task on the stripe of its own ID. The shared time indexes
+ * are guarded by the index lock, held only for the intersection check and re-sorting of the changed task.
+ * The shared storages of records and the search index are guarded by the record lock, held only to put or remove
+ * the record. Epic rollup, events and copies are made under the stripe only. Both shared locks are read-write locks,
+ * so get methods don't exclude each other. Only removing of epics, batch methods and removeAll* / clearAllData
+ * methods take the exclusive write lock.
+ * <br>Viewing a task changes the history, so history access is additionally serialized on the history manager.
+ * <br>Every change publishes a new {@link BoardSnapshot}, list methods read the latest one with one volatile read
+ * and don't take any locks. The writer collects the records it changed and publishes their copies at the end
+ * of the change, still holding its locks. Changes are published in order of their first write to the board,
+ * so a snapshot never shows a later change without an earlier one.
+ */
+public class ConcurrentTaskManager extends InMemoryTaskManager {
+
+    /**
+     * Locking model of the manager
+     */
+    public enum LockMode {
+        GLOBAL,
+        STRIPED
+    }
+
+    public static final int STRIPES = 64;
+
+    protected final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    protected final Lock readLock = lock.readLock();
+    protected final Lock writeLock = lock.writeLock();
+    protected final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();   // time indexes
+    protected final ReentrantReadWriteLock recordLock = new ReentrantReadWriteLock();  // storages and search index
+    protected final Lock[] epicLocks = new Lock[STRIPES];
+    protected final LockMode lockMode;
+    private final ThreadLocal<PendingChanges> pending = ThreadLocal.withInitial(PendingChanges::new);
+    private final AtomicLong tickets = new AtomicLong();           // order of changes, taken by the first write
+    private final Object publishLock = new Object();
+    private long published;                                         // ticket of the last published change
+    private volatile BoardSnapshot snapshot = BoardSnapshot.empty();
+
+    public ConcurrentTaskManager(TaskFactory taskFactory, HistoryManager historyManager) {
+        this(taskFactory, historyManager, LockMode.GLOBAL);
+    }
+
+    public ConcurrentTaskManager(TaskFactory taskFactory, HistoryManager historyManager, LockMode lockMode) {
+        super(taskFactory, historyManager);
+        if (lockMode == null) throw new IllegalArgumentException("Parameter 'lockMode' cannot be null");
+        this.lockMode = lockMode;
+        for (int i = 0; i < STRIPES; i++) epicLocks[i] = new ReentrantLock();
+    }
+
+    public LockMode getLockMode() {
+        return lockMode;
+    }
+
+    /**
+     * Returns the latest published version of the board. Never blocks.
+     * @return {@code BoardSnapshot} immutable snapshot
+     */
+    public BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    //#################################### Get methods ####################################
+
+    @Override
+    public Task getTaskById(int id) throws TaskNotFoundException {
+        readLock.lock();
+        lockStriped(recordLock.readLock());
+        try {
+            synchronized (historyManager) {
+                return super.getTaskById(id);
+            }
+        } finally {
+            unlockStriped(recordLock.readLock());
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    protected List<Task> getAllRecords() {
+        readLock.lock();
+        lockStriped(recordLock.readLock());
+        try {
+            return super.getAllRecords();
+        } finally {
+            unlockStriped(recordLock.readLock());
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getTasks() {
+        return snapshot.getTasks();
+    }
+
+    /**
+     * Epics of the snapshot don't hold their subtasks, use {@link #getEpicSubtasks(int)}
+     */
+    @Override
+    public List<Epic> getEpics() {
+        return snapshot.getEpics();
+    }
+
+    @Override
+    public List<Subtask> getSubTasks() {
+        return snapshot.getSubtasks();
+    }
+
+    @Override
+    public List<Subtask> getEpicSubtasks(int epicId) throws TaskNotFoundException {
+        readLock.lock();
+        lockEpic(epicId);
+        try {
+            if (!(getRecord(epicId) instanceof Epic epic)) throw new TaskNotFoundException("Epic #" + epicId + " not found!");
+            return epic.getSubtasks().values().stream().toList();
+        } finally {
+            unlockEpic(epicId);
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return snapshot.getPrioritizedTasks();
+    }
+
+    @Override
+    public List<Task> getTasksBetween(LocalDateTime from, LocalDateTime to) {
+        return getTasksBetween(from, to, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> getTasksBetween(LocalDateTime from, LocalDateTime to, int limit) {
+        readLock.lock();
+        lockStriped(indexLock.readLock());
+        try {
+            return super.getTasksBetween(from, to, limit);
+        } finally {
+            unlockStriped(indexLock.readLock());
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getTasksAfter(LocalDateTime afterStart, int afterId, LocalDateTime to, int limit) {
+        readLock.lock();
+        lockStriped(indexLock.readLock());
+        try {
+            return super.getTasksAfter(afterStart, afterId, to, limit);
+        } finally {
+            unlockStriped(indexLock.readLock());
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public LocalDateTime findFreeSlot(Duration duration, LocalDateTime notBefore, LocalDateTime notAfter) {
+        readLock.lock();
+        lockStriped(indexLock.readLock());
+        try {
+            return super.findFreeSlot(duration, notBefore, notAfter);
+        } finally {
+            unlockStriped(indexLock.readLock());
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getTasksOfDay(LocalDate day) {
+        readLock.lock();
+        lockStriped(indexLock.readLock());
+        try {
+            return super.getTasksOfDay(day);
+        } finally {
+            unlockStriped(indexLock.readLock());
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Map<LocalDate, List<Task>> getTasksOfWeek(LocalDate day) {
+        readLock.lock();
+        lockStriped(indexLock.readLock());
+        try {
+            return super.getTasksOfWeek(day);
+        } finally {
+            unlockStriped(indexLock.readLock());
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Counters are atomic, so the summary is read without the shared locks
+     */
+    @Override
+    public BoardSummary getSummary() {
+        readLock.lock();
+        try {
+            return super.getSummary();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> search(String query) {
+        return search(query, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        readLock.lock();
+        lockStriped(recordLock.readLock());
+        try {
+            return super.search(query, limit);
+        } finally {
+            unlockStriped(recordLock.readLock());
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        readLock.lock();
+        try {
+            synchronized (historyManager) {
+                return super.getHistory();
+            }
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    //#################################### View methods ####################################
+
+    @Override
+    public Collection<Task> viewTasks() {
+        return snapshot.getTasks();
+    }
+
+    @Override
+    public Collection<Epic> viewEpics() {
+        return snapshot.getEpics();
+    }
+
+    @Override
+    public Collection<Subtask> viewSubtasks() {
+        return snapshot.getSubtasks();
+    }
+
+    @Override
+    public Collection<Subtask> viewEpicSubtasks(int epicId) throws TaskNotFoundException {
+        BoardSnapshot current = snapshot;
+        if (current.getEpic(epicId) == null) throw new TaskNotFoundException("Epic #" + epicId + " not found!");
+        return current.getEpicSubtasks(epicId);
+    }
+
+    @Override
+    public Collection<Task> viewPrioritizedTasks() {
+        return snapshot.getPrioritizedTasks();
+    }
+
+    //#################################### Edit methods ####################################
+
+    /**
+     * Adds a new Task. In striped mode the new task is copied for the snapshot before it is put to storages,
+     * because other writers can change it as soon as it is found there.
+     */
+    @Override
+    public Task add(Task task) throws TaskIntersectionException, WrongTaskArgumentException {
+        if (lockMode == LockMode.GLOBAL || task == null) {
+            writeLock.lock();
+            try {
+                return super.add(task);
+            } finally {
+                publish();
+                writeLock.unlock();
+            }
+        }
+        readLock.lock();
+        try {
+            Task newTask;
+            indexLock.writeLock().lock();
+            try {
+                checkIntersections(task);
+                newTask = taskFactory.newTask(task);
+                addToSchedule(newTask);
+                markCreated(newTask);
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+            putRecordLocked(newTask);
+            publishCreated(newTask);
+            return newTask;
+        } finally {
+            publish();
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Epic add(Epic epic) throws WrongTaskArgumentException {
+        if (lockMode == LockMode.GLOBAL || epic == null) {
+            writeLock.lock();
+            try {
+                return super.add(epic);
+            } finally {
+                publish();
+                writeLock.unlock();
+            }
+        }
+        readLock.lock();
+        try {
+            Epic newEpic = taskFactory.newEpic(epic);
+            markCreated(newEpic);
+            putRecordLocked(newEpic);
+            publishCreated(newEpic);
+            return newEpic;
+        } finally {
+            publish();
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Subtask add(Subtask subtask) throws TaskIntersectionException, WrongTaskArgumentException, TaskNotFoundException {
+        if (lockMode == LockMode.GLOBAL || subtask == null) {
+            writeLock.lock();
+            try {
+                return super.add(subtask);
+            } finally {
+                publish();
+                writeLock.unlock();
+            }
+        }
+        int epicId = subtask.getEpicId();
+        readLock.lock();
+        lockEpic(epicId);
+        try {
+            Epic epic;
+            recordLock.readLock().lock();
+            try {
+                epic = findSubtaskEpic(subtask);
+            } finally {
+                recordLock.readLock().unlock();
+            }
+            Subtask newSubtask;
+            indexLock.writeLock().lock();
+            try {
+                checkIntersections(subtask);
+                newSubtask = taskFactory.newSubtask(subtask);
+                addToSchedule(newSubtask);
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+            Task epicBefore = copyEpic(epic);
+            epic.linkSubtask(newSubtask);
+            putRecordLocked(newSubtask);
+            publishCreated(newSubtask);
+            afterEpicRollup(epicBefore, epic);
+            return newSubtask;
+        } finally {
+            publish();
+            unlockEpic(epicId);
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Task update(Task newTask) throws TaskIntersectionException, WrongTaskArgumentException, TaskNotFoundException {
+        if (lockMode == LockMode.GLOBAL || newTask == null) {
+            writeLock.lock();
+            try {
+                return super.update(newTask);
+            } finally {
+                publish();
+                writeLock.unlock();
+            }
+        }
+        int id = newTask.getId();
+        readLock.lock();
+        lockEpic(id);                                      // stripe of the task's own ID
+        try {
+            Task task = getRecord(id);
+            if (task == null) throw new TaskNotFoundException("Update error: Task not found");
+            if ((task instanceof Epic) || (task instanceof Subtask))
+                throw new WrongTaskArgumentException("Update error: Type mismatch");
+            updateStriped(task, newTask);
+            return task;
+        } finally {
+            publish();
+            unlockEpic(id);
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Epic update(Epic newEpic) throws WrongTaskArgumentException, TaskNotFoundException {
+        if (lockMode == LockMode.GLOBAL || newEpic == null) {
+            writeLock.lock();
+            try {
+                return super.update(newEpic);
+            } finally {
+                publish();
+                writeLock.unlock();
+            }
+        }
+        int id = newEpic.getId();
+        readLock.lock();
+        lockEpic(id);
+        try {
+            Task task = getRecord(id);
+            if (task == null) throw new TaskNotFoundException("Update error: Epic not found");
+            if (!(task instanceof Epic epic)) throw new WrongTaskArgumentException("Update error: Type mismatch");
+            Task before = copyForEvent(epic);
+            epic.update(newEpic);
+            recordLock.writeLock().lock();
+            try {
+                searchIndex.add(epic);
+            } finally {
+                recordLock.writeLock().unlock();
+            }
+            publishUpdated(before, epic);
+            markChanged(epic);
+            return epic;
+        } finally {
+            publish();
+            unlockEpic(id);
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Subtask update(Subtask newSubtask) throws TaskIntersectionException, WrongTaskArgumentException, TaskNotFoundException {
+        if (lockMode == LockMode.GLOBAL || newSubtask == null) {
+            writeLock.lock();
+            try {
+                return super.update(newSubtask);
+            } finally {
+                publish();
+                writeLock.unlock();
+            }
+        }
+        readLock.lock();
+        try {
+            int epicId = findEpicIdOfSubtask(newSubtask.getId());
+            lockEpic(epicId);
+            try {
+                Task task = getRecord(newSubtask.getId());
+                if (task == null) throw new TaskNotFoundException("Update error: Subtask not found");
+                if (!(task instanceof Subtask subtask)) throw new WrongTaskArgumentException("Update error: Type mismatch");
+                updateStriped(subtask, newSubtask);
+                return subtask;
+            } finally {
+                publish();
+                unlockEpic(epicId);
+            }
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+
+    //#################################### Remove methods. ####################################
+
+    @Override
+    public void removeById(int id) throws TaskNotFoundException {
+        if (lockMode == LockMode.GLOBAL) {
+            writeLock.lock();
+            try {
+                super.removeById(id);
+            } finally {
+                publish();
+                writeLock.unlock();
+            }
+            return;
+        }
+        readLock.lock();
+        try {
+            Task task = getRecord(id);
+            if (task == null) throw new TaskNotFoundException("Remove error: Task #" + id + " not found!");
+            if (task instanceof Subtask subtask) {
+                removeSubtaskStriped(subtask);
+                return;
+            }
+            if (!(task instanceof Epic)) {
+                removeTaskStriped(task);
+                return;
+            }
+        } finally {
+            readLock.unlock();
+        }
+        writeLock.lock();                                  // removing of an epic touches all its subtasks
+        try {
+            super.removeById(id);
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeAllTasks() {
+        writeLock.lock();
+        try {
+            super.removeAllTasks();
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeAllSubtasks() {
+        writeLock.lock();
+        try {
+            super.removeAllSubtasks();
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeAllEpics() {
+        writeLock.lock();
+        try {
+            super.removeAllEpics();
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void clearAllData() {
+        writeLock.lock();
+        try {
+            super.clearAllData();
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
+    }
+
+    //#################################### Batch methods ####################################
+
+    @Override
+    public List<Task> addAll(List<? extends Task> tasks) throws TaskIntersectionException, WrongTaskArgumentException, TaskNotFoundException {
+        writeLock.lock();
+        try {
+            return super.addAll(tasks);
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> updateAll(List<? extends Task> tasks) throws TaskIntersectionException, WrongTaskArgumentException, TaskNotFoundException {
+        writeLock.lock();
+        try {
+            return super.updateAll(tasks);
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<Integer> ids) throws TaskNotFoundException {
+        writeLock.lock();
+        try {
+            super.removeAll(ids);
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
+    }
+
+    //#################################### Striped methods ####################################
+
+    /**
+     * Updates the existing Task or Subtask in striped mode. Should be called under the stripe of the record.
+     * The record is changed inside the index section because the time indexes are ordered by its timing,
+     * for a subtask the timing counters of its epic are moved with it.
+     */
+    private void updateStriped(Task task, Task newTask) throws TaskIntersectionException {
+        Epic epic = (task instanceof Subtask subtask) ? subtask.getEpic() : null;
+        Task before = copyForEvent(task);
+        Task epicBefore = copyEpic(epic);
+        TaskStatus statusBefore = task.getStatus();
+        indexLock.writeLock().lock();
+        try {
+            checkIntersections(newTask);
+            removeFromSchedule(task);
+            task.update(newTask);
+            addToSchedule(task);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+        recordLock.writeLock().lock();
+        try {
+            searchIndex.add(task);
+        } finally {
+            recordLock.writeLock().unlock();
+        }
+        counters.changeStatus(task, statusBefore);
+        publishUpdated(before, task);
+        if (epic != null) afterEpicRollup(epicBefore, epic);
+    }
+
+    /**
+     * Removes the task in striped mode. Should be called under the read lock.
+     */
+    private void removeTaskStriped(Task task) throws TaskNotFoundException {
+        lockEpic(task.getId());
+        try {
+            if (getRecord(task.getId()) != task)
+                throw new TaskNotFoundException("Remove error: Task #" + task.getId() + " not found!");
+            indexLock.writeLock().lock();
+            try {
+                removeFromSchedule(task);
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+            removeRecordLocked(task);
+            publishRemoved(task);
+        } finally {
+            publish();
+            unlockEpic(task.getId());
+        }
+    }
+
+    /**
+     * Removes the subtask in striped mode. Should be called under the read lock.
+     */
+    private void removeSubtaskStriped(Subtask subtask) throws TaskNotFoundException {
+        Epic epic = subtask.getEpic();
+        int epicId = (epic != null) ? epic.getId() : subtask.getEpicId();
+        lockEpic(epicId);
+        try {
+            if (getRecord(subtask.getId()) != subtask)
+                throw new TaskNotFoundException("Remove error: Task #" + subtask.getId() + " not found!");
+            indexLock.writeLock().lock();
+            try {
+                removeFromSchedule(subtask);
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+            Task epicBefore = copyEpic(epic);
+            if (epic != null) epic.unlinkSubtask(subtask.getId());
+            removeRecordLocked(subtask);
+            publishRemoved(subtask);
+            if (epic != null) afterEpicRollup(epicBefore, epic);
+        } finally {
+            publish();
+            unlockEpic(epicId);
+        }
+    }
+
+    /**
+     * Returns ID of the epic that the existing subtask belongs to, or 0 if it's not a linked subtask.
+     */
+    private int findEpicIdOfSubtask(int id) {
+        if (getRecord(id) instanceof Subtask subtask && subtask.getEpic() != null) return subtask.getEpic().getId();
+        return 0;
+    }
+
+    /**
+     * Returns the record by ID under the record read lock, or null
+     */
+    private Task getRecord(int id) {
+        recordLock.readLock().lock();
+        try {
+            return tasks.get(id);
+        } finally {
+            recordLock.readLock().unlock();
+        }
+    }
+
+    private void putRecordLocked(Task task) {
+        recordLock.writeLock().lock();
+        try {
+            putRecord(task);
+        } finally {
+            recordLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the record from storages and from the history
+     */
+    private void removeRecordLocked(Task task) {
+        synchronized (historyManager) {
+            historyManager.remove(task.getId());
+        }
+        recordLock.writeLock().lock();
+        try {
+            removeRecord(task);
+        } finally {
+            recordLock.writeLock().unlock();
+        }
+    }
+
+    //#################################### Snapshot methods ####################################
+
+    @Override
+    protected void putRecord(Task task) {
+        super.putRecord(task);
+        markChanged(task);
+    }
+
+    @Override
+    protected Task updateRecord(Task task, Task newTask) {
+        Task updated = super.updateRecord(task, newTask);
+        markChanged(updated);
+        return updated;
+    }
+
+    @Override
+    protected void removeRecord(Task task) {
+        super.removeRecord(task);
+        markRemoved(task);
+    }
+
+    @Override
+    protected void clearRecords() {
+        super.clearRecords();
+        PendingChanges changes = startChange();
+        changes.cleared = true;
+        changes.records.clear();
+        changes.created.clear();
+    }
+
+    @Override
+    protected void addToSchedule(Task task) {
+        super.addToSchedule(task);
+        if (task != null) markChanged(task);
+    }
+
+    @Override
+    protected void removeFromSchedule(Task task) {
+        super.removeFromSchedule(task);
+        if (task != null) markChanged(task);
+    }
+
+    @Override
+    protected void afterEpicRollup(Task before, Epic epic) {
+        super.afterEpicRollup(before, epic);
+        if (before != null) markChanged(epic);
+    }
+
+    private PendingChanges startChange() {
+        PendingChanges changes = pending.get();
+        if (changes.ticket == 0) changes.ticket = tickets.incrementAndGet();
+        return changes;
+    }
+
+    private void markChanged(Task task) {
+        PendingChanges changes = startChange();
+        int id = task.getId();
+        if (!changes.removed.containsKey(id) && !changes.created.containsKey(id)) changes.records.put(id, task);
+    }
+
+    /**
+     * Copies the new record at once, before it can be found by other writers
+     */
+    private void markCreated(Task task) {
+        PendingChanges changes = startChange();
+        changes.records.remove(task.getId());
+        changes.created.put(task.getId(), BoardSnapshot.freeze(task));
+    }
+
+    private void markRemoved(Task task) {
+        PendingChanges changes = startChange();
+        changes.records.remove(task.getId());
+        changes.created.remove(task.getId());
+        changes.removed.put(task.getId(), task);
+    }
+
+    /**
+     * Publishes copies of the records changed by the calling thread as a new version. Should be called by writers
+     * at the end of every change before unlocking. Waits until the changes that started earlier are published.
+     */
+    private void publish() {
+        PendingChanges changes = pending.get();
+        if (changes.ticket == 0) return;
+        List<Task> frozen = new ArrayList<>(changes.created.values());
+        for (Task task : changes.records.values()) frozen.add(BoardSnapshot.freeze(task));
+        boolean interrupted = false;
+        synchronized (publishLock) {
+            while (published != changes.ticket - 1) {
+                try {
+                    publishLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            BoardSnapshot draft = changes.cleared ? snapshot.withoutRecords() : snapshot;
+            for (Task task : changes.removed.values()) draft = draft.withoutRecord(task);
+            for (Task task : frozen) draft = draft.withRecord(task);
+            snapshot = draft.withVersion(snapshot.getVersion() + 1);
+            published = changes.ticket;
+            publishLock.notifyAll();
+        }
+        changes.clear();
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Records changed by the current change of the thread
+     */
+    private static final class PendingChanges {
+
+        private final Map<Integer, Task> records = new LinkedHashMap<>();   // live records to copy
+        private final Map<Integer, Task> created = new LinkedHashMap<>();   // copies of new records
+        private final Map<Integer, Task> removed = new LinkedHashMap<>();
+        private boolean cleared;
+        private long ticket;                                                // 0 if nothing is changed
+
+        private void clear() {
+            records.clear();
+            created.clear();
+            removed.clear();
+            cleared = false;
+            ticket = 0;
+        }
+
+    }
+
+    //#################################### Lock methods ####################################
+
+    private void lockStriped(Lock lock) {
+        if (lockMode == LockMode.STRIPED) lock.lock();
+    }
+
+    private void unlockStriped(Lock lock) {
+        if (lockMode == LockMode.STRIPED) lock.unlock();
+    }
+
+    private void lockEpic(int epicId) {
+        if (lockMode == LockMode.STRIPED) epicLocks[Math.floorMod(epicId, STRIPES)].lock();
+    }
+
+    private void unlockEpic(int epicId) {
+        if (lockMode == LockMode.STRIPED) epicLocks[Math.floorMod(epicId, STRIPES)].unlock();
+    }
+
+}
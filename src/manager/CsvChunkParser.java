@@ -0,0 +1,104 @@
+package manager;
+
+import exception.WrongCSVLineException;
+import task.Task;
+import task.TaskFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parses a range of CSV lines on a ForkJoinPool.
+ * <br>The range is split in halves at line breaks until it is smaller than the chunk size, chunks are parsed
+ * in parallel and joined in order of lines. A broken line doesn't stop other chunks: the result keeps
+ * the first error by position, so the reported line is the same as with sequential reading.
+ */
+class CsvChunkParser extends RecursiveTask<CsvChunkParser.Result> {
+
+    static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+
+    private final TaskFactory taskFactory;
+    private final byte[] data;
+    private final int from;
+    private final int to;
+    private final int chunkSize;
+
+    /**
+     * @param data UTF-8 content of the file
+     * @param from offset of the first line of the range
+     * @param to offset after the last line of the range
+     */
+    CsvChunkParser(TaskFactory taskFactory, byte[] data, int from, int to, int chunkSize) {
+        this.taskFactory = taskFactory;
+        this.data = data;
+        this.from = from;
+        this.to = to;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    protected Result compute() {
+        if (to - from > chunkSize) {
+            int middle = lineStart(data, from + (to - from) / 2, to);
+            if (middle > from && middle < to) {
+                CsvChunkParser left = new CsvChunkParser(taskFactory, data, from, middle, chunkSize);
+                CsvChunkParser right = new CsvChunkParser(taskFactory, data, middle, to, chunkSize);
+                left.fork();
+                Result rightResult = right.compute();
+                return left.join().append(rightResult);
+            }
+        }
+        return parse();
+    }
+
+    private Result parse() {
+        List<Task> records = new ArrayList<>();
+        int start = from;
+        while (start < to) {
+            int end = lineEnd(data, start, to);
+            int length = end - start;
+            if (length > 0 && data[end - 1] == '\r') length--;
+            String line = new String(data, start, length, StandardCharsets.UTF_8);
+            start = end + 1;
+            if (line.isBlank()) continue;
+            try {
+                records.add(taskFactory.fromCSVLine(line));
+            } catch (WrongCSVLineException e) {
+                return new Result(records, e);
+            }
+        }
+        return new Result(records, null);
+    }
+
+    /**
+     * Returns offset of the line break ending the line, or {@code to} for the last line
+     */
+    static int lineEnd(byte[] data, int from, int to) {
+        int i = from;
+        while (i < to && data[i] != '\n') i++;
+        return i;
+    }
+
+    /**
+     * Returns offset of the first line starting at the offset or after it
+     */
+    static int lineStart(byte[] data, int offset, int to) {
+        return Math.min(lineEnd(data, offset, to) + 1, to);
+    }
+
+    /**
+     * Parsed records of a range and the first error in it. Records after the error are dropped.
+     */
+    record Result(List<Task> records, WrongCSVLineException error) {
+
+        Result append(Result next) {
+            if (error != null) return this;
+            records.addAll(next.records);
+            return new Result(records, next.error);
+        }
+
+    }
+
+}
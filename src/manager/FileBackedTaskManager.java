@@ -5,60 +5,276 @@ import task.Epic;
 import task.Subtask;
 import task.Task;
 import task.TaskFactory;
+import task.TaskType;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+/**
+ * Task manager keeping its data in a CSV file, or in a binary file of {@link BinaryTaskFormat}.
+ * <br>In {@link PersistenceMode#SNAPSHOT} mode the whole CSV file is rewritten after every change.
+ * In {@link PersistenceMode#JOURNAL} mode every change appends one record to the journal file
+ * ({@code <file>.log}, see {@link TaskJournal}), the CSV snapshot is rewritten only by {@link #compact()}.
+ * A batch change (addAll, updateAll, removeAll) appends one record too, so it is replayed whole or not at all.
+ * Loading reads the snapshot and replays the journal.
+ * A {@link SnapshotCompactor} can write snapshots in background when the journal grows.
+ * <br>Not thread-safe. Changes are appended by one writer, so SYNC journal policy syncs every change separately,
+ * a batch change is synced once. Batch methods, or INTERVAL or OS_BUFFERED policies should be used to sync
+ * many changes together.
+ */
 public class FileBackedTaskManager extends InMemoryTaskManager {
 
+    /**
+     * How changes are written to file
+     */
+    public enum PersistenceMode {
+        SNAPSHOT,
+        JOURNAL
+    }
+
+    /**
+     * Format of the data file. The journal is always written as text.
+     */
+    public enum StorageFormat {
+        CSV,
+        BINARY
+    }
+
+    private static final String CSV_HEADER = "\"id\",\"type\",\"title\",\"status\",\"description\",\"starttime\",\"duration\",\"epic\"";
+
     private File file;
+    private final StorageFormat format;
+    private final TaskJournal journal;                              // null in SNAPSHOT mode
+    private volatile SnapshotCompactor compactor;                   // null if background compaction is not started
+    private long captureGeneration;                                 // changed by the writer thread only
+    private final Object snapshotLock = new Object();
+    private long snapshotGeneration;                                // generation of the written snapshot
+    private ForkJoinPool loadPool;                                  // null: CSV file is read on the calling thread
 
     public FileBackedTaskManager(TaskFactory taskFactory, HistoryManager historyManager, File file) {
+        this(taskFactory, historyManager, file, PersistenceMode.SNAPSHOT);
+    }
+
+    public FileBackedTaskManager(TaskFactory taskFactory, HistoryManager historyManager, File file, PersistenceMode mode) {
+        this(taskFactory, historyManager, file, mode, StorageFormat.CSV);
+    }
+
+    public FileBackedTaskManager(TaskFactory taskFactory, HistoryManager historyManager, File file, PersistenceMode mode,
+                                 StorageFormat format) {
+        super(taskFactory, historyManager);
+        if (mode == null) throw new IllegalArgumentException("Parameter 'mode' cannot be null");
+        if (format == null) throw new IllegalArgumentException("Parameter 'format' cannot be null");
+        this.file = file;
+        this.format = format;
+        this.journal = (mode == PersistenceMode.JOURNAL) ? TaskJournal.forDataFile(file) : null;
+    }
+
+    /**
+     * Creates manager in JOURNAL mode writing changes to the given journal
+     * (e.g. with {@link TaskJournal.DurabilityPolicy#INTERVAL} policy)
+     */
+    public FileBackedTaskManager(TaskFactory taskFactory, HistoryManager historyManager, File file, TaskJournal journal) {
+        this(taskFactory, historyManager, file, journal, StorageFormat.CSV);
+    }
+
+    public FileBackedTaskManager(TaskFactory taskFactory, HistoryManager historyManager, File file, TaskJournal journal,
+                                 StorageFormat format) {
         super(taskFactory, historyManager);
+        if (journal == null) throw new IllegalArgumentException("Parameter 'journal' cannot be null");
+        if (format == null) throw new IllegalArgumentException("Parameter 'format' cannot be null");
         this.file = file;
+        this.format = format;
+        this.journal = journal;
+    }
+
+    public PersistenceMode getPersistenceMode() {
+        return (journal == null) ? PersistenceMode.SNAPSHOT : PersistenceMode.JOURNAL;
+    }
+
+    public StorageFormat getStorageFormat() {
+        return format;
+    }
+
+    /**
+     * Sets the pool to parse CSV file by {@link #load()} in parallel, or null to read it on the calling thread
+     * @param loadPool pool for parsing, e.g. {@link ForkJoinPool#commonPool()}
+     */
+    public void setLoadPool(ForkJoinPool loadPool) {
+        this.loadPool = loadPool;
+    }
+
+    /**
+     * Returns statistics of journal flushes
+     * @return {@code JournalMetrics} metrics, all zeros in SNAPSHOT mode
+     */
+    public JournalMetrics getJournalMetrics() {
+        return (journal == null) ? new JournalMetrics(0, 0, 0, 0, 0) : journal.getMetrics();
+    }
+
+    /**
+     * Waits until all the changes are written to file, whatever the durability policy of the journal is
+     */
+    public void flush() {
+        if (journal != null) journal.flush();
     }
 
     private void save() {
-        String header = "\"id\",\"type\",\"title\",\"status\",\"description\",\"starttime\",\"duration\",\"epic\"";
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-            writer.write(header + "\n");
-            for (Task task : tasks.values())  writer.write(task.toCSVLine() + "\n");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            writeRecords(out, format, tasks.values());
         } catch (IOException e) {
             throw new ManagerSaveException("File access error: can't write to " + file.toString());
         }
     }
 
+    /**
+     * Writes all the records in the format. The stream is flushed but not closed.
+     */
+    private static void writeRecords(OutputStream out, StorageFormat format, Collection<Task> records) throws IOException {
+        if (format == StorageFormat.BINARY) {
+            BinaryTaskFormat.write(out, records);
+            out.flush();
+            return;
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER + "\n");
+        for (Task task : records) writer.write(task.toCSVLine() + "\n");
+        writer.flush();
+    }
+
+    /**
+     * Converts the data file from one format to another, e.g. from CSV to BINARY. The journal is not read.
+     * @param source data file to read
+     * @param sourceFormat format of the source file
+     * @param target data file to write, rewritten if exists
+     * @param targetFormat format of the target file
+     */
+    public static void convert(File source, StorageFormat sourceFormat, File target, StorageFormat targetFormat) {
+        if (source == null) throw new IllegalArgumentException("Parameter 'source' cannot be null");
+        if (target == null) throw new IllegalArgumentException("Parameter 'target' cannot be null");
+        FileBackedTaskManager taskManager = new FileBackedTaskManager(new TaskFactory(), new InMemoryHistoryManager(),
+                source, PersistenceMode.SNAPSHOT, sourceFormat);
+        taskManager.load();
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(target))) {
+            writeRecords(out, targetFormat, taskManager.tasks.values());
+        } catch (IOException e) {
+            throw new ManagerSaveException("File access error: can't write to " + target.toString());
+        }
+    }
+
+    /**
+     * Writes the current state to the CSV snapshot and empties the journal
+     */
+    public void compact() {
+        if (journal == null) {
+            save();
+            return;
+        }
+        journal.flush();
+        writeSnapshot(++captureGeneration, tasks.values());
+        journal.truncate();
+    }
+
+    /**
+     * Writes the records to a temporary file and atomically moves it over the CSV snapshot, then drops
+     * the rotated journal file of the same generation under the same lock.
+     * Nothing is written if a snapshot of a later generation is already in place.
+     * @param generation number of the capture, bigger for later states
+     * @param records all the records of the captured state
+     * @return {@code boolean} false if the snapshot is outdated
+     */
+    boolean writeSnapshot(long generation, Collection<Task> records) {
+        synchronized (snapshotLock) {
+            if (generation <= snapshotGeneration) return false;
+            Path temp = Path.of(file.getPath() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                 OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel))) {
+                writeRecords(out, format, records);
+                channel.force(false);
+            } catch (IOException e) {
+                throw new ManagerSaveException("File access error: can't write to " + temp);
+            }
+            try {
+                Files.move(temp, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new ManagerSaveException("File access error: can't write to " + file.toString());
+            }
+            snapshotGeneration = generation;
+            if (journal != null) journal.dropRotated(generation);
+            return true;
+        }
+    }
+
+    TaskJournal getJournal() {
+        return journal;
+    }
+
+    void attachCompactor(SnapshotCompactor compactor) {
+        this.compactor = compactor;
+    }
+
     public static FileBackedTaskManager loadFromFile(File file) {
+        return loadFromFile(file, PersistenceMode.SNAPSHOT);
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, PersistenceMode mode) {
+        return loadFromFile(file, mode, StorageFormat.CSV);
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, PersistenceMode mode, StorageFormat format) {
         TaskFactory taskFactory = new TaskFactory();
         HistoryManager historyManager = new InMemoryHistoryManager();
-        FileBackedTaskManager taskManager = new FileBackedTaskManager(taskFactory, historyManager, file);
-        if (file.canRead()) taskManager.readFromCSV();
+        FileBackedTaskManager taskManager = new FileBackedTaskManager(taskFactory, historyManager, file, mode, format);
+        taskManager.load();
         return taskManager;
     }
 
+    /**
+     * Reads the snapshot if it exists, then replays the journal in JOURNAL mode.
+     * If the journal had records, they are compacted to a new snapshot.
+     */
+    public void load() {
+        if (file.canRead()) {
+            if (format == StorageFormat.BINARY) readFromBinary();
+            else if (loadPool != null) readFromCSV(loadPool);
+            else readFromCSV();
+        }
+        if (journal == null) return;
+        int replayed = journal.replay(this::replayRecord);
+        if (replayed == 0) return;
+        recountRecords();
+        compact();
+    }
+
     public void readFromCSV() {
         taskFactory.clear();
         historyManager.clear();
-        tasks.clear();
-        sortedTasks.clear();
+        clearRecords();
+        clearSchedule();
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
             reader.readLine();                        // header
+            int maxId = 0;
             while (reader.ready()) {
                 String line = reader.readLine();
                 if (line.isBlank()) continue;
                 Task task = taskFactory.fromCSVLine(line);
-                tasks.put(task.getId(), task);
-                if (task instanceof Subtask subtask) {
-                    Task subtaskEpic = tasks.get(subtask.getEpicId());
-                    if (subtaskEpic instanceof Epic epic) {
-                        epic.linkSubtask(subtask);
-                    }
-                }
+                maxId = Math.max(maxId, task.getId());
+                restoreRecord(task);
             }
-            sortedTasks.addAll(tasks.values().stream()
-                    .filter(t -> !(t instanceof Epic))
-                    .filter(t -> t.getStartTime() != null)
-                    .toList());
+            taskFactory.reserveUpTo(maxId);
+            recountRecords();
+            rebuildSchedule();
         } catch (IOException e) {
             throw new ManagerLoadException("IO Error reading file " + file.toString());
         } catch (WrongCSVLineException e) {
@@ -66,75 +282,272 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         }
     }
 
+    /**
+     * Reads the CSV file in parallel: line-aligned chunks are parsed on the pool, then records are put
+     * to storages, subtasks are linked to their epics and the schedule is built on the calling thread
+     * @param pool pool for parsing
+     */
+    public void readFromCSV(ForkJoinPool pool) {
+        if (pool == null) throw new IllegalArgumentException("Parameter 'pool' cannot be null");
+        taskFactory.clear();
+        historyManager.clear();
+        clearRecords();
+        clearSchedule();
+
+        byte[] data;
+        try {
+            data = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new ManagerLoadException("IO Error reading file " + file.toString());
+        }
+        int firstLine = CsvChunkParser.lineStart(data, 0, data.length);   // header
+        CsvChunkParser.Result result = pool.invoke(new CsvChunkParser(taskFactory, data, firstLine, data.length,
+                CsvChunkParser.DEFAULT_CHUNK_SIZE));
+        if (result.error() != null) throw new ManagerLoadException("Incorrect CSV file: " + result.error().getMessage());
+
+        int maxId = 0;
+        for (Task task : result.records()) {
+            maxId = Math.max(maxId, task.getId());
+            putRecord(task);
+        }
+        for (Subtask subtask : subtasks.values()) {
+            Epic epic = epics.get(subtask.getEpicId());
+            if (epic != null) epic.linkSubtask(subtask);
+        }
+        taskFactory.reserveUpTo(maxId);
+        recountRecords();
+        rebuildSchedule();
+    }
+
+    /**
+     * Reads the binary data file. An empty file is read as an empty board.
+     */
+    public void readFromBinary() {
+        taskFactory.clear();
+        historyManager.clear();
+        clearRecords();
+        clearSchedule();
+
+        byte[] data;
+        try {
+            data = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new ManagerLoadException("IO Error reading file " + file.toString());
+        }
+        if (data.length == 0) return;
+        BinaryTaskFormat.Reader reader = BinaryTaskFormat.reader(data);
+        int maxId = 0;
+        while (reader.hasNext()) {
+            Task task = reader.next();
+            maxId = Math.max(maxId, task.getId());
+            restoreRecord(task);
+        }
+        taskFactory.reserveUpTo(maxId);
+        recountRecords();
+        rebuildSchedule();
+    }
+
+    /**
+     * Puts the loaded record to storages and links the subtask to its Epic. Time indexes are not changed.
+     */
+    private void restoreRecord(Task task) {
+        putRecord(task);
+        if (task instanceof Subtask subtask) {
+            Epic epic = epics.get(subtask.getEpicId());
+            if (epic != null) epic.linkSubtask(subtask);
+        }
+    }
+
+    /**
+     * Applies one journal record. Records written before the last snapshot may be applied again
+     * if the process died while compacting, so a repeated ADD updates the existing record
+     * and an UPDATE of a record removed later restores it until its REMOVE record.
+     * A subtask whose epic is missing is skipped: its epic was removed later, and removing of an epic
+     * is logged by one record that doesn't list the subtasks.
+     */
+    private void replayRecord(TaskJournal.Operation operation, String payload) throws WrongCSVLineException {
+        switch (operation) {
+            case ADD, UPDATE -> {
+                Task task = taskFactory.fromCSVLine(payload);
+                Task existing = tasks.get(task.getId());
+                if (task instanceof Subtask subtask && epics.get(subtask.getEpicId()) == null) return;
+                if (existing != null && existing.getClass() == task.getClass()) {
+                    updateRecord(existing, task);
+                } else if (existing == null) {
+                    restoreRecord(task);
+                    if (!(task instanceof Epic)) addToSchedule(task);
+                    taskFactory.reserveUpTo(task.getId());
+                } else {
+                    throw new WrongCSVLineException("Journal record doesn't match task #" + task.getId());
+                }
+            }
+            case REMOVE -> {
+                Task task = tasks.get(Integer.parseInt(payload));
+                if (task != null) deleteRecord(task);
+            }
+            case REMOVE_ALL -> {
+                switch (TaskType.valueOf(payload)) {
+                    case TASK -> super.removeAllTasks();
+                    case SUBTASK -> super.removeAllSubtasks();
+                    case EPIC -> super.removeAllEpics();
+                }
+            }
+            case CLEAR -> super.clearAllData();
+        }
+    }
+
+
+    //#################################### Persistence of changes ####################################
+
+    private void appendToJournal(TaskJournal.Operation operation, String payload) {
+        journal.append(operation, payload);
+        captureIfRequested();
+    }
+
+    /**
+     * Appends records of a batch change as one journal record, so replay applies the whole batch or nothing
+     */
+    private void appendAllToJournal(TaskJournal.Operation operation, List<String> payloads) {
+        journal.appendAll(operation, payloads);
+        captureIfRequested();
+    }
+
+    private void captureIfRequested() {
+        SnapshotCompactor compactor = this.compactor;
+        if (compactor != null && compactor.isCaptureRequested()) capture(compactor);
+    }
+
+    /**
+     * Rotates the journal and hands copies of all the records to the compactor.
+     * Skipped if the previous rotated journal file is not dropped yet.
+     */
+    private void capture(SnapshotCompactor compactor) {
+        if (!journal.rotate(captureGeneration + 1)) return;
+        List<Task> records = new ArrayList<>(tasks.size());
+        for (Task task : tasks.values()) records.add(task.copy());
+        compactor.submit(++captureGeneration, records);
+    }
+
+    private void saveAdded(Task task) {
+        if (journal == null) save();
+        else appendToJournal(TaskJournal.Operation.ADD, task.toCSVLine());
+    }
+
+    private void saveUpdated(Task task) {
+        if (journal == null) save();
+        else appendToJournal(TaskJournal.Operation.UPDATE, task.toCSVLine());
+    }
+
+    private void saveRemoved(int id) {
+        if (journal == null) save();
+        else appendToJournal(TaskJournal.Operation.REMOVE, String.valueOf(id));
+    }
+
+    private void saveRemovedAll(TaskType type) {
+        if (journal == null) save();
+        else appendToJournal(TaskJournal.Operation.REMOVE_ALL, type.name());
+    }
+
+    private void saveCleared() {
+        if (journal == null) save();
+        else appendToJournal(TaskJournal.Operation.CLEAR, "");
+    }
+
+
+    //#################################### Edit methods ####################################
+
     @Override
     public Task add(Task task) throws TaskIntersectionException, WrongTaskArgumentException {
         Task returnedTask = super.add(task);
-        save();
+        saveAdded(returnedTask);
         return returnedTask;
     }
 
     @Override
     public Epic add(Epic epic) throws WrongTaskArgumentException {
         Epic returnedEpic = super.add(epic);
-        save();
+        saveAdded(returnedEpic);
         return returnedEpic;
     }
 
     @Override
     public Subtask add(Subtask subtask) throws TaskIntersectionException, TaskNotFoundException, WrongTaskArgumentException {
         Subtask returnedSubtask = super.add(subtask);
-        save();
+        saveAdded(returnedSubtask);
         return returnedSubtask;
     }
 
     @Override
     public Task update(Task task) throws TaskIntersectionException, TaskNotFoundException, WrongTaskArgumentException {
         Task updated = super.update(task);
-        save();
+        saveUpdated(updated);
         return updated;
     }
 
     @Override
     public Epic update(Epic epic) throws TaskNotFoundException, WrongTaskArgumentException {
         Epic updated = super.update(epic);
-        save();
+        saveUpdated(updated);
         return updated;
     }
 
     @Override
     public Subtask update(Subtask subtask) throws TaskIntersectionException, TaskNotFoundException, WrongTaskArgumentException {
         Subtask updated = super.update(subtask);
-        save();
+        saveUpdated(updated);
         return updated;
     }
 
     @Override
     public void removeById(int id) throws TaskNotFoundException {
         super.removeById(id);
-        save();
+        saveRemoved(id);
     }
 
     @Override
     public void removeAllTasks() {
         super.removeAllTasks();
-        save();
+        saveRemovedAll(TaskType.TASK);
     }
 
     @Override
     public void removeAllSubtasks() {
         super.removeAllSubtasks();
-        save();
+        saveRemovedAll(TaskType.SUBTASK);
     }
 
     @Override
     public void removeAllEpics() {
         super.removeAllEpics();
-        save();
+        saveRemovedAll(TaskType.EPIC);
     }
 
     @Override
     public void clearAllData() {
         super.clearAllData();
-        save();
+        saveCleared();
+    }
+
+    @Override
+    public List<Task> addAll(List<? extends Task> tasks) throws TaskIntersectionException, WrongTaskArgumentException, TaskNotFoundException {
+        List<Task> added = super.addAll(tasks);
+        if (journal == null) save();
+        else appendAllToJournal(TaskJournal.Operation.ADD, added.stream().map(Task::toCSVLine).toList());
+        return added;
+    }
+
+    @Override
+    public List<Task> updateAll(List<? extends Task> tasks) throws TaskIntersectionException, WrongTaskArgumentException, TaskNotFoundException {
+        List<Task> updated = super.updateAll(tasks);
+        if (journal == null) save();
+        else appendAllToJournal(TaskJournal.Operation.UPDATE, updated.stream().map(Task::toCSVLine).toList());
+        return updated;
+    }
+
+    @Override
+    public void removeAll(Collection<Integer> ids) throws TaskNotFoundException {
+        super.removeAll(ids);
+        if (journal == null) save();
+        else appendAllToJournal(TaskJournal.Operation.REMOVE, ids.stream().map(String::valueOf).toList());
     }
 }
@@ -0,0 +1,134 @@
+package manager;
+
+import exception.ManagerSaveException;
+import task.IdBlockSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Source of ID ranges persisted as a high-water mark in a small text file.
+ * <br>Every lease reads and moves the mark under an exclusive file lock, so several processes
+ * sharing the file never get the same IDs. A file lock is held by the whole JVM, so there is one instance
+ * per file in a JVM: {@link #forFile(File)} returns the same source for the same canonical path.
+ */
+public class FileIdBlockSource implements IdBlockSource {
+
+    private static final int MARK_WIDTH = 10;                        // digits of Integer.MAX_VALUE
+
+    private static final Map<File, FileIdBlockSource> SOURCES = new ConcurrentHashMap<>();
+
+    private final File file;
+
+    private FileIdBlockSource(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the source keeping its mark in the file, the same object for every path of the same file
+     * @param file file of the mark, created on the first lease
+     * @return {@code FileIdBlockSource} shared source of the file
+     */
+    public static FileIdBlockSource forFile(File file) {
+        if (file == null) throw new IllegalArgumentException("Parameter 'file' cannot be null");
+        File key;
+        try {
+            key = file.getCanonicalFile();
+        } catch (IOException e) {
+            key = file.getAbsoluteFile();
+        }
+        return SOURCES.computeIfAbsent(key, FileIdBlockSource::new);
+    }
+
+    /**
+     * Returns a source keeping its mark next to the data file: the same path with ".ids" suffix
+     * @param dataFile CSV file of the task manager
+     * @return {@code FileIdBlockSource} source keeping its mark near the data file
+     */
+    public static FileIdBlockSource forDataFile(File dataFile) {
+        if (dataFile == null) throw new IllegalArgumentException("Parameter 'dataFile' cannot be null");
+        return forFile(new File(dataFile.getPath() + ".ids"));
+    }
+
+    @Override
+    public synchronized int lease(int size) {
+        if (size < 1) throw new IllegalArgumentException("Block size cannot be less than 1");
+        try (FileChannel channel = open()) {
+            FileLock lock = channel.lock();
+            try {
+                int mark = readMark(channel);
+                writeMark(channel, mark + size);
+                return mark + 1;
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("File access error: can't lease IDs from " + file);
+        }
+    }
+
+    @Override
+    public synchronized void raiseTo(int id) {
+        try (FileChannel channel = open()) {
+            FileLock lock = channel.lock();
+            try {
+                if (readMark(channel) < id) writeMark(channel, id);
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("File access error: can't write IDs mark to " + file);
+        }
+    }
+
+    /**
+     * Returns the persisted high-water mark
+     * @return {@code int} the greatest leased ID, 0 if the file doesn't exist
+     */
+    public synchronized int getHighWaterMark() {
+        if (!file.exists()) return 0;
+        try (FileChannel channel = open()) {
+            FileLock lock = channel.lock();
+            try {
+                return readMark(channel);
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("File access error: can't read IDs mark from " + file);
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private int readMark(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), 32));
+        channel.read(buffer, 0);
+        String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII).trim();
+        try {
+            return text.isEmpty() ? 0 : Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IOException("Incorrect IDs mark: " + text);
+        }
+    }
+
+    /**
+     * Overwrites the mark in place with a fixed-width value. The mark only grows, so the value is never shorter
+     * than the old one and the file is never empty or truncated on a crash.
+     */
+    private void writeMark(FileChannel channel, int mark) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(String.format("%0" + MARK_WIDTH + "d\n", mark).getBytes(StandardCharsets.US_ASCII));
+        while (buffer.hasRemaining()) channel.write(buffer, buffer.position());
+        channel.force(false);
+    }
+
+}
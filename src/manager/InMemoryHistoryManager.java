@@ -1,15 +1,14 @@
 package manager;
 
+import task.IdMap;
 import task.Task;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class InMemoryHistoryManager implements HistoryManager {
 
-    private final Map<Integer, Node> history = new HashMap<>();
+    private final IdMap<Node> history = new IdMap<>();
     private final int historySize;
     private Node head;
     private Node tail;
@@ -4,10 +4,16 @@ import exception.TaskIntersectionException;
 import exception.TaskNotFoundException;
 import exception.WrongTaskArgumentException;
 import task.Epic;
+import task.IdMap;
 import task.Subtask;
 import task.Task;
 import task.TaskFactory;
+import task.TaskStatus;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -16,10 +22,17 @@ import java.util.stream.Collectors;
  */
 public class InMemoryTaskManager implements TaskManager {
 
-    protected final LinkedHashMap<Integer, Task> tasks = new LinkedHashMap<>();
+    protected final IdMap<Task> tasks = new IdMap<>();            // all records by ID
+    protected final IdMap<Task> simpleTasks = new IdMap<>();
+    protected final IdMap<Epic> epics = new IdMap<>();
+    protected final IdMap<Subtask> subtasks = new IdMap<>();
     protected final TaskFactory taskFactory;
     protected final HistoryManager historyManager;
-    protected final Set<Task> sortedTasks = new TreeSet<>(Comparator.comparing(Task::getStartTime).thenComparing(Task::getId));
+    protected final NavigableSet<Task> sortedTasks = new TreeSet<>(Comparator.comparing(Task::getStartTime).thenComparing(Task::getId));
+    protected final TaskIntervalTree intervals = new TaskIntervalTree();
+    protected final TaskSearchIndex searchIndex = new TaskSearchIndex();
+    protected final BoardCounters counters = new BoardCounters();
+    protected final TaskEventBus eventBus = new TaskEventBus();
 
     public InMemoryTaskManager(TaskFactory taskFactory, HistoryManager historyManager) {
         if (taskFactory == null) throw new IllegalArgumentException("Parameter 'taskFactory' cannot be null");
@@ -44,35 +57,24 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public List<Task> getTasks() {
-        return tasks.values().stream()
-                .filter(t -> !(t instanceof Epic) && !(t instanceof Subtask))
-                .toList();
+        return simpleTasks.values().stream().toList();
     }
 
     @Override
     public List<Epic> getEpics() {
-        return tasks.values().stream()
-                .filter(t -> (t instanceof Epic))
-                .map(t -> (Epic) t)
-                .toList();
+        return epics.values().stream().toList();
     }
 
     @Override
     public List<Subtask> getSubTasks() {
-        return tasks.values().stream()
-                .filter(t -> (t instanceof Subtask))
-                .map(t -> (Subtask) t)
-                .toList();
+        return subtasks.values().stream().toList();
     }
 
     @Override
-    public List<Subtask> getEpicSubtasks(int epicId) {
-        return tasks.values().stream()
-                .filter(t -> (t instanceof Subtask))
-                .map(t -> (Subtask) t)
-                .filter(s -> s.getEpic() != null)
-                .filter(s -> s.getEpic().getId() == epicId)
-                .toList();
+    public List<Subtask> getEpicSubtasks(int epicId) throws TaskNotFoundException {
+        Epic epic = epics.get(epicId);
+        if (epic == null) throw new TaskNotFoundException("Epic #" + epicId + " not found!");
+        return epic.getSubtasks().values().stream().toList();
     }
 
     @Override
@@ -80,10 +82,161 @@ public class InMemoryTaskManager implements TaskManager {
         return sortedTasks.stream().toList();
     }
 
+    @Override
+    public List<Task> getTasksBetween(LocalDateTime from, LocalDateTime to) {
+        return getTasksBetween(from, to, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> getTasksBetween(LocalDateTime from, LocalDateTime to, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("Parameter 'limit' should be positive");
+        if (from != null && to != null && !from.isBefore(to)) return List.of();
+        List<Task> result = new ArrayList<>();
+        NavigableSet<Task> window = sortedTasks;
+        if (from != null) {
+            Task fromProbe = timeProbe(from);
+            Task lower = sortedTasks.lower(fromProbe);            // tasks don't intersect, so only one can cover 'from'
+            if (lower != null && lower.getEndTime().isAfter(from)) result.add(lower);
+            window = window.tailSet(fromProbe, true);
+        }
+        if (to != null) window = window.headSet(timeProbe(to), false);
+        for (Task task : window) {
+            if (result.size() >= limit) break;
+            result.add(task);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> getTasksAfter(LocalDateTime afterStart, int afterId, LocalDateTime to, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("Parameter 'limit' should be positive");
+        if (afterStart == null) throw new IllegalArgumentException("Parameter 'afterStart' cannot be null");
+        if (to != null && !afterStart.isBefore(to)) return List.of();
+        Task cursor = new Task(afterId, null, null, null, afterStart, null);
+        NavigableSet<Task> window = sortedTasks.tailSet(cursor, false);
+        if (to != null) window = window.headSet(timeProbe(to), false);
+        List<Task> result = new ArrayList<>();
+        for (Task task : window) {
+            if (result.size() >= limit) break;
+            result.add(task);
+        }
+        return result;
+    }
+
+    @Override
+    public LocalDateTime findFreeSlot(Duration duration, LocalDateTime notBefore, LocalDateTime notAfter) {
+        if (duration == null || duration.isNegative() || duration.isZero())
+            throw new IllegalArgumentException("Parameter 'duration' should be positive");
+        if (notBefore == null) throw new IllegalArgumentException("Parameter 'notBefore' cannot be null");
+        Task fromProbe = timeProbe(notBefore);
+        LocalDateTime candidate = notBefore;
+        Task lower = sortedTasks.lower(fromProbe);                // tasks don't intersect, so only one can cover 'notBefore'
+        if (lower != null && lower.getEndTime().isAfter(candidate)) candidate = lower.getEndTime();
+        for (Task task : sortedTasks.tailSet(fromProbe, true)) {
+            LocalDateTime candidateEnd = candidate.plus(duration);
+            if (notAfter != null && candidateEnd.isAfter(notAfter)) return null;
+            if (!task.getStartTime().isBefore(candidateEnd)) return candidate;       // the gap before the task fits
+            if (task.getEndTime().isAfter(candidate)) candidate = task.getEndTime();
+        }
+        if (notAfter != null && candidate.plus(duration).isAfter(notAfter)) return null;
+        return candidate;
+    }
+
+    @Override
+    public List<Task> getTasksOfDay(LocalDate day) {
+        if (day == null) throw new IllegalArgumentException("Parameter 'day' cannot be null");
+        LocalDateTime dayStart = day.atStartOfDay();
+        return intervals.findRunning(dayStart, dayStart.plusDays(1));
+    }
+
+    @Override
+    public Map<LocalDate, List<Task>> getTasksOfWeek(LocalDate day) {
+        if (day == null) throw new IllegalArgumentException("Parameter 'day' cannot be null");
+        Map<LocalDate, List<Task>> week = new LinkedHashMap<>();
+        LocalDate monday = day.with(DayOfWeek.MONDAY);
+        LocalDate sunday = monday.plusDays(6);
+        for (int i = 0; i < 7; i++) week.put(monday.plusDays(i), new ArrayList<>());
+        for (Task task : intervals.findRunning(monday.atStartOfDay(), sunday.plusDays(1).atStartOfDay())) {
+            LocalDate first = task.getStartTime().toLocalDate();
+            LocalDate last = lastDay(task);
+            if (first.isBefore(monday)) first = monday;
+            if (last.isAfter(sunday)) last = sunday;
+            for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) week.get(date).add(task);
+        }
+        return week;
+    }
+
+    @Override
+    public BoardSummary getSummary() {
+        return counters.toSummary();
+    }
+
+    @Override
+    public List<Task> search(String query) {
+        return search(query, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        if (query == null) throw new IllegalArgumentException("Parameter 'query' cannot be null");
+        if (limit < 1) throw new IllegalArgumentException("Parameter 'limit' should be positive");
+        return searchIndex.search(query, limit).stream().map(tasks::get).toList();
+    }
+
     public List<Task> getHistory() {
         return historyManager.getHistory();
     }
 
+    /**
+     * Subscribes the listener to changes of the board with the default buffer size
+     * @param listener receiver of events
+     * @return {@code Subscription} subscription to close when events are not needed anymore
+     */
+    public TaskEventBus.Subscription subscribe(TaskEventListener listener) {
+        return subscribe(listener, TaskEventBus.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Subscribes the listener to changes of the board. Events are delivered by a separate thread,
+     * if the listener is slower than writers and its buffer is full, new events are dropped for it.
+     * @param listener receiver of events
+     * @param capacity size of the buffer of the subscription
+     * @return {@code Subscription} subscription to close when events are not needed anymore
+     */
+    public TaskEventBus.Subscription subscribe(TaskEventListener listener, int capacity) {
+        return eventBus.subscribe(listener, capacity);
+    }
+
+
+    //#################################### View methods ####################################
+
+    @Override
+    public Collection<Task> viewTasks() {
+        return Collections.unmodifiableCollection(simpleTasks.values());
+    }
+
+    @Override
+    public Collection<Epic> viewEpics() {
+        return Collections.unmodifiableCollection(epics.values());
+    }
+
+    @Override
+    public Collection<Subtask> viewSubtasks() {
+        return Collections.unmodifiableCollection(subtasks.values());
+    }
+
+    @Override
+    public Collection<Subtask> viewEpicSubtasks(int epicId) throws TaskNotFoundException {
+        Epic epic = epics.get(epicId);
+        if (epic == null) throw new TaskNotFoundException("Epic #" + epicId + " not found!");
+        return Collections.unmodifiableCollection(epic.getSubtasks().values());
+    }
+
+    @Override
+    public Collection<Task> viewPrioritizedTasks() {
+        return Collections.unmodifiableCollection(sortedTasks);
+    }
+
 
     //#################################### Edit methods ####################################
 
@@ -91,32 +244,21 @@ public class InMemoryTaskManager implements TaskManager {
     public Task add(Task task) throws TaskIntersectionException, WrongTaskArgumentException {
         if (task == null) throw new WrongTaskArgumentException("Add error: Task shouldn't be null");
         checkIntersections(task);
-        Task newTask = taskFactory.newTask(task);
-        tasks.put(newTask.getId(), newTask);
-        if (newTask.getStartTime() != null) sortedTasks.add(newTask);
-        return newTask;
+        return insertRecord(taskFactory.newTask(task), null);        // Epic or Subtask passed as Task becomes a Task
     }
 
     @Override
     public Epic add(Epic epic) throws WrongTaskArgumentException {
         if (epic == null) throw new WrongTaskArgumentException("Add error: Epic shouldn't be null");
-        Epic newEpic = taskFactory.newEpic(epic);
-        tasks.put(newEpic.getId(), newEpic);
-        return newEpic;
+        return (Epic) createRecord(epic);
     }
 
     @Override
     public Subtask add(Subtask subtask) throws TaskIntersectionException, WrongTaskArgumentException, TaskNotFoundException {
         if (subtask == null) throw new WrongTaskArgumentException("Add error: Subtask shouldn't be null");
-        Task eTask = tasks.get(subtask.getEpicId());
-        if (eTask == null) throw new TaskNotFoundException("Add error: Subtask's Epic not found");
-        if (!(eTask instanceof Epic epic)) throw new TaskNotFoundException("Add error: Subtask's Epic type mismatch");
+        findSubtaskEpic(subtask);
         checkIntersections(subtask);
-        Subtask newSubtask = taskFactory.newSubtask(subtask);
-        epic.linkSubtask(newSubtask);
-        tasks.put(newSubtask.getId(), newSubtask);
-        if (newSubtask.getStartTime() != null) sortedTasks.add(newSubtask);
-        return newSubtask;
+        return (Subtask) createRecord(subtask);
     }
 
     @Override
@@ -127,10 +269,7 @@ public class InMemoryTaskManager implements TaskManager {
         if ((task instanceof Epic) || (task instanceof Subtask))
             throw new WrongTaskArgumentException("Update error: Type mismatch");
         checkIntersections(newTask);
-        if (task.getStartTime() != null) sortedTasks.remove(task);
-        task.update(newTask);
-        if (task.getStartTime() != null) sortedTasks.add(task);
-        return task;
+        return updateRecord(task, newTask);
     }
 
     @Override
@@ -138,9 +277,8 @@ public class InMemoryTaskManager implements TaskManager {
         if (newEpic == null) throw new WrongTaskArgumentException("Update error: Epic shouldn't be null");
         Task task = tasks.get(newEpic.getId());
         if (task == null) throw new TaskNotFoundException("Update error: Epic not found");
-        if (!(task instanceof Epic epic)) throw new WrongTaskArgumentException("Update error: Type mismatch");
-        epic.update(newEpic);
-        return epic;
+        if (!(task instanceof Epic)) throw new WrongTaskArgumentException("Update error: Type mismatch");
+        return (Epic) updateRecord(task, newEpic);
     }
 
     @Override
@@ -148,12 +286,9 @@ public class InMemoryTaskManager implements TaskManager {
         if (newSubtask == null) throw new WrongTaskArgumentException("Update error: Subtask shouldn't be null");
         Task task = tasks.get(newSubtask.getId());
         if (task == null) throw new TaskNotFoundException("Update error: Subtask not found");
-        if (!(task instanceof Subtask subtask)) throw new WrongTaskArgumentException("Update error: Type mismatch");
+        if (!(task instanceof Subtask)) throw new WrongTaskArgumentException("Update error: Type mismatch");
         checkIntersections(newSubtask);
-        if (task.getStartTime() != null) sortedTasks.remove(subtask);
-        subtask.update(newSubtask);
-        if (task.getStartTime() != null) sortedTasks.add(subtask);
-        return subtask;
+        return (Subtask) updateRecord(task, newSubtask);
     }
 
 
@@ -162,95 +297,410 @@ public class InMemoryTaskManager implements TaskManager {
     @Override
     public void removeById(int id) throws TaskNotFoundException {
         Task task = tasks.get(id);
-        if (task == null) {
-            throw new TaskNotFoundException("Remove error: Task #" + id + " not found!");
-        } else if (task instanceof Epic epic) {
-            for (Subtask subtask : epic.getSubtasks().values()) {
-                historyManager.remove(subtask.getId());
-                if (subtask.getStartTime() != null) sortedTasks.remove(subtask);
-                tasks.remove(subtask.getId());
-            }
-        } else if (task instanceof Subtask subtask) {
-            if (subtask.getEpic() != null) subtask.getEpic().unlinkSubtask(id);
-            if (task.getStartTime() != null) sortedTasks.remove(task);
-        } else {
-            if (task.getStartTime() != null) sortedTasks.remove(task);
-        }
-        historyManager.remove(id);
-        tasks.remove(id);
+        if (task == null) throw new TaskNotFoundException("Remove error: Task #" + id + " not found!");
+        deleteRecord(task);
     }
 
     @Override
     public void removeAllTasks() {
-        Iterator<Task> taskIterator = tasks.values().iterator();
-        while (taskIterator.hasNext()) {
-            Task task = taskIterator.next();
-            if (task instanceof Epic || task instanceof Subtask) continue;
+        for (Task task : List.copyOf(simpleTasks.values())) {
             historyManager.remove(task.getId());
-            taskIterator.remove();
+            removeFromSchedule(task);
+            removeRecord(task);
+            publishRemoved(task);
         }
-        sortedTasks.clear();
-        sortedTasks.addAll(tasks.values().stream()
-                .filter(t -> !(t instanceof Epic))
-                .filter(t -> t.getStartTime() != null)
-                .toList());
     }
 
     @Override
     public void removeAllSubtasks() {
-        Iterator<Task> taskIterator = tasks.values().iterator();
-        while (taskIterator.hasNext()) {
-            Task task = taskIterator.next();
-            if (task instanceof Subtask subtask) {
-                if (subtask.getEpic() != null) subtask.getEpic().unlinkSubtask(subtask.getId());
-                historyManager.remove(task.getId());
-                taskIterator.remove();
-            }
+        Map<Epic, Task> epicsBefore = new LinkedHashMap<>();     // states of changed epics before the removal
+        for (Subtask subtask : List.copyOf(subtasks.values())) {
+            Epic epic = subtask.getEpic();
+            if (epic != null) epicsBefore.computeIfAbsent(epic, Epic::copy);
+            if (epic != null) epic.unlinkSubtask(subtask.getId());
+            historyManager.remove(subtask.getId());
+            removeFromSchedule(subtask);
+            removeRecord(subtask);
+            publishRemoved(subtask);
         }
-        sortedTasks.clear();
-        sortedTasks.addAll(tasks.values().stream()
-                .filter(t -> !(t instanceof Epic))
-                .filter(t -> t.getStartTime() != null)
-                .toList());
+        epicsBefore.forEach((epic, before) -> afterEpicRollup(before, epic));
     }
 
     @Override
     public void removeAllEpics() {
-        Iterator<Task> taskIterator = tasks.values().iterator();
-        while (taskIterator.hasNext()) {
-            Task task = taskIterator.next();
-            if (task instanceof Epic || task instanceof Subtask) {
-                historyManager.remove(task.getId());
-                taskIterator.remove();
-            }
+        for (Subtask subtask : List.copyOf(subtasks.values())) {
+            historyManager.remove(subtask.getId());
+            removeFromSchedule(subtask);
+            removeRecord(subtask);
+            publishRemoved(subtask);
+        }
+        for (Epic epic : List.copyOf(epics.values())) {
+            historyManager.remove(epic.getId());
+            removeRecord(epic);
+            publishRemoved(epic);
         }
-        sortedTasks.clear();
-        sortedTasks.addAll(tasks.values().stream()
-                .filter(t -> !(t instanceof Epic))
-                .filter(t -> t.getStartTime() != null)
-                .toList());
     }
 
     @Override
     public void clearAllData() {
+        if (eventBus.hasSubscribers()) {
+            for (Task task : tasks.values()) publishRemoved(task);
+        }
         historyManager.clear();
-        sortedTasks.clear();
-        tasks.clear();
+        clearSchedule();
+        clearRecords();
         taskFactory.clear();
     }
 
+
+    //#################################### Batch methods ####################################
+
+    @Override
+    public List<Task> addAll(List<? extends Task> newTasks)
+            throws TaskIntersectionException, WrongTaskArgumentException, TaskNotFoundException {
+        if (newTasks == null) throw new WrongTaskArgumentException("Add error: Task list shouldn't be null");
+        for (Task task : newTasks) {
+            if (task == null) throw new WrongTaskArgumentException("Add error: Task shouldn't be null");
+            if (task instanceof Subtask subtask) findSubtaskEpic(subtask);
+        }
+        checkBatchIntersections(newTasks, Set.of());
+        List<Task> added = new ArrayList<>(newTasks.size());
+        for (Task task : newTasks) added.add(createRecord(task));
+        return added;
+    }
+
+    @Override
+    public List<Task> updateAll(List<? extends Task> newTasks)
+            throws TaskIntersectionException, WrongTaskArgumentException, TaskNotFoundException {
+        if (newTasks == null) throw new WrongTaskArgumentException("Update error: Task list shouldn't be null");
+        Set<Integer> ids = new HashSet<>();
+        List<Task> records = new ArrayList<>(newTasks.size());
+        for (Task newTask : newTasks) {
+            if (newTask == null) throw new WrongTaskArgumentException("Update error: Task shouldn't be null");
+            Task task = tasks.get(newTask.getId());
+            if (task == null) throw new TaskNotFoundException("Update error: Task #" + newTask.getId() + " not found");
+            if (task.getClass() != newTask.getClass()) throw new WrongTaskArgumentException("Update error: Type mismatch");
+            if (!ids.add(task.getId()))
+                throw new WrongTaskArgumentException("Update error: Task #" + task.getId() + " is repeated in the list");
+            records.add(task);
+        }
+        checkBatchIntersections(newTasks, ids);
+        for (int i = 0; i < records.size(); i++) updateRecord(records.get(i), newTasks.get(i));
+        return records;
+    }
+
+    @Override
+    public void removeAll(Collection<Integer> ids) throws TaskNotFoundException {
+        if (ids == null) throw new IllegalArgumentException("Parameter 'ids' cannot be null");
+        for (Integer id : ids) {
+            if (id == null || !tasks.containsKey(id.intValue()))
+                throw new TaskNotFoundException("Remove error: Task #" + id + " not found!");
+        }
+        for (Integer id : ids) {
+            Task task = tasks.get(id.intValue());
+            if (task != null) deleteRecord(task);               // subtasks of removed epics are already gone
+        }
+    }
+
+
+    //#################################### Storage methods ####################################
+
+    /**
+     * Creates a new record from the validated data object and puts it to storages and time indexes.
+     * Subtask is linked to its Epic.
+     * @param task Task, Epic or Subtask data object
+     * @return {@code Task} created record
+     */
+    protected Task createRecord(Task task) {
+        if (task instanceof Epic newEpic) return insertRecord(taskFactory.newEpic(newEpic), null);
+        if (task instanceof Subtask subtask) return insertRecord(taskFactory.newSubtask(subtask), epics.get(subtask.getEpicId()));
+        return insertRecord(taskFactory.newTask(task), null);
+    }
+
+    /**
+     * Puts the new record to storages and time indexes
+     * @param newTask new Task, Epic or Subtask object
+     * @param epic existing Epic to link the new subtask to, or null
+     * @return {@code Task} the same record
+     */
+    private Task insertRecord(Task newTask, Epic epic) {
+        Task epicBefore = copyEpic(epic);
+        if (epic != null) epic.linkSubtask((Subtask) newTask);
+        putRecord(newTask);
+        if (!(newTask instanceof Epic)) addToSchedule(newTask);
+        publishCreated(newTask);
+        if (epic != null) afterEpicRollup(epicBefore, epic);
+        return newTask;
+    }
+
+    /**
+     * Copies the validated data to the existing record keeping time indexes in order
+     * @param task existing record
+     * @param newTask data object of the same type
+     * @return {@code Task} updated record
+     */
+    protected Task updateRecord(Task task, Task newTask) {
+        Task before = copyForEvent(task);
+        if (task instanceof Epic) {
+            task.update(newTask);
+            searchIndex.add(task);
+            publishUpdated(before, task);
+            return task;
+        }
+        Epic epic = (task instanceof Subtask subtask) ? subtask.getEpic() : null;
+        Task epicBefore = copyEpic(epic);
+        TaskStatus statusBefore = task.getStatus();
+        removeFromSchedule(task);
+        task.update(newTask);
+        searchIndex.add(task);
+        counters.changeStatus(task, statusBefore);
+        addToSchedule(task);
+        publishUpdated(before, task);
+        if (epic != null) afterEpicRollup(epicBefore, epic);
+        return task;
+    }
+
+    /**
+     * Removes the existing record from storages, time indexes and history. Epic is removed with its subtasks.
+     * @param task existing record
+     */
+    protected void deleteRecord(Task task) {
+        Epic parent = null;
+        Task parentBefore = null;
+        if (task instanceof Epic epic) {
+            for (Subtask subtask : epic.getSubtasks().values()) {
+                historyManager.remove(subtask.getId());
+                removeFromSchedule(subtask);
+                removeRecord(subtask);
+                publishRemoved(subtask);
+            }
+        } else if (task instanceof Subtask subtask) {
+            parent = subtask.getEpic();
+            parentBefore = copyEpic(parent);
+            if (parent != null) parent.unlinkSubtask(subtask.getId());
+            removeFromSchedule(task);
+        } else {
+            removeFromSchedule(task);
+        }
+        historyManager.remove(task.getId());
+        removeRecord(task);
+        publishRemoved(task);
+        if (parent != null) afterEpicRollup(parentBefore, parent);
+    }
+
+    /**
+     * Returns an existing Epic that the new subtask should be linked to
+     * @param subtask Subtask data object containing Epic ID
+     * @return {@code Epic} existing Epic object
+     * @throws TaskNotFoundException if there is no Epic with this ID
+     */
+    protected Epic findSubtaskEpic(Subtask subtask) throws TaskNotFoundException {
+        Epic epic = epics.get(subtask.getEpicId());
+        if (epic == null && tasks.containsKey(subtask.getEpicId()))
+            throw new TaskNotFoundException("Add error: Subtask's Epic type mismatch");
+        if (epic == null) throw new TaskNotFoundException("Add error: Subtask's Epic not found");
+        return epic;
+    }
+
+    /**
+     * Puts the record to the common ID index, to the storage of its own type and to the search index
+     * @param task Task, Epic or Subtask object
+     */
+    protected void putRecord(Task task) {
+        Task replaced = tasks.put(task.getId(), task);
+        if (replaced != null) counters.removeRecord(replaced);
+        if (task instanceof Epic epic) {
+            epics.put(epic.getId(), epic);
+        } else if (task instanceof Subtask subtask) {
+            subtasks.put(subtask.getId(), subtask);
+        } else {
+            simpleTasks.put(task.getId(), task);
+        }
+        searchIndex.add(task);
+        counters.addRecord(task);
+    }
+
+    /**
+     * Removes the record from the common ID index, from the storage of its own type and from the search index
+     * @param task Task, Epic or Subtask object
+     */
+    protected void removeRecord(Task task) {
+        if (tasks.remove(task.getId()) != null) counters.removeRecord(task);
+        if (task instanceof Epic) {
+            epics.remove(task.getId());
+        } else if (task instanceof Subtask) {
+            subtasks.remove(task.getId());
+        } else {
+            simpleTasks.remove(task.getId());
+        }
+        searchIndex.remove(task.getId());
+    }
+
+    protected void clearRecords() {
+        tasks.clear();
+        simpleTasks.clear();
+        epics.clear();
+        subtasks.clear();
+        searchIndex.clear();
+        counters.clearRecords();
+    }
+
+    /**
+     * Recounts records by status, e.g. after loading records and linking subtasks to their epics
+     */
+    protected void recountRecords() {
+        counters.clearRecords();
+        for (Task task : tasks.values()) counters.addRecord(task);
+    }
+
+    //#################################### Event methods ####################################
+
+    /**
+     * Returns a copy of the record to keep its state before the change. Nothing is copied if nobody listens.
+     * @param task existing record or null
+     * @return {@code Task} detached copy or null
+     */
+    protected Task copyForEvent(Task task) {
+        return (task == null || !eventBus.hasSubscribers()) ? null : task.copy();
+    }
+
+    protected void publishCreated(Task task) {
+        if (eventBus.hasSubscribers()) eventBus.publish(TaskEvent.Type.CREATED, null, task.copy());
+    }
+
+    /**
+     * Sends UPDATED event to subscribers
+     * @param before copy of the record before the change, made by {@link #copyForEvent(Task)}
+     * @param task changed record
+     */
+    protected void publishUpdated(Task before, Task task) {
+        if (before != null && eventBus.hasSubscribers()) eventBus.publish(TaskEvent.Type.UPDATED, before, task.copy());
+    }
+
+    protected void publishRemoved(Task task) {
+        if (eventBus.hasSubscribers()) eventBus.publish(TaskEvent.Type.REMOVED, task.copy(), null);
+    }
+
+    /**
+     * Returns a copy of the Epic to compare its calculated status and timing after a change of its subtasks
+     * @param epic existing Epic or null
+     * @return {@code Task} detached copy or null
+     */
+    protected Task copyEpic(Epic epic) {
+        return (epic == null) ? null : epic.copy();
+    }
+
+    /**
+     * Counts the new status of the Epic and sends UPDATED event if its calculated status or timing
+     * was changed by its subtasks
+     * @param before copy of the Epic before the change, made by {@link #copyEpic(Epic)}
+     * @param epic existing Epic object
+     */
+    protected void afterEpicRollup(Task before, Epic epic) {
+        if (before == null) return;
+        counters.changeStatus(epic, before.getStatus());
+        if (before.getStatus() == epic.getStatus() && Objects.equals(before.getStartTime(), epic.getStartTime())
+                && Objects.equals(before.getDuration(), epic.getDuration())) return;
+        publishUpdated(before, epic);
+    }
+
+
     //#################################### Date Time methods ####################################
 
     protected void checkIntersections(Task task) throws TaskIntersectionException {
         if (task == null || task.getStartTime() == null) return;
-        List<Task> intersected = sortedTasks.stream()
-                .filter(t -> t.getStartTime().isBefore(task.getEndTime()) && task.getStartTime().isBefore(t.getEndTime()))
+        List<Task> intersected = intervals.findOverlapping(task.getStartTime(), task.getEndTime()).stream()
                 .filter(t -> !t.equals(task))
                 .toList();
-        if (intersected.isEmpty()) return;
+        if (!intersected.isEmpty()) throw intersectionException(task, intersected);
+    }
+
+    /**
+     * Checks the whole list of data objects before applying: every task against the schedule,
+     * then all the tasks of the list against each other by one sweep in order of start time.
+     * @param batch list of data objects
+     * @param movedIds IDs of records that are updated by the list, their current timing is ignored
+     * @throws TaskIntersectionException if any task intersects with another one
+     */
+    protected void checkBatchIntersections(List<? extends Task> batch, Set<Integer> movedIds)
+            throws TaskIntersectionException {
+        List<Task> scheduled = new ArrayList<>();
+        for (Task task : batch) {
+            if (task instanceof Epic || task.getStartTime() == null) continue;
+            List<Task> intersected = intervals.findOverlapping(task.getStartTime(), task.getEndTime()).stream()
+                    .filter(t -> !movedIds.contains(t.getId()))
+                    .toList();
+            if (!intersected.isEmpty()) throw intersectionException(task, intersected);
+            scheduled.add(task);
+        }
+        scheduled.sort(Comparator.comparing(Task::getStartTime).thenComparing(Task::getEndTime));
+        Task latest = null;                                         // task with the latest end among checked ones
+        for (Task task : scheduled) {
+            if (latest != null && task.getStartTime().isBefore(latest.getEndTime()))
+                throw new TaskIntersectionException("Task \"" + task.getTitle()
+                        + "\" has intersections with other task of the list: " + latest.getId());
+            if (latest == null || task.getEndTime().isAfter(latest.getEndTime())) latest = task;
+        }
+    }
+
+    /**
+     * Returns the last day the task runs at: end time is exclusive, a task of zero duration belongs to the day of its start
+     */
+    private static LocalDate lastDay(Task task) {
+        LocalDateTime start = task.getStartTime();
+        LocalDateTime end = task.getEndTime();
+        if (!end.isAfter(start)) return start.toLocalDate();
+        return end.minusNanos(1).toLocalDate();
+    }
+
+    /**
+     * Returns a task placed in the prioritized set before all the tasks starting at the same time
+     */
+    private static Task timeProbe(LocalDateTime time) {
+        return new Task(Integer.MIN_VALUE, null, null, null, time, null);
+    }
+
+    private static TaskIntersectionException intersectionException(Task task, List<Task> intersected) {
         String toMsg = intersected.stream().map(t -> String.valueOf(t.getId())).collect(Collectors.joining(", "));
-        throw new TaskIntersectionException("Task \"" + task.getTitle()
+        return new TaskIntersectionException("Task \"" + task.getTitle()
                 + "\" has intersections with other tasks: " + toMsg);
     }
 
+    /**
+     * Puts the task to time indexes (prioritized set and interval tree). Tasks without start time are skipped.
+     * @param task Task or Subtask object
+     */
+    protected void addToSchedule(Task task) {
+        if (task == null || task.getStartTime() == null) return;
+        if (!sortedTasks.add(task)) return;
+        intervals.add(task);
+        counters.addScheduled(task);
+    }
+
+    /**
+     * Removes the task from time indexes. Should be called before changing task timing.
+     * @param task Task or Subtask object
+     */
+    protected void removeFromSchedule(Task task) {
+        if (task == null || task.getStartTime() == null) return;
+        if (!sortedTasks.remove(task)) return;
+        intervals.remove(task);
+        counters.removeScheduled(task);
+    }
+
+    protected void clearSchedule() {
+        sortedTasks.clear();
+        intervals.clear();
+        counters.clearScheduled();
+    }
+
+    /**
+     * Refills time indexes with all the scheduled tasks and subtasks
+     */
+    protected void rebuildSchedule() {
+        clearSchedule();
+        for (Task task : simpleTasks.values()) addToSchedule(task);
+        for (Subtask subtask : subtasks.values()) addToSchedule(subtask);
+    }
+
 }
@@ -0,0 +1,66 @@
+package manager;
+
+/**
+ * Statistics of journal flushes: how many records were written by one flush (group commit batch)
+ * and how long writing and syncing took.
+ */
+public final class JournalMetrics {
+
+    private final long flushes;
+    private final long records;
+    private final int maxBatchSize;
+    private final long totalFlushNanos;
+    private final long maxFlushNanos;
+
+    public JournalMetrics(long flushes, long records, int maxBatchSize, long totalFlushNanos, long maxFlushNanos) {
+        this.flushes = flushes;
+        this.records = records;
+        this.maxBatchSize = maxBatchSize;
+        this.totalFlushNanos = totalFlushNanos;
+        this.maxFlushNanos = maxFlushNanos;
+    }
+
+    /**
+     * Returns number of writes to the journal file
+     * @return {@code long} number of flushes
+     */
+    public long getFlushes() {
+        return flushes;
+    }
+
+    /**
+     * Returns number of records written by all the flushes
+     * @return {@code long} number of records
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public double getAverageBatchSize() {
+        return (flushes == 0) ? 0 : (double) records / flushes;
+    }
+
+    /**
+     * Returns the average time of one flush including fsync if the durability policy requires it
+     * @return {@code long} nanoseconds
+     */
+    public long getAverageFlushNanos() {
+        return (flushes == 0) ? 0 : totalFlushNanos / flushes;
+    }
+
+    public long getMaxFlushNanos() {
+        return maxFlushNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "JournalMetrics{flushes=" + flushes + ", records=" + records
+                + ", averageBatch=" + String.format("%.2f", getAverageBatchSize()) + ", maxBatch=" + maxBatchSize
+                + ", averageFlush=" + getAverageFlushNanos() / 1000 + "us, maxFlush=" + maxFlushNanos / 1000 + "us}";
+    }
+
+}
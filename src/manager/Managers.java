@@ -1,12 +1,13 @@
 package manager;
 
+import task.IdAllocator;
 import task.TaskFactory;
 
 import java.io.File;
 
 public class Managers {
 
-    private static TaskManager instance;
+    private static volatile TaskManager instance;
 
     //#################################### InMemory Task Manager ####################################
 
@@ -28,12 +29,53 @@ public class Managers {
      * @return {@code TaskManager} TaskManager instance
      */
     public static TaskManager getDefault() {
-        if (instance == null) {
-            createNewInMemory(getDefaultFactory(), getDefaultHistory());
+        TaskManager taskManager = instance;
+        if (taskManager == null) {
+            synchronized (Managers.class) {
+                if (instance == null) createNewInMemory(getDefaultFactory(), getDefaultHistory());
+                taskManager = instance;
+            }
         }
+        return taskManager;
+    }
+
+
+    //#################################### Concurrent Task Manager ####################################
+
+    /**
+     * Returns a new thread-safe task manager. Full constructor.
+     * @param taskFactory instance of TaskFactory object to inject
+     * @param historyManager instance of HistoryManager object to inject
+     * @return {@code TaskManager} created object
+     */
+    public static TaskManager createNewConcurrent(TaskFactory taskFactory, HistoryManager historyManager) {
+        return createNewConcurrent(taskFactory, historyManager, ConcurrentTaskManager.LockMode.GLOBAL);
+    }
+
+    /**
+     * Returns a new thread-safe task manager with the chosen locking model.
+     * @param taskFactory instance of TaskFactory object to inject
+     * @param historyManager instance of HistoryManager object to inject
+     * @param lockMode GLOBAL (one write lock) or STRIPED (per-epic locks for subtask changes)
+     * @return {@code TaskManager} created object
+     */
+    public static TaskManager createNewConcurrent(TaskFactory taskFactory, HistoryManager historyManager,
+                                                  ConcurrentTaskManager.LockMode lockMode) {
+        if (taskFactory == null) throw new IllegalArgumentException("Parameter 'taskFactory' cannot be null");
+        if (historyManager == null) throw new IllegalArgumentException("Parameter 'historyManager' cannot be null");
+        if (lockMode == null) throw new IllegalArgumentException("Parameter 'lockMode' cannot be null");
+        instance = new ConcurrentTaskManager(taskFactory, historyManager, lockMode);
         return instance;
     }
 
+    /**
+     * Returns a new thread-safe task manager with auto generated dependencies.
+     * @return {@code TaskManager} created object
+     */
+    public static TaskManager createNewConcurrent() {
+        return createNewConcurrent(getDefaultFactory(), getDefaultHistory());
+    }
+
 
     //#################################### File Backed Task Manager ####################################
 
@@ -45,11 +87,62 @@ public class Managers {
      * @return {@code TaskManager} created object
      */
     public static TaskManager createNewFromFile(TaskFactory taskFactory, HistoryManager historyManager, File file) {
+        return createNewFromFile(taskFactory, historyManager, file, FileBackedTaskManager.PersistenceMode.SNAPSHOT);
+    }
+
+    /**
+     * Returns a new File Backed task manager with the chosen way of writing changes and loads info from file.
+     * @param taskFactory instance of TaskFactory object to inject
+     * @param historyManager instance of HistoryManager object to inject
+     * @param file CSV file to read
+     * @param mode SNAPSHOT (rewrite the file after every change) or JOURNAL (append changes to the log file)
+     * @return {@code TaskManager} created object
+     */
+    public static TaskManager createNewFromFile(TaskFactory taskFactory, HistoryManager historyManager, File file,
+                                                FileBackedTaskManager.PersistenceMode mode) {
+        return createNewFromFile(taskFactory, historyManager, file, mode, FileBackedTaskManager.StorageFormat.CSV);
+    }
+
+    /**
+     * Returns a new File Backed task manager with the chosen way of writing changes and format of the data file,
+     * and loads info from file.
+     * @param taskFactory instance of TaskFactory object to inject
+     * @param historyManager instance of HistoryManager object to inject
+     * @param file data file to read
+     * @param mode SNAPSHOT (rewrite the file after every change) or JOURNAL (append changes to the log file)
+     * @param format CSV or BINARY data file
+     * @return {@code TaskManager} created object
+     */
+    public static TaskManager createNewFromFile(TaskFactory taskFactory, HistoryManager historyManager, File file,
+                                                FileBackedTaskManager.PersistenceMode mode,
+                                                FileBackedTaskManager.StorageFormat format) {
+        if (taskFactory == null) throw new IllegalArgumentException("Parameter 'taskFactory' cannot be null");
+        if (historyManager == null) throw new IllegalArgumentException("Parameter 'historyManager' cannot be null");
+        if (file == null) throw new IllegalArgumentException("Parameter 'file' cannot be null");
+        if (mode == null) throw new IllegalArgumentException("Parameter 'mode' cannot be null");
+        FileBackedTaskManager taskManager = new FileBackedTaskManager(taskFactory, historyManager, file, mode, format);
+        taskManager.load();
+        instance = taskManager;
+        return instance;
+    }
+
+    /**
+     * Returns a new File Backed task manager in JOURNAL mode with group commit of changes and loads info from file.
+     * @param taskFactory instance of TaskFactory object to inject
+     * @param historyManager instance of HistoryManager object to inject
+     * @param file CSV file to read
+     * @param policy SYNC (wait for fsync), INTERVAL (fsync every flush interval) or OS_BUFFERED (no fsync)
+     * @param flushIntervalMillis flush interval of INTERVAL policy
+     * @return {@code TaskManager} created object
+     */
+    public static TaskManager createNewFromFile(TaskFactory taskFactory, HistoryManager historyManager, File file,
+                                                TaskJournal.DurabilityPolicy policy, long flushIntervalMillis) {
         if (taskFactory == null) throw new IllegalArgumentException("Parameter 'taskFactory' cannot be null");
         if (historyManager == null) throw new IllegalArgumentException("Parameter 'historyManager' cannot be null");
         if (file == null) throw new IllegalArgumentException("Parameter 'file' cannot be null");
-        FileBackedTaskManager taskManager = new FileBackedTaskManager(taskFactory, historyManager, file);
-        if (file.canRead())  taskManager.readFromCSV();
+        TaskJournal journal = TaskJournal.forDataFile(file, policy, flushIntervalMillis);
+        FileBackedTaskManager taskManager = new FileBackedTaskManager(taskFactory, historyManager, file, journal);
+        taskManager.load();
         instance = taskManager;
         return instance;
     }
@@ -65,6 +158,25 @@ public class Managers {
         return instance;
     }
 
+    /**
+     * Returns a new task manager keeping its data in a memory-mapped store file and loads its records.
+     * @param taskFactory instance of TaskFactory object to inject
+     * @param historyManager instance of HistoryManager object to inject
+     * @param file store file, created if it doesn't exist
+     * @param sync force every change to disk
+     * @return {@code TaskManager} created object
+     */
+    public static TaskManager createNewMapped(TaskFactory taskFactory, HistoryManager historyManager, File file,
+                                              boolean sync) {
+        if (taskFactory == null) throw new IllegalArgumentException("Parameter 'taskFactory' cannot be null");
+        if (historyManager == null) throw new IllegalArgumentException("Parameter 'historyManager' cannot be null");
+        if (file == null) throw new IllegalArgumentException("Parameter 'file' cannot be null");
+        MappedTaskManager taskManager = new MappedTaskManager(taskFactory, historyManager, new MappedTaskStore(file, sync));
+        taskManager.load();
+        instance = taskManager;
+        return instance;
+    }
+
 
     //#################################### History Manager ####################################
 
@@ -96,5 +208,25 @@ public class Managers {
         return new TaskFactory();
     }
 
+    /**
+     * Returns a new task factory leasing IDs by blocks for every writer thread
+     * @param blockSize number of IDs reserved by a thread at once
+     * @return {@code TaskFactory} created object
+     */
+    public static TaskFactory getLeasingFactory(int blockSize) {
+        return new TaskFactory(new IdAllocator(blockSize, null));
+    }
+
+    /**
+     * Returns a new task factory leasing IDs by blocks from the high-water mark persisted near the data file,
+     * so several processes can add tasks to the same board without duplicate IDs
+     * @param blockSize number of IDs reserved by a thread at once
+     * @param dataFile CSV file of the task manager
+     * @return {@code TaskFactory} created object
+     */
+    public static TaskFactory getLeasingFactory(int blockSize, File dataFile) {
+        return new TaskFactory(new IdAllocator(blockSize, FileIdBlockSource.forDataFile(dataFile)));
+    }
+
 
 }
@@ -0,0 +1,110 @@
+package manager;
+
+import task.*;
+
+import java.io.Closeable;
+import java.io.File;
+
+/**
+ * Task manager keeping its data in a memory-mapped {@link MappedTaskStore}.
+ * <br>Unlike {@link FileBackedTaskManager}, a change doesn't rewrite the file: only the blocks of the added,
+ * updated or removed record are written in place (and forced to disk if the store is opened with sync).
+ * Epic status and timing are calculated from subtasks, so epics are not rewritten when their subtasks change.
+ */
+public class MappedTaskManager extends InMemoryTaskManager implements Closeable {
+
+    private final MappedTaskStore store;
+    private boolean loading;                                        // records come from the store, don't write them
+
+    public MappedTaskManager(TaskFactory taskFactory, HistoryManager historyManager, MappedTaskStore store) {
+        super(taskFactory, historyManager);
+        if (store == null) throw new IllegalArgumentException("Parameter 'store' cannot be null");
+        this.store = store;
+    }
+
+    public static MappedTaskManager loadFromFile(File file) {
+        return loadFromFile(file, false);
+    }
+
+    /**
+     * Opens the store file and loads its records
+     * @param file store file, created if it doesn't exist
+     * @param sync force every change to disk
+     * @return {@code MappedTaskManager} loaded manager
+     */
+    public static MappedTaskManager loadFromFile(File file, boolean sync) {
+        MappedTaskManager taskManager = new MappedTaskManager(new TaskFactory(), new InMemoryHistoryManager(),
+                new MappedTaskStore(file, sync));
+        taskManager.load();
+        return taskManager;
+    }
+
+    public MappedTaskStore getStore() {
+        return store;
+    }
+
+    /**
+     * Reads all the records of the store. Subtasks are linked to their epics after all the records are read,
+     * because a reused block of a subtask may precede the block of its epic.
+     */
+    public void load() {
+        loading = true;
+        try {
+            taskFactory.clear();
+            historyManager.clear();
+            clearRecords();
+            clearSchedule();
+            int maxId = 0;
+            for (Task task : store.readAll()) {
+                maxId = Math.max(maxId, task.getId());
+                putRecord(task);
+            }
+            for (Subtask subtask : subtasks.values()) {
+                Epic epic = epics.get(subtask.getEpicId());
+                if (epic != null) epic.linkSubtask(subtask);
+            }
+            taskFactory.reserveUpTo(maxId);
+            recountRecords();
+            rebuildSchedule();
+        } finally {
+            loading = false;
+        }
+    }
+
+    /**
+     * Forces all the changes to disk and closes the store file
+     */
+    @Override
+    public void close() {
+        store.close();
+    }
+
+
+    //#################################### Storage methods ####################################
+
+    @Override
+    protected void putRecord(Task task) {
+        super.putRecord(task);
+        if (!loading) store.put(task);
+    }
+
+    @Override
+    protected Task updateRecord(Task task, Task newTask) {
+        Task updated = super.updateRecord(task, newTask);
+        store.put(updated);
+        return updated;
+    }
+
+    @Override
+    protected void removeRecord(Task task) {
+        super.removeRecord(task);
+        store.remove(task.getId());
+    }
+
+    @Override
+    protected void clearRecords() {
+        super.clearRecords();
+        if (!loading) store.clear();
+    }
+
+}
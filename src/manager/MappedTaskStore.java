@@ -0,0 +1,416 @@
+package manager;
+
+import exception.ManagerLoadException;
+import exception.ManagerSaveException;
+import task.*;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records of tasks kept in a memory-mapped file of fixed-size blocks.
+ * <br>Block 0 is the header: magic, version, block size, number of used blocks and the head of the free list.
+ * Every record takes one head block with its fixed fields (type, status, IDs, epoch minute of start time,
+ * duration seconds) and the beginning of title and description (UTF-8). The rest of the text goes to overflow
+ * blocks linked into a chain. Blocks of removed records are linked into the free list and reused.
+ * <br>A change writes only the blocks of the changed record (and the header if blocks were allocated or freed),
+ * the head block is written last. The header is written before an allocated block is used, so a crash never
+ * leaves a used block in the persisted free list. With sync on, every written block is forced to disk.
+ * <br>The free list is rebuilt on opening from the blocks not reachable from records, so blocks leaked by a crash
+ * in the middle of a change are reused.
+ * Not thread-safe.
+ */
+public class MappedTaskStore implements Closeable {
+
+    public static final int DEFAULT_BLOCK_SIZE = 256;
+    private static final int MIN_BLOCK_SIZE = 64;
+    private static final int MAGIC = 0x544D4D31;                     // "TMM1"
+    private static final int VERSION = 1;
+    private static final int NONE = -1;
+
+    // header fields
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_BLOCK_SIZE = 8;
+    private static final int HEADER_BLOCKS = 12;
+    private static final int HEADER_FREE = 16;
+
+    // fields of every block
+    private static final int STATE = 0;
+    private static final int NEXT = 4;                              // next overflow block, or next free block
+    private static final byte FREE = 0;
+    private static final byte RECORD = 1;
+    private static final byte OVERFLOW = 2;
+
+    // fields of head block
+    private static final int TYPE = 1;
+    private static final int STATUS = 2;
+    private static final int FLAGS = 3;
+    private static final int ID = 8;
+    private static final int EPIC_ID = 12;
+    private static final int START_TIME = 16;
+    private static final int DURATION = 24;
+    private static final int TITLE_LENGTH = 32;
+    private static final int DESCRIPTION_LENGTH = 36;
+    private static final int RECORD_DATA = 40;
+    private static final int OVERFLOW_DATA = 8;
+    private static final int HAS_START_TIME = 1;
+    private static final int HAS_DURATION = 2;
+
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final File file;
+    private final FileChannel channel;
+    private final boolean sync;
+    private final int blockSize;
+    private final IdMap<Integer> index = new IdMap<>();             // head block by record ID
+    private MappedByteBuffer buffer;
+    private int blocks;                                             // used blocks including the header
+    private int freeHead;
+
+    /**
+     * Opens the store, a new file is created with the default block size
+     * @param file data file
+     * @param sync force every written block to disk
+     * @throws ManagerLoadException if the file can't be opened or isn't a store file
+     */
+    public MappedTaskStore(File file, boolean sync) {
+        this(file, sync, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Opens the store
+     * @param file data file
+     * @param sync force every written block to disk
+     * @param blockSize block size of a new file, the existing file keeps its own block size
+     * @throws ManagerLoadException if the file can't be opened or isn't a store file
+     */
+    public MappedTaskStore(File file, boolean sync, int blockSize) {
+        if (file == null) throw new IllegalArgumentException("Parameter 'file' cannot be null");
+        if (blockSize < MIN_BLOCK_SIZE) throw new IllegalArgumentException("Block size cannot be less than " + MIN_BLOCK_SIZE);
+        this.file = file;
+        this.sync = sync;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            long size = channel.size();
+            if (size == 0) {
+                this.blockSize = blockSize;
+                map(16L * blockSize);
+                buffer.putInt(HEADER_MAGIC, MAGIC);
+                buffer.putInt(HEADER_VERSION, VERSION);
+                buffer.putInt(HEADER_BLOCK_SIZE, blockSize);
+                blocks = 1;
+                freeHead = NONE;
+                writeHeader();
+            } else {
+                map(size);
+                if (size < MIN_BLOCK_SIZE || buffer.getInt(HEADER_MAGIC) != MAGIC) {
+                    throw new ManagerLoadException("Incorrect store file: wrong header");
+                }
+                if (buffer.getInt(HEADER_VERSION) != VERSION) {
+                    throw new ManagerLoadException("Unsupported store file version: " + buffer.getInt(HEADER_VERSION));
+                }
+                this.blockSize = buffer.getInt(HEADER_BLOCK_SIZE);
+                blocks = buffer.getInt(HEADER_BLOCKS);
+                if (this.blockSize < MIN_BLOCK_SIZE || blocks < 1 || (long) blocks * this.blockSize > size) {
+                    throw new ManagerLoadException("Incorrect store file: wrong header");
+                }
+                buildIndex();
+            }
+        } catch (IOException e) {
+            throw new ManagerLoadException("IO Error reading file " + file.toString());
+        }
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Returns number of blocks in the file including the header and free blocks
+     * @return {@code int} number of blocks
+     */
+    public int getBlocks() {
+        return blocks;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    //#################################### Read methods ####################################
+
+    /**
+     * Reads all the records in order of blocks
+     * @return {@code List<Task>} new Task, Epic and Subtask objects keeping their IDs, subtasks are not linked
+     * @throws ManagerLoadException if a record is broken
+     */
+    public List<Task> readAll() {
+        List<Task> records = new ArrayList<>(index.size());
+        for (int block = 1; block < blocks; block++) {
+            if (buffer.get(offset(block) + STATE) == RECORD) records.add(read(block));
+        }
+        return records;
+    }
+
+    /**
+     * Indexes the records and links all the blocks not used by them into a new free list
+     */
+    private void buildIndex() {
+        boolean[] used = new boolean[blocks];
+        for (int block = 1; block < blocks; block++) {
+            int offset = offset(block);
+            if (buffer.get(offset + STATE) != RECORD) continue;
+            index.put(buffer.getInt(offset + ID), Integer.valueOf(block));
+            used[block] = true;
+            for (int next = buffer.getInt(offset + NEXT); next > 0 && next < blocks && !used[next]
+                    && buffer.get(offset(next) + STATE) == OVERFLOW; next = buffer.getInt(offset(next) + NEXT)) {
+                used[next] = true;
+            }
+        }
+        freeHead = NONE;
+        for (int block = blocks - 1; block >= 1; block--) {
+            if (used[block]) continue;
+            buffer.put(offset(block) + STATE, FREE);
+            buffer.putInt(offset(block) + NEXT, freeHead);
+            freeHead = block;
+        }
+        if (sync) buffer.force();
+        writeHeader();
+    }
+
+    private Task read(int block) {
+        int offset = offset(block);
+        try {
+            TaskType type = TYPES[buffer.get(offset + TYPE)];
+            TaskStatus status = STATUSES[buffer.get(offset + STATUS)];
+            int flags = buffer.get(offset + FLAGS);
+            int id = buffer.getInt(offset + ID);
+            LocalDateTime startTime = ((flags & HAS_START_TIME) == 0) ? null
+                    : LocalDateTime.ofEpochSecond(buffer.getLong(offset + START_TIME) * 60, 0, ZoneOffset.UTC);
+            Duration duration = ((flags & HAS_DURATION) == 0) ? null : Duration.ofSeconds(buffer.getLong(offset + DURATION));
+            int titleLength = buffer.getInt(offset + TITLE_LENGTH);
+            byte[] text = readText(block, titleLength + buffer.getInt(offset + DESCRIPTION_LENGTH));
+            String title = new String(text, 0, titleLength, StandardCharsets.UTF_8);
+            String description = new String(text, titleLength, text.length - titleLength, StandardCharsets.UTF_8);
+            return switch (type) {
+                case EPIC -> new Epic(id, title, description);
+                case SUBTASK -> new Subtask(id, buffer.getInt(offset + EPIC_ID), title, description, status, startTime, duration);
+                case TASK -> new Task(id, title, description, status, startTime, duration);
+            };
+        } catch (RuntimeException e) {
+            throw new ManagerLoadException("Incorrect store record in block " + block);
+        }
+    }
+
+    private byte[] readText(int head, int length) {
+        byte[] text = new byte[length];
+        int copied = Math.min(length, blockSize - RECORD_DATA);
+        buffer.get(offset(head) + RECORD_DATA, text, 0, copied);
+        for (int block = buffer.getInt(offset(head) + NEXT); copied < length; block = buffer.getInt(offset(block) + NEXT)) {
+            if (block <= 0 || block >= blocks || buffer.get(offset(block) + STATE) != OVERFLOW) {
+                throw new ManagerLoadException("Broken overflow chain of block " + head);
+            }
+            int part = Math.min(length - copied, blockSize - OVERFLOW_DATA);
+            buffer.get(offset(block) + OVERFLOW_DATA, text, copied, part);
+            copied += part;
+        }
+        return text;
+    }
+
+    //#################################### Edit methods ####################################
+
+    /**
+     * Writes the record in place of its previous version, or to a free block
+     * @param task Task, Epic or Subtask object
+     * @throws ManagerSaveException if the file can't be extended
+     */
+    public void put(Task task) {
+        byte[] title = bytes(task.getTitle());
+        byte[] description = bytes(task.getDescription());
+        byte[] text = new byte[title.length + description.length];
+        System.arraycopy(title, 0, text, 0, title.length);
+        System.arraycopy(description, 0, text, title.length, description.length);
+
+        Integer existing = index.get(task.getId());
+        int head = (existing != null) ? existing : allocate();
+        List<Integer> chain = chainOf(existing);
+        int overflowCapacity = blockSize - OVERFLOW_DATA;
+        int needed = Math.max(0, text.length - (blockSize - RECORD_DATA) + overflowCapacity - 1) / overflowCapacity;
+        while (chain.size() < needed) chain.add(allocate());
+        List<Integer> unused = new ArrayList<>(chain.subList(needed, chain.size()));
+        chain.subList(needed, chain.size()).clear();
+
+        int position = blockSize - RECORD_DATA;                     // overflow blocks are written before the head
+        for (int i = 0; i < chain.size(); i++) {
+            int offset = offset(chain.get(i));
+            int part = Math.min(text.length - position, overflowCapacity);
+            buffer.put(offset + STATE, OVERFLOW);
+            buffer.putInt(offset + NEXT, (i + 1 < chain.size()) ? chain.get(i + 1) : NONE);
+            buffer.put(offset + OVERFLOW_DATA, text, position, part);
+            position += part;
+            touch(chain.get(i));
+        }
+        writeHead(head, task, title.length, description.length, text, chain.isEmpty() ? NONE : chain.getFirst());
+        for (int block : unused) free(block);                       // the head doesn't point to them anymore
+        index.put(task.getId(), Integer.valueOf(head));
+        writeHeader();
+    }
+
+    /**
+     * Frees blocks of the record
+     * @param id ID of the record
+     */
+    public void remove(int id) {
+        Integer head = index.remove(id);
+        if (head == null) return;
+        List<Integer> chain = chainOf(head);
+        free(head);                                                 // the record is gone before its chain is freed
+        for (int block : chain) free(block);
+        writeHeader();
+    }
+
+    /**
+     * Removes all the records. The file keeps its size, blocks are reused by next records.
+     * Blocks are marked free before the header is written, so no old record comes back if the header grows later
+     * and a crash happens before the new block is written.
+     */
+    public void clear() {
+        index.clear();
+        for (int block = 1; block < blocks; block++) buffer.put(offset(block) + STATE, FREE);
+        if (sync) buffer.force();
+        blocks = 1;
+        freeHead = NONE;
+        writeHeader();
+    }
+
+    /**
+     * Forces all the changes to disk, usable if the store is opened without sync
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (channel.isOpen()) buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new ManagerSaveException("File access error: can't write to " + file.toString());
+        }
+    }
+
+    private void writeHead(int head, Task task, int titleLength, int descriptionLength, byte[] text, int next) {
+        int offset = offset(head);
+        TaskType type = (task instanceof Epic) ? TaskType.EPIC
+                : (task instanceof Subtask) ? TaskType.SUBTASK : TaskType.TASK;
+        TaskStatus status = (task.getStatus() == null) ? TaskStatus.NEW : task.getStatus();
+        int epicId = 0;
+        if (task instanceof Subtask subtask) {
+            epicId = (subtask.getEpic() != null) ? subtask.getEpic().getId() : subtask.getEpicId();
+        }
+        buffer.put(offset + TYPE, (byte) type.ordinal());
+        buffer.put(offset + STATUS, (byte) status.ordinal());
+        buffer.put(offset + FLAGS, (byte) (((task.getStartTime() != null) ? HAS_START_TIME : 0)
+                | ((task.getDuration() != null) ? HAS_DURATION : 0)));
+        buffer.putInt(offset + NEXT, next);
+        buffer.putInt(offset + ID, task.getId());
+        buffer.putInt(offset + EPIC_ID, epicId);
+        buffer.putLong(offset + START_TIME, (task.getStartTime() == null) ? 0
+                : task.getStartTime().toEpochSecond(ZoneOffset.UTC) / 60);
+        buffer.putLong(offset + DURATION, (task.getDuration() == null) ? 0 : task.getDuration().toSeconds());
+        buffer.putInt(offset + TITLE_LENGTH, titleLength);
+        buffer.putInt(offset + DESCRIPTION_LENGTH, descriptionLength);
+        buffer.put(offset + RECORD_DATA, text, 0, Math.min(text.length, blockSize - RECORD_DATA));
+        buffer.put(offset + STATE, RECORD);
+        touch(head);
+    }
+
+    /**
+     * Returns overflow blocks of the record
+     * @param head head block of the record or null
+     */
+    private List<Integer> chainOf(Integer head) {
+        List<Integer> chain = new ArrayList<>();
+        if (head == null) return chain;
+        for (int block = buffer.getInt(offset(head) + NEXT); block != NONE; block = buffer.getInt(offset(block) + NEXT)) {
+            chain.add(block);
+        }
+        return chain;
+    }
+
+    /**
+     * Takes a free block, or a new block at the end. The header is written before the block is used.
+     */
+    private int allocate() {
+        int block;
+        if (freeHead != NONE && buffer.get(offset(freeHead) + STATE) == FREE) {
+            block = freeHead;
+            freeHead = buffer.getInt(offset(block) + NEXT);
+        } else {
+            freeHead = NONE;                                        // a broken list is rebuilt by the next opening
+            ensureCapacity(blocks + 1);
+            block = blocks++;
+        }
+        writeHeader();
+        return block;
+    }
+
+    private void free(int block) {
+        int offset = offset(block);
+        buffer.put(offset + STATE, FREE);
+        buffer.putInt(offset + NEXT, freeHead);
+        freeHead = block;
+        touch(block);
+    }
+
+    private void writeHeader() {
+        buffer.putInt(HEADER_BLOCKS, blocks);
+        buffer.putInt(HEADER_FREE, freeHead);
+        touch(0);
+    }
+
+    private void touch(int block) {
+        if (sync) buffer.force(offset(block), blockSize);
+    }
+
+    /**
+     * Extends the file and the mapping twice when the blocks don't fit
+     */
+    private void ensureCapacity(int blockCount) {
+        long required = (long) blockCount * blockSize;
+        if (required <= buffer.capacity()) return;
+        if (required > Integer.MAX_VALUE) throw new ManagerSaveException("Store file is full: " + file.toString());
+        try {
+            map(Math.min(Math.max(required, 2L * buffer.capacity()), Integer.MAX_VALUE / blockSize * (long) blockSize));
+        } catch (IOException e) {
+            throw new ManagerSaveException("File access error: can't extend " + file.toString());
+        }
+    }
+
+    private void map(long size) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private int offset(int block) {
+        return block * blockSize;
+    }
+
+    private static byte[] bytes(String text) {
+        return (text == null) ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
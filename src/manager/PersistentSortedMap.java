@@ -0,0 +1,222 @@
+package manager;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable sorted map (AVL balanced, path copying).
+ * <br>Put and remove return a new map sharing all the untouched nodes with the old one, so both cost O(log n),
+ * and any published map stays unchanged forever and can be read by any number of threads without locks.
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public final class PersistentSortedMap<K, V> {
+
+    private final Comparator<? super K> comparator;
+    private final Node<K, V> root;
+
+    private PersistentSortedMap(Comparator<? super K> comparator, Node<K, V> root) {
+        this.comparator = comparator;
+        this.root = root;
+    }
+
+    /**
+     * Returns a new empty map
+     * @param comparator order of keys
+     * @return {@code PersistentSortedMap} empty map
+     */
+    public static <K, V> PersistentSortedMap<K, V> empty(Comparator<? super K> comparator) {
+        if (comparator == null) throw new IllegalArgumentException("Parameter 'comparator' cannot be null");
+        return new PersistentSortedMap<>(comparator, null);
+    }
+
+    /**
+     * Returns the map with the key associated to the value. Existing value of the key is replaced.
+     * @param key key, shouldn't be null
+     * @param value value
+     * @return {@code PersistentSortedMap} new version of the map
+     */
+    public PersistentSortedMap<K, V> put(K key, V value) {
+        if (key == null) throw new IllegalArgumentException("Parameter 'key' cannot be null");
+        return new PersistentSortedMap<>(comparator, insert(root, key, value));
+    }
+
+    /**
+     * Returns the map without the key
+     * @param key key to remove
+     * @return {@code PersistentSortedMap} new version of the map, or the same map if the key is not found
+     */
+    public PersistentSortedMap<K, V> remove(K key) {
+        if (!containsKey(key)) return this;
+        return new PersistentSortedMap<>(comparator, delete(root, key));
+    }
+
+    public V get(K key) {
+        Node<K, V> node = find(key);
+        return (node == null) ? null : node.value;
+    }
+
+    public boolean containsKey(K key) {
+        return find(key) != null;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Returns unmodifiable list view of the values ordered by keys.
+     * Access by index costs O(log n), iteration costs O(1) per element, nothing is copied.
+     * @return {@code List<V>} list of values
+     */
+    public List<V> values() {
+        return new ValuesView<>(root);
+    }
+
+    //#################################### Tree methods ####################################
+
+    private Node<K, V> find(K key) {
+        if (key == null) return null;
+        Node<K, V> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(key, node.key);
+            if (cmp == 0) return node;
+            node = (cmp < 0) ? node.left : node.right;
+        }
+        return null;
+    }
+
+    private Node<K, V> insert(Node<K, V> node, K key, V value) {
+        if (node == null) return new Node<>(key, value, null, null);
+        int cmp = comparator.compare(key, node.key);
+        if (cmp < 0) return balance(node.key, node.value, insert(node.left, key, value), node.right);
+        if (cmp > 0) return balance(node.key, node.value, node.left, insert(node.right, key, value));
+        return new Node<>(key, value, node.left, node.right);
+    }
+
+    private Node<K, V> delete(Node<K, V> node, K key) {
+        if (node == null) return null;
+        int cmp = comparator.compare(key, node.key);
+        if (cmp < 0) return balance(node.key, node.value, delete(node.left, key), node.right);
+        if (cmp > 0) return balance(node.key, node.value, node.left, delete(node.right, key));
+        if (node.left == null) return node.right;
+        if (node.right == null) return node.left;
+        Node<K, V> min = node.right;
+        while (min.left != null) min = min.left;
+        return balance(min.key, min.value, node.left, delete(node.right, min.key));
+    }
+
+    private static <K, V> Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+        int diff = height(left) - height(right);
+        if (diff > 1) {
+            if (height(left.left) < height(left.right)) left = rotateLeft(left.left, left.key, left.value, left.right);
+            return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+        }
+        if (diff < -1) {
+            if (height(right.right) < height(right.left)) right = rotateRight(right.left, right.key, right.value, right.right);
+            return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+        }
+        return new Node<>(key, value, left, right);
+    }
+
+    private static <K, V> Node<K, V> rotateLeft(Node<K, V> left, K key, V value, Node<K, V> right) {
+        return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+    }
+
+    private static <K, V> Node<K, V> rotateRight(Node<K, V> left, K key, V value, Node<K, V> right) {
+        return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+    }
+
+    private static int height(Node<?, ?> node) {
+        return (node == null) ? 0 : node.height;
+    }
+
+    private static int size(Node<?, ?> node) {
+        return (node == null) ? 0 : node.size;
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final Node<K, V> left;
+        private final Node<K, V> right;
+        private final int height;
+        private final int size;
+
+        private Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+
+    private static final class ValuesView<K, V> extends AbstractList<V> {
+        private final Node<K, V> root;
+
+        private ValuesView(Node<K, V> root) {
+            this.root = root;
+        }
+
+        @Override
+        public V get(int index) {
+            if (index < 0 || index >= PersistentSortedMap.size(root)) throw new IndexOutOfBoundsException("Index: " + index);
+            Node<K, V> node = root;
+            while (true) {
+                int leftSize = PersistentSortedMap.size(node.left);
+                if (index < leftSize) {
+                    node = node.left;
+                } else if (index > leftSize) {
+                    index -= leftSize + 1;
+                    node = node.right;
+                } else {
+                    return node.value;
+                }
+            }
+        }
+
+        @Override
+        public int size() {
+            return PersistentSortedMap.size(root);
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new Iterator<>() {
+                private final Deque<Node<K, V>> stack = new ArrayDeque<>();
+                {
+                    pushLeft(root);
+                }
+
+                private void pushLeft(Node<K, V> node) {
+                    for (; node != null; node = node.left) stack.push(node);
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return !stack.isEmpty();
+                }
+
+                @Override
+                public V next() {
+                    if (stack.isEmpty()) throw new NoSuchElementException();
+                    Node<K, V> node = stack.pop();
+                    pushLeft(node.right);
+                    return node.value;
+                }
+            };
+        }
+    }
+
+}
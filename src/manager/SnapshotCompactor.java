@@ -0,0 +1,169 @@
+package manager;
+
+import exception.ManagerSaveException;
+import task.Task;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background compaction of the journal of a file backed task manager in JOURNAL mode.
+ * <br>The compactor thread checks the journal every check interval. When the active journal file is bigger than
+ * the size threshold or its first record is older than the age threshold, the compactor asks the manager
+ * for a capture: on its next change the manager rotates the journal and copies its records.
+ * The compactor renders the copies to a temporary file, atomically moves it over the CSV snapshot
+ * and drops the rotated journal file. Writers wait only for the rotation and the copying, not for the file writing.
+ * <br>A capture which failed to write is retried after the check interval.
+ */
+public class SnapshotCompactor implements Closeable {
+
+    public static final long DEFAULT_CHECK_INTERVAL_MILLIS = 1000;
+    private static final Capture STOP = new Capture(-1, List.of());    // wakes the compactor thread on close
+
+    private final FileBackedTaskManager taskManager;
+    private final TaskJournal journal;
+    private final long maxLogBytes;
+    private final long maxLogAgeMillis;
+    private final long checkIntervalMillis;
+    private final BlockingQueue<Capture> captures = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean captureRequested;
+    private volatile boolean closed;
+    private volatile long compactions;
+    private volatile long failures;
+
+    public static SnapshotCompactor start(FileBackedTaskManager taskManager, long maxLogBytes, Duration maxLogAge) {
+        return start(taskManager, maxLogBytes, maxLogAge, DEFAULT_CHECK_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Creates the compactor, attaches it to the manager and starts the compactor thread
+     * @param taskManager manager in JOURNAL mode
+     * @param maxLogBytes size of the active journal file to start compaction
+     * @param maxLogAge age of the first record of the active journal file to start compaction
+     * @param checkIntervalMillis how often the thresholds are checked
+     * @return {@code SnapshotCompactor} running compactor
+     */
+    public static SnapshotCompactor start(FileBackedTaskManager taskManager, long maxLogBytes, Duration maxLogAge,
+                                          long checkIntervalMillis) {
+        SnapshotCompactor compactor = new SnapshotCompactor(taskManager, maxLogBytes, maxLogAge, checkIntervalMillis);
+        taskManager.attachCompactor(compactor);
+        compactor.thread.start();
+        return compactor;
+    }
+
+    private SnapshotCompactor(FileBackedTaskManager taskManager, long maxLogBytes, Duration maxLogAge,
+                              long checkIntervalMillis) {
+        if (taskManager == null) throw new IllegalArgumentException("Parameter 'taskManager' cannot be null");
+        if (maxLogAge == null) throw new IllegalArgumentException("Parameter 'maxLogAge' cannot be null");
+        if (taskManager.getJournal() == null) throw new IllegalArgumentException("Compaction needs JOURNAL persistence mode");
+        if (maxLogBytes < 1 || maxLogAge.isNegative() || maxLogAge.isZero() || checkIntervalMillis < 1) {
+            throw new IllegalArgumentException("Thresholds and check interval should be positive");
+        }
+        this.taskManager = taskManager;
+        this.journal = taskManager.getJournal();
+        this.maxLogBytes = maxLogBytes;
+        this.maxLogAgeMillis = maxLogAge.toMillis();
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.thread = new Thread(this::run, "task-snapshot-compactor");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Returns number of snapshots written by the compactor
+     * @return {@code long} number of compactions
+     */
+    public long getCompactions() {
+        return compactions;
+    }
+
+    /**
+     * Returns number of failed snapshot writes
+     * @return {@code long} number of failures
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Asks the manager for a capture on its next change, whatever the thresholds are
+     */
+    public void requestCompaction() {
+        captureRequested = true;
+    }
+
+    boolean isCaptureRequested() {
+        return captureRequested && !closed;
+    }
+
+    /**
+     * Takes the records captured by the manager after rotation of the journal. Called by the writer thread.
+     */
+    void submit(long generation, List<Task> records) {
+        captureRequested = false;
+        captures.add(new Capture(generation, records));
+    }
+
+    private void run() {
+        while (true) {
+            Capture capture;
+            try {
+                capture = captures.poll(checkIntervalMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (capture == STOP) return;
+            if (capture == null) {
+                if (journal.getSize() >= maxLogBytes || journal.getAgeMillis() >= maxLogAgeMillis) {
+                    captureRequested = true;
+                }
+                continue;
+            }
+            while (!write(capture)) {
+                if (closed) return;                                 // the rotated file is replayed by the next load
+                try {
+                    Thread.sleep(checkIntervalMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the snapshot of the capture, the manager drops the rotated journal file of the capture with it
+     * @return {@code boolean} false if writing failed
+     */
+    private boolean write(Capture capture) {
+        try {
+            if (taskManager.writeSnapshot(capture.generation(), capture.records())) compactions++;
+            return true;
+        } catch (ManagerSaveException e) {
+            failures++;
+            return false;
+        }
+    }
+
+    /**
+     * Writes the captures left, stops the compactor thread and detaches the compactor from the manager
+     */
+    @Override
+    public void close() {
+        closed = true;
+        captures.add(STOP);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        taskManager.attachCompactor(null);
+    }
+
+    private record Capture(long generation, List<Task> records) {
+    }
+
+}
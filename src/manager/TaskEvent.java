@@ -0,0 +1,70 @@
+package manager;
+
+import task.Task;
+
+/**
+ * Change of the board sent to event subscribers of the task manager.
+ * <br>Before and after states are detached copies of the record, so they don't change later.
+ */
+public class TaskEvent {
+
+    /**
+     * Kind of change
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        REMOVED
+    }
+
+    private final Type type;
+    private final long version;
+    private final Task before;
+    private final Task after;
+
+    public TaskEvent(Type type, long version, Task before, Task after) {
+        if (type == null) throw new IllegalArgumentException("Parameter 'type' cannot be null");
+        this.type = type;
+        this.version = version;
+        this.before = before;
+        this.after = after;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns number of the change. Versions of events of one manager increase by 1 without gaps.
+     * @return {@code long} version of the board after this change
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns state of the record before the change
+     * @return {@code Task} copy of the record, or {@code null} for CREATED event
+     */
+    public Task getBefore() {
+        return before;
+    }
+
+    /**
+     * Returns state of the record after the change
+     * @return {@code Task} copy of the record, or {@code null} for REMOVED event
+     */
+    public Task getAfter() {
+        return after;
+    }
+
+    public int getTaskId() {
+        return (after != null) ? after.getId() : before.getId();
+    }
+
+    @Override
+    public String toString() {
+        return "TaskEvent #" + version + " " + type + " " + ((after != null) ? after : before);
+    }
+
+}
@@ -0,0 +1,129 @@
+package manager;
+
+import task.Task;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous delivery of task manager changes.
+ * <br>Every subscription has its own bounded ring buffer and dispatcher thread. Publishing never waits:
+ * if the buffer of a slow subscriber is full, the event is dropped for this subscriber and counted.
+ */
+public class TaskEventBus {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private long version;
+
+    /**
+     * Creates a subscription and starts its dispatcher thread
+     * @param listener receiver of events
+     * @param capacity size of the buffer of the subscription
+     * @return {@code Subscription} subscription to close when events are not needed anymore
+     */
+    public Subscription subscribe(TaskEventListener listener, int capacity) {
+        if (listener == null) throw new IllegalArgumentException("Parameter 'listener' cannot be null");
+        if (capacity < 1) throw new IllegalArgumentException("Capacity of subscription cannot be less than 1");
+        Subscription subscription = new Subscription(listener, capacity);
+        subscriptions.add(subscription);
+        subscription.dispatcher.start();
+        return subscription;
+    }
+
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * Numbers the change and puts it to the buffers of all subscribers. Never blocks on slow subscribers.
+     * @param type kind of change
+     * @param before copy of the record before the change
+     * @param after copy of the record after the change
+     * @return {@code long} version of the event
+     */
+    public synchronized long publish(TaskEvent.Type type, Task before, Task after) {
+        TaskEvent event = new TaskEvent(type, ++version, before, after);
+        for (Subscription subscription : subscriptions) subscription.offer(event);
+        return version;
+    }
+
+    /**
+     * Returns version of the last published event
+     * @return {@code long} version, 0 if nothing was published
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Subscription to events with its own buffer and dispatcher thread
+     */
+    public class Subscription implements AutoCloseable {
+
+        private final TaskEventListener listener;
+        private final BlockingQueue<TaskEvent> buffer;
+        private final AtomicLong dropped = new AtomicLong();
+        private final Thread dispatcher;
+        private volatile boolean closed;
+
+        private Subscription(TaskEventListener listener, int capacity) {
+            this.listener = listener;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+            this.dispatcher = new Thread(this::dispatch, "task-events-" + listener.getClass().getSimpleName());
+            this.dispatcher.setDaemon(true);
+        }
+
+        private void offer(TaskEvent event) {
+            if (!closed && !buffer.offer(event)) dropped.incrementAndGet();
+        }
+
+        private void dispatch() {
+            while (!closed) {
+                TaskEvent event;
+                try {
+                    event = buffer.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    listener.onEvent(event);
+                } catch (RuntimeException e) {
+                    // failure of one listener call shouldn't stop delivery of the next events
+                }
+            }
+        }
+
+        /**
+         * Returns number of events dropped because the buffer was full
+         * @return {@code long} number of lost events
+         */
+        public long getDroppedCount() {
+            return dropped.get();
+        }
+
+        /**
+         * Returns number of events waiting for delivery
+         * @return {@code int} size of the buffer
+         */
+        public int getPendingCount() {
+            return buffer.size();
+        }
+
+        /**
+         * Stops delivery. Events left in the buffer are discarded.
+         */
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+            dispatcher.interrupt();
+            buffer.clear();
+        }
+    }
+
+}
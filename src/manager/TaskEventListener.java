@@ -0,0 +1,15 @@
+package manager;
+
+/**
+ * Subscriber of task manager changes
+ */
+@FunctionalInterface
+public interface TaskEventListener {
+
+    /**
+     * Receives the next change. Called by the dispatcher thread of the subscription, events come in order of versions.
+     * @param event change of the board
+     */
+    void onEvent(TaskEvent event);
+
+}
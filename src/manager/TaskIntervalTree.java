@@ -0,0 +1,208 @@
+package manager;
+
+import task.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Augmented interval tree of scheduled tasks (AVL balanced).
+ * <br>Nodes are ordered by start time and ID (like the prioritized set of task manager),
+ * every node keeps the latest end time of its subtree, so overlap search costs O(log n + k).
+ * <br>Tasks without start time are ignored.
+ */
+public class TaskIntervalTree {
+
+    private Node root;
+    private int size;
+
+    /**
+     * Adds the scheduled task to the tree
+     * @param task Task object with start time
+     * @return {@code true} task added, or {@code false} if it has no start time or is already in the tree
+     */
+    public boolean add(Task task) {
+        if (task == null || task.getStartTime() == null) return false;
+        int sizeBefore = size;
+        root = insert(root, task, task.getStartTime(), task.getEndTime());
+        return size > sizeBefore;
+    }
+
+    /**
+     * Removes the task from the tree. Start time of the task should be the same as it was when adding.
+     * @param task Task object to remove
+     * @return {@code true} task removed, or {@code false} if not found
+     */
+    public boolean remove(Task task) {
+        if (task == null || task.getStartTime() == null) return false;
+        int sizeBefore = size;
+        root = delete(root, task.getStartTime(), task.getId());
+        return size < sizeBefore;
+    }
+
+    /**
+     * Returns all the tasks intersecting with the interval, ordered by start time.
+     * Task intersects the interval if it starts before {@code end} and ends after {@code start}.
+     * @param start start of the interval
+     * @param end end of the interval
+     * @return {@code List<Task>} list of intersected tasks
+     */
+    public List<Task> findOverlapping(LocalDateTime start, LocalDateTime end) {
+        List<Task> result = new ArrayList<>();
+        if (start == null || end == null) return result;
+        collectOverlapping(root, start, end, result);
+        return result;
+    }
+
+    /**
+     * Returns all the tasks running within the interval, ordered by start time: tasks starting in
+     * [{@code start}, {@code end}) and tasks started earlier that end after {@code start}.
+     * Unlike {@link #findOverlapping(LocalDateTime, LocalDateTime)}, a task of zero duration starting at
+     * {@code start} is included.
+     * @param start start of the interval
+     * @param end end of the interval (exclusive)
+     * @return {@code List<Task>} list of running tasks
+     */
+    public List<Task> findRunning(LocalDateTime start, LocalDateTime end) {
+        List<Task> result = new ArrayList<>();
+        if (start == null || end == null) return result;
+        collectRunning(root, start, end, result);
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Resets tree to original state
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    private void collectOverlapping(Node node, LocalDateTime start, LocalDateTime end, List<Task> result) {
+        if (node == null || !node.maxEnd.isAfter(start)) return;      // nothing in this subtree ends after start
+        collectOverlapping(node.left, start, end, result);
+        if (!node.start.isBefore(end)) return;                         // this node and right subtree start too late
+        if (node.end.isAfter(start)) result.add(node.task);
+        collectOverlapping(node.right, start, end, result);
+    }
+
+    private void collectRunning(Node node, LocalDateTime start, LocalDateTime end, List<Task> result) {
+        if (node == null || node.maxEnd.isBefore(start)) return;       // everything in this subtree ends before start
+        collectRunning(node.left, start, end, result);
+        if (!node.start.isBefore(end)) return;
+        if (node.end.isAfter(start) || !node.start.isBefore(start)) result.add(node.task);
+        collectRunning(node.right, start, end, result);
+    }
+
+    private Node insert(Node node, Task task, LocalDateTime start, LocalDateTime end) {
+        if (node == null) {
+            size++;
+            return new Node(task, start, end);
+        }
+        int cmp = compare(start, task.getId(), node);
+        if (cmp < 0) node.left = insert(node.left, task, start, end);
+        else if (cmp > 0) node.right = insert(node.right, task, start, end);
+        else return node;                                              // already in the tree
+        return balance(node);
+    }
+
+    private Node delete(Node node, LocalDateTime start, int id) {
+        if (node == null) return null;
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, id);
+        } else {
+            size--;
+            if (node.left == null) return node.right;
+            if (node.right == null) return node.left;
+            Node successor = node.right;
+            while (successor.left != null) successor = successor.left;
+            node.right = detachMin(node.right);
+            successor.left = node.left;
+            successor.right = node.right;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private Node detachMin(Node node) {
+        if (node.left == null) return node.right;
+        node.left = detachMin(node.left);
+        return balance(node);
+    }
+
+    private int compare(LocalDateTime start, int id, Node node) {
+        int cmp = start.compareTo(node.start);
+        return (cmp != 0) ? cmp : Integer.compare(id, node.task.getId());
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) node.left = rotateLeft(node.left);
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) node.right = rotateRight(node.right);
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(Node node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) maxEnd = node.left.maxEnd;
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) maxEnd = node.right.maxEnd;
+        node.maxEnd = maxEnd;
+    }
+
+    private int height(Node node) {
+        return (node == null) ? 0 : node.height;
+    }
+
+    private static class Node {
+        final Task task;
+        final LocalDateTime start;
+        final LocalDateTime end;
+        LocalDateTime maxEnd;
+        int height;
+        Node left;
+        Node right;
+
+        Node(Task task, LocalDateTime start, LocalDateTime end) {
+            this.task = task;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+            this.height = 1;
+        }
+    }
+
+}
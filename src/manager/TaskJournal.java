@@ -0,0 +1,542 @@
+package manager;
+
+import exception.ManagerLoadException;
+import exception.ManagerSaveException;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * Append-only log of changes of the file backed task manager.
+ * <br>Every change is one text line: operation name, comma and payload, e.g. {@code ADD,<CSV line of the task>},
+ * {@code UPDATE,<CSV line>}, {@code REMOVE,<id>}, {@code REMOVE_ALL,<task type>}, {@code CLEAR,}.
+ * Line breaks and backslashes of the payload are escaped ({@code \n}, {@code \r}, {@code \\}), so text of a task
+ * can't break a record. An unfinished last line (the process died while writing it) is ignored by replay
+ * and cut off the file, so the next record starts on a new line.
+ * <br>Records of one batch change are written by {@link #appendAll(Operation, Collection)} as one {@code BATCH} line,
+ * its payload is the escaped lines of the records. Replay applies all of them or none.
+ * <br>Records are written by a background flusher (group commit): all the records appended while the previous
+ * batch was being written go to the file with one write, see {@link DurabilityPolicy}.
+ * With SYNC policy a batch holds more than one line only if several threads append concurrently.
+ * {@link FileBackedTaskManager} is not thread-safe and appends its changes one by one, so it gets one fsync
+ * per change, and one fsync per batch change (addAll, updateAll, removeAll) written by {@link #appendAll}.
+ * The flusher thread stops after a second without records and is started again by the next record.
+ * <br>{@link #rotate(long)} moves the written records to the rotated file ({@code <file>.1}) while a snapshot
+ * covering them is being written, replay reads the rotated file before the active one.
+ */
+public class TaskJournal implements Closeable {
+
+    /**
+     * Logged operation
+     */
+    public enum Operation {
+        ADD,
+        UPDATE,
+        REMOVE,
+        REMOVE_ALL,
+        CLEAR,
+        BATCH                                                       // never passed to a RecordHandler
+    }
+
+    /**
+     * When appended records become durable:
+     * <br>{@code SYNC} — append returns after its batch is written and synced to disk (fsync).
+     * <br>{@code INTERVAL} — append returns at once, records are written and synced every flush interval,
+     * changes of the last interval may be lost by a crash.
+     * <br>{@code OS_BUFFERED} — append returns at once, records are written as soon as possible without fsync,
+     * they survive a crash of the process but not of the OS.
+     */
+    public enum DurabilityPolicy {
+        SYNC,
+        INTERVAL,
+        OS_BUFFERED
+    }
+
+    /**
+     * Receiver of replayed records
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void apply(Operation operation, String payload) throws Exception;
+    }
+
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 100;
+    private static final long FLUSHER_IDLE_MILLIS = 1000;
+
+    private final File file;
+    private final File rotatedFile;
+    private final DurabilityPolicy policy;
+    private final long flushIntervalMillis;
+    private final Object monitor = new Object();
+
+    // guarded by monitor
+    private final StringBuilder pending = new StringBuilder();      // appended records not taken by the flusher
+    private int pendingRecords;
+    private long appended;                                          // number of the last appended record
+    private long written;                                           // number of the last record written to file
+    private boolean flushRequested;
+    private boolean closed;
+    private IOException failure;
+    private Thread flusher;
+    private long flushes;
+    private long flushedRecords;
+    private int maxBatchSize;
+    private long totalFlushNanos;
+    private long maxFlushNanos;
+    private long size;                                              // bytes written to the active file
+    private long firstRecordMillis;                                 // 0 if the active file has no records
+    private long rotatedGeneration;                                 // capture generation of the rotated file
+
+    private FileChannel channel;                                    // used by the flusher, or when nothing is in flight
+
+    public TaskJournal(File file) {
+        this(file, DurabilityPolicy.SYNC, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    public TaskJournal(File file, DurabilityPolicy policy, long flushIntervalMillis) {
+        if (file == null) throw new IllegalArgumentException("Parameter 'file' cannot be null");
+        if (policy == null) throw new IllegalArgumentException("Parameter 'policy' cannot be null");
+        if (flushIntervalMillis < 1) throw new IllegalArgumentException("Flush interval should be positive");
+        this.file = file;
+        this.rotatedFile = new File(file.getPath() + ".1");
+        this.policy = policy;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Returns journal of the data file: the same path with ".log" suffix
+     * @param dataFile CSV snapshot file
+     * @return {@code TaskJournal} journal object with SYNC policy, the file is not opened yet
+     */
+    public static TaskJournal forDataFile(File dataFile) {
+        return forDataFile(dataFile, DurabilityPolicy.SYNC, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Returns journal of the data file: the same path with ".log" suffix
+     * @param dataFile CSV snapshot file
+     * @param policy durability policy
+     * @param flushIntervalMillis flush interval of INTERVAL policy
+     * @return {@code TaskJournal} journal object, the file is not opened yet
+     */
+    public static TaskJournal forDataFile(File dataFile, DurabilityPolicy policy, long flushIntervalMillis) {
+        if (dataFile == null) throw new IllegalArgumentException("Parameter 'dataFile' cannot be null");
+        return new TaskJournal(new File(dataFile.getPath() + ".log"), policy, flushIntervalMillis);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public File getRotatedFile() {
+        return rotatedFile;
+    }
+
+    public DurabilityPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns size of the records written to the active file since it was created, truncated or rotated
+     * @return {@code long} size in bytes
+     */
+    public long getSize() {
+        synchronized (monitor) {
+            return size;
+        }
+    }
+
+    /**
+     * Returns time passed since the first record of the active file was appended
+     * @return {@code long} milliseconds, 0 if there are no records
+     */
+    public long getAgeMillis() {
+        synchronized (monitor) {
+            return (firstRecordMillis == 0) ? 0 : System.currentTimeMillis() - firstRecordMillis;
+        }
+    }
+
+    /**
+     * Appends the record to the journal. With SYNC policy waits until the record is synced to disk.
+     * @param operation logged operation
+     * @param payload CSV line, ID or type
+     * @throws exception.ManagerSaveException if the journal can't be written
+     */
+    public void append(Operation operation, String payload) {
+        synchronized (monitor) {
+            throwIfFailed();
+            pending.append(operation.name()).append(',');
+            escape(pending, payload);
+            pending.append('\n');
+            commitPending(1);
+        }
+    }
+
+    /**
+     * Appends records of one batch change as one line, so the batch is written with one write
+     * (and one fsync with SYNC policy) and a crash never leaves a part of it in the journal.
+     * With SYNC policy waits until the batch is synced to disk.
+     * @param operation logged operation of every record
+     * @param payloads CSV lines or IDs
+     * @throws exception.ManagerSaveException if the journal can't be written
+     */
+    public void appendAll(Operation operation, Collection<String> payloads) {
+        if (payloads.isEmpty()) return;
+        if (payloads.size() == 1) {
+            append(operation, payloads.iterator().next());
+            return;
+        }
+        StringBuilder records = new StringBuilder();
+        for (String payload : payloads) {
+            records.append(operation.name()).append(',');
+            escape(records, payload);
+            records.append('\n');
+        }
+        synchronized (monitor) {
+            throwIfFailed();
+            pending.append(Operation.BATCH.name()).append(',');
+            escape(pending, records.toString());
+            pending.append('\n');
+            commitPending(payloads.size());
+        }
+    }
+
+    /**
+     * Writes all the appended records now and waits for them, whatever the policy is
+     * @throws exception.ManagerSaveException if the journal can't be written
+     */
+    public void flush() {
+        synchronized (monitor) {
+            throwIfFailed();
+            if (written == appended) return;
+            flushRequested = true;
+            monitor.notifyAll();
+            awaitWritten(appended);
+        }
+    }
+
+    /**
+     * Returns statistics of flushes since the journal was created
+     * @return {@code JournalMetrics} current values
+     */
+    public JournalMetrics getMetrics() {
+        synchronized (monitor) {
+            return new JournalMetrics(flushes, flushedRecords, maxBatchSize, totalFlushNanos, maxFlushNanos);
+        }
+    }
+
+    /**
+     * Hands the line just put to the pending buffer to the flusher. With SYNC policy waits until it is written.
+     * Should be called under the monitor.
+     * @param records number of the records in the line
+     */
+    private void commitPending(int records) {
+        pendingRecords += records;
+        long sequence = ++appended;
+        if (firstRecordMillis == 0) firstRecordMillis = System.currentTimeMillis();
+        closed = false;
+        if (flusher == null) startFlusher();
+        monitor.notifyAll();
+        if (policy == DurabilityPolicy.SYNC) awaitWritten(sequence);
+    }
+
+    private void startFlusher() {
+        flusher = new Thread(this::runFlusher, "task-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    private void awaitWritten(long sequence) {
+        boolean interrupted = false;
+        while (written < sequence && failure == null) {
+            try {
+                monitor.wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        if (written < sequence) throwIfFailed();
+    }
+
+    private void throwIfFailed() {
+        if (failure != null) throw new ManagerSaveException("File access error: can't write to " + file.toString());
+    }
+
+    private void runFlusher() {
+        while (true) {
+            String batch;
+            int records;
+            long sequence;
+            synchronized (monitor) {
+                try {
+                    if (!awaitBatch()) return;
+                } catch (InterruptedException e) {
+                    flusher = null;
+                    return;
+                }
+                batch = pending.toString();
+                records = pendingRecords;
+                sequence = appended;
+                pending.setLength(0);
+                pendingRecords = 0;
+                flushRequested = false;
+            }
+            long start = System.nanoTime();
+            IOException error = null;
+            int bytes = 0;
+            try {
+                bytes = write(batch);
+            } catch (IOException e) {
+                error = e;
+            }
+            long nanos = System.nanoTime() - start;
+            synchronized (monitor) {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    written = sequence;
+                    size += bytes;
+                    flushes++;
+                    flushedRecords += records;
+                    maxBatchSize = Math.max(maxBatchSize, records);
+                    totalFlushNanos += nanos;
+                    maxFlushNanos = Math.max(maxFlushNanos, nanos);
+                }
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits for records to write. With INTERVAL policy also waits for the end of the interval.
+     * Should be called by the flusher under the monitor.
+     * @return {@code true} if there are records to write, {@code false} if the flusher should stop
+     */
+    private boolean awaitBatch() throws InterruptedException {
+        long idleSince = System.currentTimeMillis();
+        while (pendingRecords == 0) {
+            long idle = System.currentTimeMillis() - idleSince;
+            if (closed || idle >= FLUSHER_IDLE_MILLIS) {
+                flusher = null;
+                closeChannel();
+                monitor.notifyAll();
+                return false;
+            }
+            monitor.wait(FLUSHER_IDLE_MILLIS - idle);
+        }
+        if (policy == DurabilityPolicy.INTERVAL) {
+            long deadline = System.currentTimeMillis() + flushIntervalMillis;
+            for (long left = flushIntervalMillis; left > 0 && !flushRequested && !closed;
+                 left = deadline - System.currentTimeMillis()) {
+                monitor.wait(left);
+            }
+        }
+        return true;
+    }
+
+    private int write(String batch) throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(batch);
+        while (buffer.hasRemaining()) channel.write(buffer);
+        if (policy != DurabilityPolicy.OS_BUFFERED) channel.force(false);
+        return buffer.limit();
+    }
+
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // records are already written
+        } finally {
+            channel = null;
+        }
+    }
+
+    /**
+     * Reads all the complete records of the journal in order of writing: the rotated file first, then the active one
+     * @param handler receiver of records
+     * @return {@code int} number of replayed records
+     */
+    public int replay(RecordHandler handler) {
+        return replay(rotatedFile, handler) + replay(file, handler);
+    }
+
+    private static int replay(File file, RecordHandler handler) {
+        if (!file.exists()) return 0;
+        byte[] data;
+        try {
+            data = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new ManagerLoadException("IO Error reading file " + file.toString());
+        }
+        int complete = data.length;                                 // length of the complete records
+        while (complete > 0 && data[complete - 1] != '\n') complete--;
+        if (complete < data.length) cutTornTail(file, complete);
+        String content = new String(data, 0, complete, StandardCharsets.UTF_8);
+        int count = 0;
+        int start = 0;
+        for (int end = content.indexOf('\n'); end >= 0; end = content.indexOf('\n', start)) {
+            String line = content.substring(start, end);
+            start = end + 1;
+            if (line.isBlank()) continue;
+            try {
+                count += apply(line, handler);
+            } catch (Exception e) {
+                throw new ManagerLoadException("Incorrect journal record: " + line);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Applies the record, or all the records of a {@code BATCH} line
+     * @return {@code int} number of applied records
+     */
+    private static int apply(String line, RecordHandler handler) throws Exception {
+        int comma = line.indexOf(',');
+        Operation operation = Operation.valueOf((comma < 0) ? line : line.substring(0, comma));
+        String payload = (comma < 0) ? "" : unescape(line.substring(comma + 1));
+        if (operation != Operation.BATCH) {
+            handler.apply(operation, payload);
+            return 1;
+        }
+        int count = 0;
+        for (String record : payload.split("\n")) {
+            if (record.isEmpty()) continue;
+            if (record.startsWith(Operation.BATCH.name() + ",")) throw new IllegalArgumentException("Nested batch");
+            count += apply(record, handler);
+        }
+        return count;
+    }
+
+    /**
+     * Truncates the file after its last complete record, so the next append doesn't continue the torn line
+     */
+    private static void cutTornTail(File file, long length) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+            channel.force(false);
+        } catch (IOException e) {
+            throw new ManagerSaveException("File access error: can't write to " + file.toString());
+        }
+    }
+
+    private static void escape(StringBuilder builder, String payload) {
+        for (int i = 0; i < payload.length(); i++) {
+            char c = payload.charAt(i);
+            switch (c) {
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                default -> builder.append(c);
+            }
+        }
+    }
+
+    private static String unescape(String payload) {
+        if (payload.indexOf('\\') < 0) return payload;
+        StringBuilder builder = new StringBuilder(payload.length());
+        for (int i = 0; i < payload.length(); i++) {
+            char c = payload.charAt(i);
+            if (c != '\\' || i + 1 == payload.length()) {
+                builder.append(c);
+                continue;
+            }
+            char next = payload.charAt(++i);
+            builder.append((next == 'n') ? '\n' : (next == 'r') ? '\r' : next);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes the appended records and removes all the records from both files, e.g. after writing a new snapshot
+     */
+    public void truncate() {
+        synchronized (monitor) {
+            flush();
+            try {                                                   // nothing is in flight: written == appended
+                if (channel != null) {
+                    channel.truncate(0);
+                } else {
+                    new FileOutputStream(file).close();
+                }
+                Files.deleteIfExists(rotatedFile.toPath());
+            } catch (IOException e) {
+                throw new ManagerSaveException("File access error: can't write to " + file.toString());
+            }
+            size = 0;
+            firstRecordMillis = 0;
+        }
+    }
+
+    /**
+     * Writes the appended records and moves them to the rotated file, next records go to a new active file.
+     * The rotated file should be dropped by {@link #dropRotated(long)} when a snapshot covering its records is written.
+     * @param generation capture generation of the snapshot that will cover the rotated records
+     * @return {@code boolean} false if the previous rotated file is not dropped yet, nothing is moved then
+     */
+    public boolean rotate(long generation) {
+        synchronized (monitor) {
+            flush();
+            if (rotatedFile.exists()) return false;
+            closeChannel();                                         // nothing is in flight: written == appended
+            try {
+                if (file.exists()) Files.move(file.toPath(), rotatedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new ManagerSaveException("File access error: can't rotate " + file.toString());
+            }
+            rotatedGeneration = generation;
+            size = 0;
+            firstRecordMillis = 0;
+            return true;
+        }
+    }
+
+    /**
+     * Removes the rotated file after its records were written to a snapshot.
+     * A rotated file of another generation is kept: its snapshot is not written yet.
+     * @param generation capture generation of the written snapshot
+     */
+    public void dropRotated(long generation) {
+        synchronized (monitor) {
+            if (rotatedGeneration != generation) return;
+            try {
+                Files.deleteIfExists(rotatedFile.toPath());
+            } catch (IOException e) {
+                throw new ManagerSaveException("File access error: can't delete " + rotatedFile.toString());
+            }
+        }
+    }
+
+    /**
+     * Writes all the appended records and stops the flusher
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (monitor) {
+            flush();
+            closed = true;
+            monitor.notifyAll();
+            thread = flusher;
+        }
+        if (thread == null) return;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -7,7 +7,12 @@ import task.Epic;
 import task.Subtask;
 import task.Task;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface for task managers.
@@ -45,8 +50,9 @@ public interface TaskManager {
      * Returns a list of all subtasks (Subtask objects) of the specified epic.
      * @param epicId ID of the epic.
      * @return {@code ArrayList<Subtask>} list of existing objects,
+     * @throws TaskNotFoundException if there is no Epic with the specified ID
      */
-    List<Subtask> getEpicSubtasks(int epicId);
+    List<Subtask> getEpicSubtasks(int epicId) throws TaskNotFoundException;
 
     /**
      * Returns a list of all tasks and subtasks ordered by start time
@@ -54,6 +60,85 @@ public interface TaskManager {
      */
     List<Task> getPrioritizedTasks();
 
+    /**
+     * Returns tasks and subtasks scheduled within the time window ordered by start time: tasks starting
+     * in [from, to) and the task started earlier that is still in progress at {@code from}.
+     * @param from start of the window, or {@code null} for no lower bound
+     * @param to end of the window (exclusive), or {@code null} for no upper bound
+     * @return {@code List<Task>} list of existing objects
+     */
+    List<Task> getTasksBetween(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Returns the first page of tasks scheduled within the time window. To get the next page,
+     * call {@link #getTasksAfter(LocalDateTime, int, LocalDateTime, int)} with the start time and ID
+     * of the last returned task.
+     * @param from start of the window, or {@code null} for no lower bound
+     * @param to end of the window (exclusive), or {@code null} for no upper bound
+     * @param limit max size of the page, should be positive
+     * @return {@code List<Task>} list of existing objects
+     */
+    List<Task> getTasksBetween(LocalDateTime from, LocalDateTime to, int limit);
+
+    /**
+     * Returns the next page of tasks scheduled before {@code to}: tasks placed after the cursor in order
+     * of start time and ID. The cursor is exclusive, so no task is returned twice, even a task without duration.
+     * @param afterStart start time of the last task of the previous page
+     * @param afterId ID of the last task of the previous page
+     * @param to end of the window (exclusive), or {@code null} for no upper bound
+     * @param limit max size of the page, should be positive
+     * @return {@code List<Task>} list of existing objects
+     */
+    List<Task> getTasksAfter(LocalDateTime afterStart, int afterId, LocalDateTime to, int limit);
+
+    /**
+     * Finds the earliest time when a task of the given duration can be scheduled without intersections.
+     * @param duration duration of the task, should be positive
+     * @param notBefore the earliest allowed start time
+     * @param notAfter the latest allowed end time, or {@code null} for no limit
+     * @return {@code LocalDateTime} start time of the free slot, or {@code null} if there is no free slot
+     */
+    LocalDateTime findFreeSlot(Duration duration, LocalDateTime notBefore, LocalDateTime notAfter);
+
+    /**
+     * Returns tasks and subtasks running at any moment of the day, including the ones started on previous days,
+     * ordered by start time
+     * @param day date
+     * @return {@code List<Task>} list of existing objects
+     */
+    List<Task> getTasksOfDay(LocalDate day);
+
+    /**
+     * Returns tasks and subtasks of every day of the week (Monday to Sunday) containing the date.
+     * A task running for several days is present in each of its days.
+     * @param day any date of the week
+     * @return {@code Map<LocalDate, List<Task>>} 7 days in order with lists ordered by start time
+     */
+    Map<LocalDate, List<Task>> getTasksOfWeek(LocalDate day);
+
+    /**
+     * Returns number of tasks, epics and subtasks by status and total scheduled time.
+     * Counters are kept by every change, so the call doesn't depend on the board size.
+     * @return {@code BoardSummary} current aggregates
+     */
+    BoardSummary getSummary();
+
+    /**
+     * Finds tasks, epics and subtasks containing all the words of the query in title or description.
+     * Words of titles rank higher. Found records are not added to history.
+     * @param query words to search, case insensitive
+     * @return {@code List<Task>} found objects, the best matches first
+     */
+    List<Task> search(String query);
+
+    /**
+     * Finds records containing all the words of the query, see {@link #search(String)}
+     * @param query words to search, case insensitive
+     * @param limit max number of records to return, should be positive
+     * @return {@code List<Task>} found objects, the best matches first
+     */
+    List<Task> search(String query, int limit);
+
     /**
      * Returns list of last viewed tasks
      * @return {@code List<Task>} list of Task objects
@@ -61,6 +146,42 @@ public interface TaskManager {
     List<Task> getHistory();
 
 
+    //#################################### View methods ####################################
+
+    /**
+     * Returns read-only view of all simple tasks. Nothing is copied, so the view is cheap to iterate or serialize.
+     * A thread-safe manager returns a consistent view that doesn't change after returning.
+     * @return {@code Collection<Task>} unmodifiable view of existing objects
+     */
+    Collection<Task> viewTasks();
+
+    /**
+     * Returns read-only view of all epics
+     * @return {@code Collection<Epic>} unmodifiable view of existing objects
+     */
+    Collection<Epic> viewEpics();
+
+    /**
+     * Returns read-only view of all subtasks
+     * @return {@code Collection<Subtask>} unmodifiable view of existing objects
+     */
+    Collection<Subtask> viewSubtasks();
+
+    /**
+     * Returns read-only view of all subtasks of the specified epic.
+     * @param epicId ID of the epic.
+     * @return {@code Collection<Subtask>} unmodifiable view of existing objects
+     * @throws TaskNotFoundException if there is no Epic with the specified ID
+     */
+    Collection<Subtask> viewEpicSubtasks(int epicId) throws TaskNotFoundException;
+
+    /**
+     * Returns read-only view of all tasks and subtasks ordered by start time
+     * @return {@code Collection<Task>} unmodifiable view of existing objects
+     */
+    Collection<Task> viewPrioritizedTasks();
+
+
     //#################################### Edit methods ####################################
 
     /**
@@ -131,4 +252,30 @@ public interface TaskManager {
     void removeAllEpics();
 
     void clearAllData();
+
+
+    //#################################### Batch methods ####################################
+
+    /**
+     * Adds a list of new tasks, epics and subtasks. The whole list is validated first (including intersections
+     * of the tasks with each other), then applied at once, so either all the tasks are added or none of them.
+     * Subtasks can be linked only to epics existing before the call.
+     * @param tasks list of Task, Epic or Subtask data objects
+     * @return {@code List<Task>} new generated objects in order of the list
+     */
+    List<Task> addAll(List<? extends Task> tasks) throws TaskIntersectionException, WrongTaskArgumentException, TaskNotFoundException;
+
+    /**
+     * Updates a list of existing tasks, epics and subtasks. Either all of them are updated or none.
+     * Data object should have the same type as the existing entry, every ID can appear in the list only once.
+     * @param tasks list of new instances of Task, Epic or Subtask objects
+     * @return {@code List<Task>} updated objects in order of the list
+     */
+    List<Task> updateAll(List<? extends Task> tasks) throws TaskIntersectionException, WrongTaskArgumentException, TaskNotFoundException;
+
+    /**
+     * Removes existing tasks (or Epic / Subtask) by the list of IDs. Either all of them are removed or none.
+     * @param ids IDs of existing objects to remove.
+     */
+    void removeAll(Collection<Integer> ids) throws TaskNotFoundException;
 }
@@ -0,0 +1,111 @@
+package manager;
+
+import task.IdMap;
+import task.Task;
+
+import java.util.*;
+
+/**
+ * Inverted index of words of task titles and descriptions.
+ * <br>Every word keeps a posting map from record ID to its score: a word in the title weighs
+ * {@value #TITLE_WEIGHT}, a word in the description weighs {@value #DESCRIPTION_WEIGHT} per occurrence.
+ * Search intersects the posting maps starting from the rarest word, so its cost depends on the number of
+ * matching records, not on the size of the board.
+ * <br>Words are sequences of letters and digits compared in lower case. Not thread-safe.
+ */
+public class TaskSearchIndex {
+
+    static final int TITLE_WEIGHT = 3;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    private final Map<String, IdMap<Integer>> postings = new HashMap<>();         // word -> record ID -> score
+    private final IdMap<Set<String>> words = new IdMap<>();                       // record ID -> its words
+
+    /**
+     * Indexes the record. Previous words of the record are replaced.
+     * @param task Task, Epic or Subtask object
+     */
+    public void add(Task task) {
+        remove(task.getId());
+        Map<String, Integer> scores = new HashMap<>();
+        for (String word : tokenize(task.getTitle())) scores.merge(word, TITLE_WEIGHT, Integer::sum);
+        for (String word : tokenize(task.getDescription())) scores.merge(word, DESCRIPTION_WEIGHT, Integer::sum);
+        if (scores.isEmpty()) return;
+        for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), word -> new IdMap<>()).put(task.getId(), entry.getValue());
+        }
+        words.put(task.getId(), scores.keySet());
+    }
+
+    /**
+     * Removes all the words of the record from the index
+     * @param id ID of the record
+     */
+    public void remove(int id) {
+        Set<String> recordWords = words.remove(id);
+        if (recordWords == null) return;
+        for (String word : recordWords) {
+            IdMap<Integer> posting = postings.get(word);
+            posting.remove(id);
+            if (posting.isEmpty()) postings.remove(word);
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        words.clear();
+    }
+
+    /**
+     * Returns IDs of records containing all the words of the query, the best matches first.
+     * Records with equal score are ordered by ID.
+     * @param query words to search
+     * @param limit max number of IDs to return
+     * @return {@code List<Integer>} ranked IDs, empty if the query has no words
+     */
+    public List<Integer> search(String query, int limit) {
+        List<IdMap<Integer>> matched = new ArrayList<>();
+        for (String word : new LinkedHashSet<>(tokenize(query))) {
+            IdMap<Integer> posting = postings.get(word);
+            if (posting == null) return List.of();
+            matched.add(posting);
+        }
+        if (matched.isEmpty()) return List.of();
+        matched.sort(Comparator.comparingInt(Map::size));
+
+        List<int[]> found = new ArrayList<>();                                    // pairs of ID and total score
+        for (Map.Entry<Integer, Integer> entry : matched.get(0).entrySet()) {
+            int id = entry.getKey();
+            int score = entry.getValue();
+            for (int i = 1; i < matched.size() && score > 0; i++) {
+                Integer wordScore = matched.get(i).get(id);
+                score = (wordScore == null) ? 0 : score + wordScore;
+            }
+            if (score > 0) found.add(new int[] {id, score});
+        }
+        found.sort((a, b) -> (a[1] != b[1]) ? Integer.compare(b[1], a[1]) : Integer.compare(a[0], b[0]));
+        return found.stream().limit(limit).map(pair -> pair[0]).toList();
+    }
+
+    /**
+     * Splits the text to lower case words of letters and digits
+     * @param text text or null
+     * @return {@code List<String>} words in order of the text
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) return List.of();
+        List<String> result = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                result.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,250 @@
+package task;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Reusable cursor over the fields of one CSV line.
+ * <br>Fields are scanned in place: numbers, enum names and dates of {@link Task#DATE_TIME_FORMATTER} layout
+ * ({@code dd.MM.yyyy HH:mm}) are parsed without creating strings, only text fields are materialized.
+ * A field may be quoted, a quote inside a quoted field is escaped by doubling it ({@code ""}).
+ * Files written before escaping have unescaped quotes in text: if text follows the closing quote, the field is read
+ * the old way, every quote toggles quoted mode and is dropped ({@code "say "hi""} is read as {@code say hi}).
+ * <br>Not thread-safe: use one parser per thread.
+ */
+final class CsvLineParser {
+
+    private static final int DATE_TIME_LENGTH = 16;
+
+    private final StringBuilder unescaped = new StringBuilder();
+    private CharSequence line;
+    private int position;                                           // start of the next field, > length at the end
+    private int start;                                              // bounds of the current field without quotes
+    private int end;
+    private boolean escaped;                                        // the current field has doubled quotes
+    private boolean legacy;                                         // the current field has unescaped quotes
+
+    /**
+     * Starts scanning of the line, the cursor is before the first field
+     * @param line CSV line without line break
+     */
+    void reset(CharSequence line) {
+        this.line = line;
+        this.position = 0;
+        this.start = 0;
+        this.end = 0;
+        this.escaped = false;
+        this.legacy = false;
+    }
+
+    /**
+     * Counts fields of the line without moving the cursor
+     * @return {@code int} number of fields
+     */
+    int countFields() {
+        int savedPosition = position;
+        int savedStart = start;
+        int savedEnd = end;
+        boolean savedEscaped = escaped;
+        boolean savedLegacy = legacy;
+        position = 0;
+        int count = 0;
+        while (next()) count++;
+        position = savedPosition;
+        start = savedStart;
+        end = savedEnd;
+        escaped = savedEscaped;
+        legacy = savedLegacy;
+        return count;
+    }
+
+    /**
+     * Moves the cursor to the next field
+     * @return {@code boolean} false if there are no more fields
+     */
+    boolean next() {
+        int length = line.length();
+        if (position > length) return false;
+        escaped = false;
+        legacy = false;
+        int i = position;
+        if (i < length && line.charAt(i) == '"') {
+            start = ++i;
+            while (i < length) {
+                if (line.charAt(i) == '"') {
+                    if (i + 1 < length && line.charAt(i + 1) == '"') {
+                        escaped = true;
+                        i += 2;
+                        continue;
+                    }
+                    break;
+                }
+                i++;
+            }
+            end = i;
+            if (i < length) i++;                                        // closing quote
+            if (i < length && line.charAt(i) != ',') i = scanLegacy(position, length);
+        } else {
+            start = i;
+            while (i < length && line.charAt(i) != ',') i++;
+            end = i;
+        }
+        position = i + 1;
+        return true;
+    }
+
+    /**
+     * Rescans the field toggling quoted mode on every quote, like lines without escaping were read
+     * @return {@code int} offset of the comma ending the field, or the line length
+     */
+    private int scanLegacy(int from, int length) {
+        boolean quoted = false;
+        int i = from;
+        for (; i < length; i++) {
+            char c = line.charAt(i);
+            if (c == '"') quoted = !quoted;
+            else if (c == ',' && !quoted) break;
+        }
+        start = from;
+        end = i;
+        escaped = false;
+        legacy = true;
+        return i;
+    }
+
+    boolean isBlank() {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(line.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the field as a string, doubled quotes are unescaped, unescaped quotes of old lines are dropped
+     */
+    String text() {
+        if (legacy) {
+            unescaped.setLength(0);
+            for (int i = start; i < end; i++) {
+                if (line.charAt(i) != '"') unescaped.append(line.charAt(i));
+            }
+            return unescaped.toString();
+        }
+        if (!escaped) return line.subSequence(start, end).toString();
+        unescaped.setLength(0);
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            unescaped.append(c);
+            if (c == '"') i++;
+        }
+        return unescaped.toString();
+    }
+
+    /**
+     * Parses the field as {@link Integer#parseInt(String)} does
+     * @throws NumberFormatException if the field isn't an int number
+     */
+    int intValue() {
+        long value = longValue();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) throw numberException();
+        return (int) value;
+    }
+
+    /**
+     * Parses the field as {@link Long#parseLong(String)} does
+     * @throws NumberFormatException if the field isn't a long number
+     */
+    long longValue() {
+        int i = start;
+        if (i == end) throw numberException();
+        boolean negative = false;
+        char first = line.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = (first == '-');
+            if (++i == end) throw numberException();
+        }
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0;                                             // accumulated negatively like Long.parseLong
+        for (; i < end; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9) throw numberException();
+            if (value < (limit + digit) / 10) throw numberException();
+            value = value * 10 - digit;
+        }
+        return negative ? value : -value;
+    }
+
+    /**
+     * Returns the constant of the enum with the same name as the field
+     * @param values all the constants of the enum
+     * @throws IllegalArgumentException if there is no such constant
+     */
+    <E extends Enum<E>> E enumValue(E[] values) {
+        int length = end - start;
+        for (E value : values) {
+            String name = value.name();
+            if (name.length() == length && regionEquals(name)) return value;
+        }
+        throw new IllegalArgumentException("No enum constant " + line.subSequence(start, end));
+    }
+
+    /**
+     * Parses the field of {@code dd.MM.yyyy HH:mm} layout. An invalid day of month up to 31 is changed
+     * to the last day of the month and {@code 24:00} is read as 00:00 of the next day,
+     * like {@link Task#DATE_TIME_FORMATTER} does.
+     * @throws DateTimeException if the field doesn't match the layout or the date is invalid
+     */
+    LocalDateTime dateTimeValue() {
+        if (end - start != DATE_TIME_LENGTH || line.charAt(start + 2) != '.' || line.charAt(start + 5) != '.'
+                || line.charAt(start + 10) != ' ' || line.charAt(start + 13) != ':') {
+            throw dateTimeException();
+        }
+        int day = digits(start, 2);
+        int month = digits(start + 3, 2);
+        int year = digits(start + 6, 4);
+        int hour = digits(start + 11, 2);
+        int minute = digits(start + 14, 2);
+        if (month >= 1 && month <= 12 && day >= 1 && day <= 31) {
+            day = Math.min(day, Month.of(month).length(Year.isLeap(year)));
+        }
+        if (hour == 24 && minute == 0) return LocalDateTime.of(year, month, day, 0, 0).plusDays(1);
+        return LocalDateTime.of(year, month, day, hour, minute);
+    }
+
+    /**
+     * Parses the field as duration in seconds
+     * @throws NumberFormatException if the field isn't a long number
+     */
+    Duration durationValue() {
+        return Duration.ofSeconds(longValue());
+    }
+
+    private int digits(int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9) throw dateTimeException();
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private boolean regionEquals(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (line.charAt(start + i) != text.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private NumberFormatException numberException() {
+        return new NumberFormatException("For input string: \"" + line.subSequence(start, end) + "\"");
+    }
+
+    private DateTimeException dateTimeException() {
+        return new DateTimeException("Text '" + line.subSequence(start, end) + "' could not be parsed");
+    }
+
+}
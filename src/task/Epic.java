@@ -2,15 +2,18 @@ package task;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Epic task class. Extends Task class. Has subtasks of Subtask type.
  */
 public class Epic extends Task {
 
-    private final LinkedHashMap<Integer, Subtask> subtasks = new LinkedHashMap<>();
+    private final IdMap<Subtask> subtasks = new IdMap<>();
+    private final int[] statusCounters = new int[TaskStatus.values().length];         // subtasks count by status
+    private final TreeMap<LocalDateTime, Integer> startTimes = new TreeMap<>();        // multiset of subtasks start times
+    private final TreeMap<LocalDateTime, Integer> endTimes = new TreeMap<>();          // multiset of subtasks end times
     private LocalDateTime endTime;
 
     public Epic(int id, String title, String description) {
@@ -26,36 +29,56 @@ public class Epic extends Task {
     }
 
     /**
-     * Calculates status of this Epic basing on subtasks statuses.
+     * Calculates status of this Epic basing on subtasks status counters. O(1)
      */
     void calculateStatus() {
-        boolean isNew = true;
-        boolean isDone = true;
-        for (Subtask subtask : subtasks.values()) {
-            if (subtask.getStatus() != TaskStatus.NEW) isNew = false;
-            if (subtask.getStatus() != TaskStatus.DONE) isDone = false;
-        }
-        if (isNew) status = TaskStatus.NEW;
-        else if (isDone) status = TaskStatus.DONE;
+        int total = subtasks.size();
+        if (statusCounters[TaskStatus.NEW.ordinal()] == total) status = TaskStatus.NEW;
+        else if (statusCounters[TaskStatus.DONE.ordinal()] == total) status = TaskStatus.DONE;
         else status = TaskStatus.IN_PROGRESS;
     }
 
     /**
-     * Calculates startTime, endTime, duration for this Epic basing on subtasks info
+     * Calculates startTime, endTime, duration for this Epic basing on subtasks start / end times. O(log k)
      */
     void calculateTime() {
-        LocalDateTime firstTime = null;
-        LocalDateTime lastTime = null;
-        for (Subtask subtask : subtasks.values()) {
-            if (subtask.getStartTime() != null && (firstTime == null || subtask.getStartTime().isBefore(firstTime))) firstTime = subtask.getStartTime();
-            if (subtask.getEndTime() != null && (lastTime == null || subtask.getEndTime().isAfter(lastTime))) lastTime = subtask.getEndTime();
-        }
+        LocalDateTime firstTime = startTimes.isEmpty() ? null : startTimes.firstKey();
+        LocalDateTime lastTime = endTimes.isEmpty() ? null : endTimes.lastKey();
         startTime = firstTime;
         endTime = lastTime;
         if (firstTime != null && lastTime != null) duration = Duration.between(firstTime, lastTime);
         else duration = null;
     }
 
+    /**
+     * Adds status and timing of the linked subtask to the counters of this Epic and recalculates the Epic.
+     * @param subtask linked Subtask object
+     */
+    void addToRollup(Subtask subtask) {
+        if (subtask.getStatus() != null) statusCounters[subtask.getStatus().ordinal()]++;
+        if (subtask.getStartTime() != null) {
+            startTimes.merge(subtask.getStartTime(), 1, Integer::sum);
+            endTimes.merge(subtask.getEndTime(), 1, Integer::sum);
+        }
+        calculateStatus();
+        calculateTime();
+    }
+
+    /**
+     * Removes status and timing of the linked subtask from the counters of this Epic and recalculates the Epic.
+     * Should be called before changing the subtask.
+     * @param subtask linked Subtask object
+     */
+    void removeFromRollup(Subtask subtask) {
+        if (subtask.getStatus() != null) statusCounters[subtask.getStatus().ordinal()]--;
+        if (subtask.getStartTime() != null) {
+            startTimes.computeIfPresent(subtask.getStartTime(), (time, count) -> (count > 1) ? count - 1 : null);
+            endTimes.computeIfPresent(subtask.getEndTime(), (time, count) -> (count > 1) ? count - 1 : null);
+        }
+        calculateStatus();
+        calculateTime();
+    }
+
     /**
      * Makes references between this Epic and its Subtask
      * @param subtask Subtask object to link
@@ -66,8 +89,7 @@ public class Epic extends Task {
         if (subtasks.containsKey(subtask.getId()))  return false;
         subtasks.put(subtask.getId(), subtask);
         subtask.setEpic(this);
-        calculateStatus();
-        calculateTime();
+        addToRollup(subtask);
         return true;
     }
 
@@ -79,10 +101,9 @@ public class Epic extends Task {
     public boolean unlinkSubtask(int id) {
         Subtask subtask = subtasks.get(id);
         if (subtask == null) return false;
-        subtask.setEpic(null);
         subtasks.remove(id);
-        calculateStatus();
-        calculateTime();
+        removeFromRollup(subtask);
+        subtask.setEpic(null);
         return true;
     }
 
@@ -95,11 +116,23 @@ public class Epic extends Task {
         if (task == null || task.getClass() != this.getClass()) return false;
         this.title = task.title;
         this.description = task.description;
-        calculateStatus();
-        calculateTime();
         return true;
     }
 
+    /**
+     * Returns a detached copy of this Epic with the same ID, data and calculated status and timing, without subtasks
+     * @return {@code Epic} new object
+     */
+    @Override
+    public Epic copy() {
+        Epic epic = new Epic(id, title, description);
+        epic.status = status;
+        epic.startTime = startTime;
+        epic.duration = duration;
+        epic.endTime = endTime;
+        return epic;
+    }
+
     /**
      * Represents the Epic as a string to write to CSV file.
      */
@@ -108,7 +141,7 @@ public class Epic extends Task {
         StringBuilder builder = new StringBuilder();
         builder.append("\"").append(id).append("\",");
         builder.append("\"").append(TaskType.EPIC.toString()).append("\",");
-        builder.append("\"").append(title).append("\",");
+        appendQuoted(builder, title).append(",");
         builder.append("\"");
         if (status != null) {
             builder.append(status.toString());
@@ -116,7 +149,7 @@ public class Epic extends Task {
             builder.append("NEW");
         }
         builder.append("\",");
-        builder.append("\"").append(description).append("\",");
+        appendQuoted(builder, description).append(",");
         builder.append("\"");
         if (startTime != null)  builder.append(startTime.format(DATE_TIME_FORMATTER));
         builder.append("\",");
@@ -0,0 +1,94 @@
+package task;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe allocator of task IDs.
+ * <br>By default every ID is taken from one atomic counter (CAS, no locks). In block leasing mode every thread
+ * reserves a range of {@code blockSize} IDs at once and hands them out without touching shared state,
+ * so writer threads contend only once per block. Ranges are taken from the shared {@link IdBlockSource},
+ * e.g. a persisted high-water mark shared by several processes, or from the local counter if there is no source.
+ * <br>IDs are unique but in leasing mode they are not sequential: threads use their own ranges,
+ * unused rest of a range is skipped.
+ */
+public class IdAllocator {
+
+    private final AtomicInteger highWaterMark = new AtomicInteger();    // the greatest issued or reserved ID
+    private final AtomicInteger generation = new AtomicInteger();       // changed by reset, invalidates leases
+    private final int blockSize;
+    private final IdBlockSource source;
+    private final ThreadLocal<Lease> lease = ThreadLocal.withInitial(Lease::new);
+
+    /**
+     * Creates an allocator giving IDs one by one from the atomic counter
+     */
+    public IdAllocator() {
+        this(1, null);
+    }
+
+    /**
+     * Creates a block leasing allocator
+     * @param blockSize number of IDs reserved by a thread at once, 1 disables leasing
+     * @param source shared source of ranges, or {@code null} to lease from the local counter
+     */
+    public IdAllocator(int blockSize, IdBlockSource source) {
+        if (blockSize < 1) throw new IllegalArgumentException("Block size cannot be less than 1");
+        this.blockSize = blockSize;
+        this.source = source;
+    }
+
+    /**
+     * Returns a new unique ID
+     * @return {@code int} ID > 0
+     */
+    public int next() {
+        if (blockSize == 1 && source == null) return highWaterMark.incrementAndGet();
+        Lease current = lease.get();
+        int currentGeneration = generation.get();
+        if (current.next >= current.end || current.generation != currentGeneration) {
+            int first = (source != null) ? source.lease(blockSize) : highWaterMark.getAndAdd(blockSize) + 1;
+            highWaterMark.accumulateAndGet(first + blockSize - 1, Math::max);
+            current.next = first;
+            current.end = first + blockSize;
+            current.generation = currentGeneration;
+        }
+        return current.next++;
+    }
+
+    /**
+     * Marks all the IDs up to the given one as used, e.g. after loading records from file
+     * @param id the greatest used ID
+     */
+    public void reserveUpTo(int id) {
+        highWaterMark.accumulateAndGet(id, Math::max);
+        if (source != null) source.raiseTo(id);
+    }
+
+    /**
+     * Returns the greatest ID issued or reserved by this allocator
+     * @return {@code int} high-water mark, 0 if nothing was issued
+     */
+    public int getHighWaterMark() {
+        return highWaterMark.get();
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Starts numbering from 1 again and drops the leased ranges. The shared source is not reset:
+     * other allocators may still use its IDs.
+     */
+    public void reset() {
+        generation.incrementAndGet();
+        highWaterMark.set(0);
+    }
+
+    private static class Lease {
+        private int next;
+        private int end;
+        private int generation = -1;
+    }
+
+}
@@ -0,0 +1,22 @@
+package task;
+
+/**
+ * Shared source of ID ranges for block leasing allocators, see {@link IdAllocator}.
+ * <br>Implementations should be safe for all the allocators sharing them (threads or processes).
+ */
+public interface IdBlockSource {
+
+    /**
+     * Reserves the next range of IDs and moves the high-water mark to its end
+     * @param size number of IDs to reserve
+     * @return {@code int} first ID of the reserved range [first, first + size)
+     */
+    int lease(int size);
+
+    /**
+     * Moves the high-water mark up to the ID if it's lower, so the ID will never be leased
+     * @param id used ID, e.g. loaded from file
+     */
+    void raiseTo(int id);
+
+}
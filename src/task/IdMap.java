@@ -0,0 +1,350 @@
+package task;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Insertion ordered map of objects by int ID (open addressing, no boxing on primitive methods).
+ * <br>Entries are stored in dense arrays in order of insertion, a separate int table keeps positions of entries
+ * and is searched by linear probing. Replacing a value keeps its position, like in LinkedHashMap.
+ * <br>Null values are not allowed. Not thread-safe.
+ * @param <V> type of values
+ */
+public class IdMap<V> extends AbstractMap<Integer, V> {
+
+    private static final int MIN_CAPACITY = 8;
+    private static final int FREE = 0;                 // table slot was never used
+    private static final int DELETED = -1;             // table slot of a removed entry
+
+    private int[] table;                               // entry position + 1, FREE or DELETED
+    private int[] keys;
+    private Object[] values;                           // null value marks a removed entry
+    private int used;                                  // entries used including removed ones, table slots used <= used
+    private int size;
+    private int modCount;
+
+    public IdMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public IdMap(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Expected size cannot be negative");
+        allocate(Math.max(MIN_CAPACITY, expectedSize));
+    }
+
+    //#################################### Primitive methods ####################################
+
+    /**
+     * Returns the value of the ID
+     * @param id ID of the value
+     * @return {@code V} value or null if not found
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int id) {
+        int entry = findEntry(id);
+        return (entry < 0) ? null : (V) values[entry];
+    }
+
+    public boolean containsKey(int id) {
+        return findEntry(id) >= 0;
+    }
+
+    /**
+     * Puts the value with the ID. Existing value of the ID is replaced and keeps its position.
+     * @param id ID of the value
+     * @param value value, shouldn't be null
+     * @return {@code V} previous value or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int id, V value) {
+        if (value == null) throw new IllegalArgumentException("Parameter 'value' cannot be null");
+        int entry = findEntry(id);
+        if (entry >= 0) {
+            V old = (V) values[entry];
+            values[entry] = value;
+            return old;
+        }
+        if (used == keys.length) resize();
+        keys[used] = id;
+        values[used] = value;
+        used++;
+        insertSlot(id, used);
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Removes the value of the ID
+     * @param id ID of the value
+     * @return {@code V} removed value or null if not found
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int id) {
+        int mask = table.length - 1;
+        for (int slot = hash(id) & mask; table[slot] != FREE; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (entry >= 0 && keys[entry] == id) {
+                V old = (V) values[entry];
+                table[slot] = DELETED;
+                removeEntry(entry);
+                return old;
+            }
+        }
+        return null;
+    }
+
+    //#################################### Map methods ####################################
+
+    @Override
+    public V get(Object key) {
+        return (key instanceof Integer id) ? get(id.intValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return (key instanceof Integer id) && containsKey(id.intValue());
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        if (key == null) throw new IllegalArgumentException("Parameter 'key' cannot be null");
+        return put(key.intValue(), value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return (key instanceof Integer id) ? remove(id.intValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0 && used == 0) return;
+        Arrays.fill(table, FREE);
+        Arrays.fill(values, 0, used, null);
+        used = 0;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new EntryIterator<>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    V element(int entry) {
+                        return (V) values[entry];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                IdMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Set<Integer> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                return new EntryIterator<>() {
+                    @Override
+                    Integer element(int entry) {
+                        return keys[entry];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public void clear() {
+                IdMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<Integer, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Integer, V>> iterator() {
+                return new EntryIterator<>() {
+                    @Override
+                    Entry<Integer, V> element(int entry) {
+                        return new IdEntry(entry);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                IdMap.this.clear();
+            }
+        };
+    }
+
+    //#################################### Table methods ####################################
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        table = new int[Integer.highestOneBit(capacity * 2 - 1) * 2];         // load factor of the table <= 0.5
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int findEntry(int id) {
+        int mask = table.length - 1;
+        for (int slot = hash(id) & mask; table[slot] != FREE; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (entry >= 0 && keys[entry] == id) return entry;
+        }
+        return -1;
+    }
+
+    private void insertSlot(int id, int position) {
+        int mask = table.length - 1;
+        int slot = hash(id) & mask;
+        while (table[slot] > 0) slot = (slot + 1) & mask;
+        table[slot] = position;
+    }
+
+    private void removeEntry(int entry) {
+        values[entry] = null;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Compacts the removed entries out, grows the arrays if needed and rebuilds the table
+     */
+    private void resize() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        int oldUsed = used;
+        allocate(Math.max(MIN_CAPACITY, (size < oldKeys.length / 2) ? oldKeys.length : oldKeys.length * 2));
+        used = 0;
+        for (int i = 0; i < oldUsed; i++) {
+            if (oldValues[i] == null) continue;
+            keys[used] = oldKeys[i];
+            values[used] = oldValues[i];
+            used++;
+            insertSlot(oldKeys[i], used);
+        }
+    }
+
+    private abstract class EntryIterator<E> implements Iterator<E> {
+        private int next = skipRemoved(0);
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        abstract E element(int entry);
+
+        private int skipRemoved(int entry) {
+            while (entry < used && values[entry] == null) entry++;
+            return entry;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < used;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (next >= used) throw new NoSuchElementException();
+            last = next;
+            next = skipRemoved(next + 1);
+            return element(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) throw new IllegalStateException();
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            IdMap.this.remove(keys[last]);
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private class IdEntry implements Entry<Integer, V> {
+        private final int entry;
+
+        private IdEntry(int entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Integer getKey() {
+            return keys[entry];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return (V) values[entry];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V setValue(V value) {
+            if (value == null) throw new IllegalArgumentException("Parameter 'value' cannot be null");
+            V old = (V) values[entry];
+            values[entry] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return (o instanceof Entry<?, ?> e) && getKey().equals(e.getKey()) && getValue().equals(e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ getValue().hashCode();
+        }
+    }
+
+}
@@ -50,14 +50,36 @@ public class Subtask extends Task {
      */
     @Override
     public boolean update(Task task) {
+        if (epic != null) epic.removeFromRollup(this);
         super.update(task);
-        if (epic != null) {
-            epic.calculateStatus();
-            epic.calculateTime();
-        }
+        if (epic != null) epic.addToRollup(this);
         return true;
     }
 
+    /**
+     * Returns a detached copy of this subtask with the same ID and data, not linked to the Epic object.
+     * The copy keeps ID of the linked Epic in its epicId field.
+     * @return {@code Subtask} new object
+     */
+    @Override
+    public Subtask copy() {
+        return new Subtask(id, (epic != null) ? epic.getId() : epicId, title, description, status, startTime, duration);
+    }
+
+    @Override
+    public void setTiming(LocalDateTime startTime, Duration duration) {
+        if (epic != null) epic.removeFromRollup(this);
+        super.setTiming(startTime, duration);
+        if (epic != null) epic.addToRollup(this);
+    }
+
+    @Override
+    public void setTiming(LocalDateTime startTime, LocalDateTime endTime) {
+        if (epic != null) epic.removeFromRollup(this);
+        super.setTiming(startTime, endTime);
+        if (epic != null) epic.addToRollup(this);
+    }
+
     /**
      * Represents the Subtask as a string to write to CSV file.
      */
@@ -66,7 +88,7 @@ public class Subtask extends Task {
         StringBuilder builder = new StringBuilder();
         builder.append("\"").append(id).append("\",");
         builder.append("\"").append(TaskType.SUBTASK.toString()).append("\",");
-        builder.append("\"").append(title).append("\",");
+        appendQuoted(builder, title).append(",");
         builder.append("\"");
         if (status != null) {
             builder.append(status.toString());
@@ -74,7 +96,7 @@ public class Subtask extends Task {
             builder.append("NEW");
         }
         builder.append("\",");
-        builder.append("\"").append(description).append("\",");
+        appendQuoted(builder, description).append(",");
         builder.append("\"");
         if (startTime != null)  builder.append(startTime.format(DATE_TIME_FORMATTER));
         builder.append("\",");
@@ -83,6 +105,7 @@ public class Subtask extends Task {
         builder.append("\",");
         builder.append("\"");
         if (epic != null)  builder.append(epic.getId());
+        else if (epicId > 0)  builder.append(epicId);                  // copy of a linked subtask
         builder.append("\"");
         return builder.toString();
     }
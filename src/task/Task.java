@@ -91,6 +91,28 @@ public class Task {
         return true;
     }
 
+    /**
+     * Returns a detached copy of this task with the same ID and data
+     * @return {@code Task} new object
+     */
+    public Task copy() {
+        return new Task(id, title, description, status, startTime, duration);
+    }
+
+    /**
+     * Appends the text as a quoted CSV field, quotes inside the text are doubled
+     * @return {@code StringBuilder} the same builder
+     */
+    protected static StringBuilder appendQuoted(StringBuilder builder, String text) {
+        builder.append('"');
+        for (int i = 0; text != null && i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') builder.append('"');
+            builder.append(c);
+        }
+        return builder.append('"');
+    }
+
     /**
      * Represents the task as a string to write to CSV file.
      */
@@ -98,7 +120,7 @@ public class Task {
         StringBuilder builder = new StringBuilder();
         builder.append("\"").append(id).append("\",");
         builder.append("\"").append(TaskType.TASK).append("\",");
-        builder.append("\"").append(title).append("\",");
+        appendQuoted(builder, title).append(",");
         builder.append("\"");
         if (status != null) {
             builder.append(status.toString());
@@ -106,7 +128,7 @@ public class Task {
             builder.append("NEW");
         }
         builder.append("\",");
-        builder.append("\"").append(description).append("\",");
+        appendQuoted(builder, description).append(",");
         builder.append("\"");
         if (startTime != null)  builder.append(startTime.format(DATE_TIME_FORMATTER));
         builder.append("\",");
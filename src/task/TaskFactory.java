@@ -5,16 +5,28 @@ import exception.WrongCSVLineException;
 import java.time.DateTimeException;
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Factory class. Creates new objects of Task, Subtask, Epic types.
- * <br>Sequentially sets IDs for all new objects.
+ * <br>Sets IDs for all new objects using thread-safe {@link IdAllocator}: sequential by default,
+ * or leased by blocks if the factory is created with a leasing allocator.
  */
 public class TaskFactory {
 
-    private int taskCounter = 0;
+    private static final ThreadLocal<CsvLineParser> PARSER = ThreadLocal.withInitial(CsvLineParser::new);
+    private static final TaskType[] TASK_TYPES = TaskType.values();
+    private static final TaskStatus[] TASK_STATUSES = TaskStatus.values();
+
+    private final IdAllocator idAllocator;
+
+    public TaskFactory() {
+        this(new IdAllocator());
+    }
+
+    public TaskFactory(IdAllocator idAllocator) {
+        if (idAllocator == null) throw new IllegalArgumentException("Parameter 'idAllocator' cannot be null");
+        this.idAllocator = idAllocator;
+    }
 
     /**
      * New simple task generator. Returns new simple Task object (not Subtask / Epic)
@@ -22,8 +34,7 @@ public class TaskFactory {
      */
     public Task newTask(Task task) {
         if (task == null) return null;
-        taskCounter++;
-        return new Task(taskCounter, task.getTitle(), task.getDescription(), task.getStatus(), task.getStartTime(), task.getDuration());
+        return new Task(idAllocator.next(), task.getTitle(), task.getDescription(), task.getStatus(), task.getStartTime(), task.getDuration());
     }
 
     /**
@@ -32,8 +43,7 @@ public class TaskFactory {
      */
     public Epic newEpic(Epic epic) {
         if (epic == null) return null;
-        taskCounter++;
-        return new Epic(taskCounter, epic.getTitle(), epic.getDescription());
+        return new Epic(idAllocator.next(), epic.getTitle(), epic.getDescription());
     }
 
 
@@ -43,46 +53,50 @@ public class TaskFactory {
      */
     public Subtask newSubtask(Subtask subtask) {
         if (subtask == null) return null;
-        taskCounter++;
-        return new Subtask(taskCounter, 0, subtask.getTitle(), subtask.getDescription(), subtask.getStatus(), subtask.getStartTime(), subtask.getDuration());
+        return new Subtask(idAllocator.next(), 0, subtask.getTitle(), subtask.getDescription(), subtask.getStatus(), subtask.getStartTime(), subtask.getDuration());
     }
 
+    /**
+     * Parses the record from CSV line keeping its ID. IDs counter isn't changed, after loading all the records
+     * call {@link #reserveUpTo(int)} with the greatest loaded ID.
+     * <br>The line is scanned in place by a parser reused by the calling thread, so only the record,
+     * its title and description are created.
+     * @param line CSV line
+     * @return {@code Task} Task, Epic or Subtask object
+     * @throws WrongCSVLineException if the line can't be parsed
+     */
     public Task fromCSVLine(String line) throws WrongCSVLineException {
-        List<String> values = new ArrayList<>();
-        boolean readMode = false;
-        StringBuilder curValue = new StringBuilder();
-        for (char c : line.toCharArray()) {
-            if (c == '"') {
-                readMode = !readMode;
-            } else if (c == ',' && !readMode) {
-                values.add(curValue.toString());
-                curValue.setLength(0);
-            } else {
-                curValue.append(c);
-            }
-        }
-        values.add(curValue.toString());
-
-        if (values.size() < 7)  throw new WrongCSVLineException("Incorrect CSV line (size<7): " + line);
+        CsvLineParser parser = PARSER.get();
+        parser.reset(line);
+        int size = parser.countFields();
+        if (size < 7)  throw new WrongCSVLineException("Incorrect CSV line (size<7): " + line);
         int id;
         Task res;
         try {
-            id = Integer.parseInt(values.get(0));                    // throws NumberFormatException (extends IllegalArgumentException)
+            parser.next();
+            id = parser.intValue();                                  // throws NumberFormatException (extends IllegalArgumentException)
             if (id < 1)  throw new WrongCSVLineException("ID field should be > 0, but = " + id);
-            TaskType type = TaskType.valueOf(values.get(1));             // throws IllegalArgumentException
-            String title = values.get(2);
-            TaskStatus status = TaskStatus.valueOf(values.get(3));       // throws IllegalArgumentException
-            String description = values.get(4);
-            LocalDateTime startTime = (values.get(5).isBlank()) ? null
-                     : LocalDateTime.parse(values.get(5), Task.DATE_TIME_FORMATTER);  // throws DateTimeParseException
-            Duration duration = (values.get(6).isBlank()) ? null
-                     : Duration.ofSeconds(Long.parseLong(values.get(6)));   // throws NumberFormatException
+            parser.next();
+            TaskType type = parser.enumValue(TASK_TYPES);                 // throws IllegalArgumentException
+            parser.next();
+            String title = parser.text();
+            parser.next();
+            TaskStatus status = parser.enumValue(TASK_STATUSES);         // throws IllegalArgumentException
+            parser.next();
+            String description = parser.text();
+            parser.next();
+            LocalDateTime startTime = (parser.isBlank()) ? null
+                     : parser.dateTimeValue();                           // throws DateTimeException
+            parser.next();
+            Duration duration = (parser.isBlank()) ? null
+                     : parser.durationValue();                           // throws NumberFormatException
 
             if (type == TaskType.EPIC) {
                 res = new Epic(id, title, description);
             } else if (type == TaskType.SUBTASK) {
-                if (values.size() < 8)  throw new WrongCSVLineException("CSV line should have 8 elements to be deserialized to SUBTASK");
-                int epicId = Integer.parseInt(values.get(7));            // throws NumberFormatException
+                if (size < 8)  throw new WrongCSVLineException("CSV line should have 8 elements to be deserialized to SUBTASK");
+                parser.next();
+                int epicId = parser.intValue();                          // throws NumberFormatException
                 if (epicId < 1)  throw new WrongCSVLineException("EPIC ID field should be > 0, but = " + id);
                 res = new Subtask(id, epicId, title, description, status, startTime, duration);
             } else {
@@ -92,15 +106,22 @@ public class TaskFactory {
         } catch (IllegalArgumentException | DateTimeException e) {
             throw new WrongCSVLineException("Incorrect CSV line: " + line);
         }
-        if (id > taskCounter)  taskCounter = id;
         return res;
     }
 
+    /**
+     * Marks IDs up to the given one as used, so new objects get greater IDs. Usable after loading from file
+     * @param id the greatest loaded ID
+     */
+    public void reserveUpTo(int id) {
+        idAllocator.reserveUpTo(id);
+    }
+
     /**
      * Resets counter. Usable before loading from file
      */
     public void clear() {
-        taskCounter = 0;
+        idAllocator.reset();
     }
 
 
@@ -1,12 +1,14 @@
 package http;
 
 import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
 import exception.TaskIntersectionException;
 import exception.TaskNotFoundException;
 import exception.WrongTaskArgumentException;
 import http.deserialiazer.EpicListTypeToken;
 import http.deserialiazer.SubtaskListTypeToken;
 import http.deserialiazer.TaskListTypeToken;
+import manager.ConcurrentTaskManager;
 import manager.InMemoryHistoryManager;
 import manager.Managers;
 import manager.TaskManager;
@@ -48,12 +50,20 @@ class ApiTest {
         taskServer.start();
     }
 
+    @Test
+    void severalThreadsNeedThreadSafeManager() {
+        assertThrows(IllegalArgumentException.class, () -> new HttpTaskServer(taskManager, 8081, 0, 4));
+        assertDoesNotThrow(() -> new HttpTaskServer(new ConcurrentTaskManager(new TaskFactory(), new InMemoryHistoryManager()),
+                8081, 0, 4));
+        assertDoesNotThrow(() -> new HttpTaskServer(taskManager, 8081, 0, 1));
+    }
+
     /**
      * Test of List-based endpoints:
      * GET /tasks     * GET /epics     * GET /subtasks     * GET /epics/id/subtasks
      */
     @Test
-    void getTasksEpicsSubtasksEpicSubtasks() throws IOException, InterruptedException {
+    void getTasksEpicsSubtasksEpicSubtasks() throws IOException, InterruptedException, TaskNotFoundException {
         HttpClient client = HttpClient.newHttpClient();
         HttpResponse.BodyHandler<String> handler = HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8);
         HttpRequest request;
@@ -94,6 +104,14 @@ class ApiTest {
             assertEquals(epicSubtasksList.get(i).getId(), receivedEpicSubtasksList.get(i).getId());
             assertEquals(epicSubtasksList.get(i).getTitle(), receivedEpicSubtasksList.get(i).getTitle());
         }
+        String[] wrongIds = {"0", "1", "3", "100", "a"};
+        int[] wrongCodes = {404, 404, 404, 404, 400};
+        for (int i = 0; i < wrongIds.length; i++) {
+            request = HttpRequest.newBuilder().GET().header("Accept", "application/json")
+                    .uri(URI.create("http://localhost:8080/epics/" + wrongIds[i] + "/subtasks")).build();
+            response = client.send(request, handler);
+            assertEquals(wrongCodes[i], response.statusCode());
+        }
 
         // testing endpoint: GET /subtasks
         request = HttpRequest.newBuilder().GET()
@@ -497,6 +515,157 @@ class ApiTest {
             assertEquals(taskList.get(i).getDuration(), receivedList.get(i).getDuration());
         }
 
+        // testing endpoint: GET /prioritized?from=&to=&limit=
+        request = HttpRequest.newBuilder().GET()
+                .uri(URI.create("http://localhost:8080/prioritized?from=10.01.2025%2013:00&to=10.01.2025%2018:00"))
+                .header("Accept", "application/json").build();
+        response = client.send(request, handler);
+        assertEquals(200, response.statusCode());
+        receivedList = gson.fromJson(response.body(), new TaskListTypeToken().getType());
+        assertEquals(List.of(1, 3), receivedList.stream().map(Task::getId).toList());
+
+        request = HttpRequest.newBuilder().GET()
+                .uri(URI.create("http://localhost:8080/prioritized?from=10.01.2025%2014:00&limit=1"))
+                .header("Accept", "application/json").build();
+        response = client.send(request, handler);
+        assertEquals(200, response.statusCode());
+        receivedList = gson.fromJson(response.body(), new TaskListTypeToken().getType());
+        assertEquals(List.of(3), receivedList.stream().map(Task::getId).toList());
+
+        Task last = receivedList.getLast();
+        request = HttpRequest.newBuilder().GET()
+                .uri(URI.create("http://localhost:8080/prioritized?from="
+                        + last.getStartTime().format(Task.DATE_TIME_FORMATTER).replace(" ", "%20") + "&afterId=3&limit=10"))
+                .header("Accept", "application/json").build();
+        response = client.send(request, handler);
+        assertEquals(200, response.statusCode());
+        receivedList = gson.fromJson(response.body(), new TaskListTypeToken().getType());
+        assertEquals(taskManager.getTasksAfter(last.getStartTime(), 3, null, 10).stream().map(Task::getId).toList(),
+                receivedList.stream().map(Task::getId).toList());
+        assertFalse(receivedList.stream().anyMatch(t -> t.getId() == 3));
+
+        // testing endpoint: GET /prioritized/free-slots
+        request = HttpRequest.newBuilder().GET()
+                .uri(URI.create("http://localhost:8080/prioritized/free-slots?duration=7200&from=10.01.2025%2012:00"))
+                .header("Accept", "application/json").build();
+        response = client.send(request, handler);
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"startTime\":\"10.01.2025 20:00\",\"endTime\":\"10.01.2025 22:00\"}", response.body());
+
+        request = HttpRequest.newBuilder().GET()
+                .uri(URI.create("http://localhost:8080/prioritized/free-slots?duration=7200&from=10.01.2025%2012:00&to=10.01.2025%2021:00"))
+                .header("Accept", "application/json").build();
+        response = client.send(request, handler);
+        assertEquals(404, response.statusCode());
+
+        for (String query : List.of("from=2025-01-10", "limit=0", "limit=a", "afterId=3", "from=10.01.2025%2014:00&afterId=a")) {
+            request = HttpRequest.newBuilder().GET()
+                    .uri(URI.create("http://localhost:8080/prioritized?" + query)).header("Accept", "application/json").build();
+            response = client.send(request, handler);
+            assertEquals(400, response.statusCode());
+        }
+        for (String query : List.of("duration=60", "duration=a&from=10.01.2025%2012:00", "duration=60&from=a")) {
+            request = HttpRequest.newBuilder().GET()
+                    .uri(URI.create("http://localhost:8080/prioritized/free-slots?" + query)).header("Accept", "application/json").build();
+            response = client.send(request, handler);
+            assertEquals(400, response.statusCode());
+        }
+
+        client.close();
+    }
+
+    /**
+     * Test of search endpoint:
+     * GET /search
+     */
+    @Test
+    void search() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse.BodyHandler<String> handler = HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8);
+
+        HttpRequest request = HttpRequest.newBuilder().GET()
+                .uri(URI.create("http://localhost:8080/search?q=S4")).header("Accept", "application/json").build();
+        HttpResponse<String> response = client.send(request, handler);
+        assertEquals(200, response.statusCode());
+        List<Task> receivedList = gson.fromJson(response.body(), new TaskListTypeToken().getType());
+        assertEquals(List.of(4), receivedList.stream().map(Task::getId).toList());
+        assertTrue(taskManager.getHistory().isEmpty());
+
+        request = HttpRequest.newBuilder().GET()
+                .uri(URI.create("http://localhost:8080/search?q=t1%20t5")).header("Accept", "application/json").build();
+        response = client.send(request, handler);
+        assertEquals(200, response.statusCode());
+        assertEquals("[]", response.body());
+
+        // encoded '&' and '=' are parts of the value, not separators of parameters
+        request = HttpRequest.newBuilder().GET()
+                .uri(URI.create("http://localhost:8080/search?q=S4%26limit%3D0")).header("Accept", "application/json").build();
+        response = client.send(request, handler);
+        assertEquals(200, response.statusCode());
+
+        for (String query : List.of("", "q=", "q=t1&limit=0", "q=t1&limit=a")) {
+            request = HttpRequest.newBuilder().GET()
+                    .uri(URI.create("http://localhost:8080/search?" + query)).header("Accept", "application/json").build();
+            response = client.send(request, handler);
+            assertEquals(400, response.statusCode());
+        }
+
+        client.close();
+    }
+
+    /**
+     * Test of calendar endpoints:
+     * GET /calendar/day     * GET /calendar/week
+     */
+    @Test
+    void calendar() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse.BodyHandler<String> handler = HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8);
+
+        HttpRequest request = HttpRequest.newBuilder().GET()
+                .uri(URI.create("http://localhost:8080/calendar/day?date=10.01.2025")).header("Accept", "application/json").build();
+        HttpResponse<String> response = client.send(request, handler);
+        assertEquals(200, response.statusCode());
+        List<Task> receivedList = gson.fromJson(response.body(), new TaskListTypeToken().getType());
+        assertEquals(List.of(1, 3, 4), receivedList.stream().map(Task::getId).toList());
+
+        request = HttpRequest.newBuilder().GET()
+                .uri(URI.create("http://localhost:8080/calendar/week?date=12.01.2025")).header("Accept", "application/json").build();
+        response = client.send(request, handler);
+        assertEquals(200, response.statusCode());
+        Map<String, List<Task>> week = gson.fromJson(response.body(), new TypeToken<Map<String, List<Task>>>() {}.getType());
+        assertEquals(7, week.size());
+        assertEquals(3, week.get("10.01.2025").size());
+        assertTrue(week.get("06.01.2025").isEmpty());
+
+        for (String uri : List.of("calendar/day?date=2025-01-10", "calendar/month", "calendar")) {
+            request = HttpRequest.newBuilder().GET()
+                    .uri(URI.create("http://localhost:8080/" + uri)).header("Accept", "application/json").build();
+            response = client.send(request, handler);
+            assertEquals(400, response.statusCode());
+        }
+
+        client.close();
+    }
+
+    /**
+     * Test of summary endpoint:
+     * GET /summary
+     */
+    @Test
+    void summary() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse.BodyHandler<String> handler = HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8);
+
+        HttpRequest request = HttpRequest.newBuilder().GET()
+                .uri(URI.create("http://localhost:8080/summary")).header("Accept", "application/json").build();
+        HttpResponse<String> response = client.send(request, handler);
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"tasks\":{\"NEW\":2,\"IN_PROGRESS\":0,\"DONE\":0},"
+                + "\"epics\":{\"NEW\":2,\"IN_PROGRESS\":0,\"DONE\":0},"
+                + "\"subtasks\":{\"NEW\":3,\"IN_PROGRESS\":0,\"DONE\":0},"
+                + "\"scheduled\":3,\"scheduledTime\":\"21600\"}", response.body());
+
         client.close();
     }
 
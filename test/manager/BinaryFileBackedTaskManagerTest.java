@@ -0,0 +1,78 @@
+package manager;
+
+import exception.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import task.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class BinaryFileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+
+    protected BinaryFileBackedTaskManagerTest() throws IOException {
+        super(FileBackedTaskManager.loadFromFile(File.createTempFile("tmanb", ".tmp"),
+                FileBackedTaskManager.PersistenceMode.SNAPSHOT, FileBackedTaskManager.StorageFormat.BINARY));
+    }
+
+    @Test
+    void recordsAreSavedAndLoaded() throws IOException, WrongTaskArgumentException, TaskIntersectionException,
+            TaskNotFoundException {
+        File file = File.createTempFile("tmanb1", ".bin");
+        LocalDateTime base = LocalDateTime.of(1969, 12, 31, 23, 30);
+        FileBackedTaskManager tm = FileBackedTaskManager.loadFromFile(file,
+                FileBackedTaskManager.PersistenceMode.SNAPSHOT, FileBackedTaskManager.StorageFormat.BINARY);
+        Task t1 = tm.add(new Task(0, "Задача, \"quoted\"", "多行\ndescription", TaskStatus.IN_PROGRESS, base,
+                Duration.ofMinutes(90)));
+        Epic e2 = tm.add(new Epic(0, "e2", ""));
+        Subtask s3 = tm.add(new Subtask(0, e2.getId(), "s3", "", TaskStatus.DONE, base.plusHours(2), Duration.ofHours(1)));
+        tm.add(new Task(0, "t4", "", TaskStatus.NEW, null, null));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file,
+                FileBackedTaskManager.PersistenceMode.SNAPSHOT, FileBackedTaskManager.StorageFormat.BINARY);
+        Task t1Loaded = loaded.getTaskById(t1.getId());
+        assertEquals(t1.getTitle(), t1Loaded.getTitle());
+        assertEquals(t1.getDescription(), t1Loaded.getDescription());
+        assertEquals(base, t1Loaded.getStartTime());
+        assertEquals(Duration.ofMinutes(90), t1Loaded.getDuration());
+        assertEquals(TaskStatus.IN_PROGRESS, t1Loaded.getStatus());
+        assertEquals(e2.getId(), ((Subtask) loaded.getTaskById(s3.getId())).getEpic().getId());
+        assertEquals(TaskStatus.DONE, loaded.getTaskById(e2.getId()).getStatus());
+        assertNull(loaded.getTaskById(4).getStartTime());
+        assertEquals(List.of(t1.getId(), s3.getId()), loaded.getPrioritizedTasks().stream().map(Task::getId).toList());
+        assertEquals(5, loaded.add(new Task(0, "t5", "", TaskStatus.NEW, null, null)).getId());
+    }
+
+    @Test
+    void csvIsConverted() throws IOException, TaskNotFoundException {
+        File file = File.createTempFile("tmanb2", ".bin");
+        FileBackedTaskManager.convert(new File("testfile.csv"), FileBackedTaskManager.StorageFormat.CSV,
+                file, FileBackedTaskManager.StorageFormat.BINARY);
+        assertTrue(Files.size(file.toPath()) < Files.size(new File("testfile.csv").toPath()));
+
+        TaskManager tMan = Managers.createNewFromFile(new TaskFactory(), new InMemoryHistoryManager(), file,
+                FileBackedTaskManager.PersistenceMode.SNAPSHOT, FileBackedTaskManager.StorageFormat.BINARY);
+        assertEquals("Task", tMan.getTaskById(1).getTitle());
+        assertEquals(LocalDateTime.of(2025, 2, 3, 14, 25), tMan.getTaskById(1).getStartTime());
+        assertEquals("Epic", ((Subtask) tMan.getTaskById(3)).getEpic().getTitle());
+    }
+
+    @Test
+    void loadException() throws IOException {
+        File file = File.createTempFile("tmanb3", ".bin");
+        Files.write(file.toPath(), new byte[]{'T', 'M', 'B', 1, 0, 5, 0});
+        assertThrows(ManagerLoadException.class, () -> FileBackedTaskManager.loadFromFile(file,
+                FileBackedTaskManager.PersistenceMode.SNAPSHOT, FileBackedTaskManager.StorageFormat.BINARY));
+        Files.writeString(file.toPath(), "\"id\",\"type\"");
+        assertThrows(ManagerLoadException.class, () -> FileBackedTaskManager.loadFromFile(file,
+                FileBackedTaskManager.PersistenceMode.SNAPSHOT, FileBackedTaskManager.StorageFormat.BINARY));
+    }
+
+}
@@ -0,0 +1,136 @@
+package manager;
+
+import exception.TaskIntersectionException;
+import exception.TaskNotFoundException;
+import exception.WrongTaskArgumentException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import task.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class ConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+
+    protected ConcurrentTaskManagerTest() {
+        super(new ConcurrentTaskManager(new TaskFactory(), new InMemoryHistoryManager(10)));
+    }
+
+    @Test
+    void parallelWritesAndReads() throws WrongTaskArgumentException, InterruptedException, ExecutionException {
+        int threads = 8;
+        int tasksPerThread = 500;
+        Epic epic = taskManager.add(new Epic(0, "e", ""));
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        AtomicInteger intersections = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < tasksPerThread; i++) {
+                    LocalDateTime start = base.plusHours(i);          // every slot is requested by all the threads
+                    try {
+                        if (thread % 2 == 0) {
+                            taskManager.add(new Task(0, "t", "", TaskStatus.NEW, start, Duration.ofMinutes(30)));
+                        } else {
+                            taskManager.add(new Subtask(0, epic.getId(), "s", "", TaskStatus.NEW, start, Duration.ofMinutes(30)));
+                        }
+                    } catch (TaskIntersectionException e) {
+                        intersections.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < tasksPerThread; i++) {
+                    taskManager.getPrioritizedTasks();
+                    taskManager.getSubTasks();
+                    try {
+                        taskManager.getTaskById(i + 1);
+                    } catch (TaskNotFoundException e) {
+                        // not added yet
+                    }
+                    taskManager.getHistory();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) future.get();
+        executor.shutdown();
+
+        List<Task> prioritized = taskManager.getPrioritizedTasks();
+        assertEquals(tasksPerThread, prioritized.size());
+        assertEquals(tasksPerThread * (threads - 1), intersections.get());
+        assertEquals(tasksPerThread, taskManager.getTasks().size() + taskManager.getSubTasks().size());
+        assertEquals(epic.getSubtasks().size(), taskManager.getSubTasks().size());
+        for (int i = 1; i < prioritized.size(); i++) {
+            assertFalse(prioritized.get(i).getStartTime().isBefore(prioritized.get(i - 1).getEndTime()));
+        }
+    }
+
+    @Test
+    void subtaskWriteDoesNotCopySiblings() throws WrongTaskArgumentException, TaskIntersectionException,
+            TaskNotFoundException {
+        Epic epic = taskManager.add(new Epic(0, "e1", ""));
+        List<Subtask> batch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) batch.add(new Subtask(0, epic.getId(), "s" + i, "", TaskStatus.NEW, null, null));
+        taskManager.addAll(batch);
+        BoardSnapshot before = taskManager.getSnapshot();
+
+        Subtask done = taskManager.add(new Subtask(0, epic.getId(), "done", "", TaskStatus.DONE, null, null));
+        BoardSnapshot after = taskManager.getSnapshot();
+        List<Subtask> subtasksBefore = before.getEpicSubtasks(epic.getId());
+        List<Subtask> subtasksAfter = after.getEpicSubtasks(epic.getId());
+        assertEquals(1000, subtasksBefore.size());
+        assertEquals(1001, subtasksAfter.size());
+        for (int i = 0; i < subtasksBefore.size(); i++) assertSame(subtasksBefore.get(i), subtasksAfter.get(i));
+        assertEquals(done.getId(), subtasksAfter.getLast().getId());
+        assertEquals(TaskStatus.NEW, before.getEpic(epic.getId()).getStatus());
+        assertEquals(TaskStatus.IN_PROGRESS, after.getEpic(epic.getId()).getStatus());
+        assertEquals(subtasksAfter, List.copyOf(taskManager.viewEpicSubtasks(epic.getId())));
+        assertThrows(TaskNotFoundException.class, () -> taskManager.viewEpicSubtasks(done.getId()));
+    }
+
+    @Test
+    void snapshotIsNotChangedByLaterWrites() throws WrongTaskArgumentException, TaskIntersectionException, TaskNotFoundException {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Task task = taskManager.add(new Task(0, "t1", "", TaskStatus.NEW, base, Duration.ofHours(1)));
+        Epic epic = taskManager.add(new Epic(0, "e1", ""));
+        Subtask subtask = taskManager.add(new Subtask(0, epic.getId(), "s1", "", TaskStatus.NEW,
+                base.plusHours(2), Duration.ofHours(1)));
+        BoardSnapshot before = taskManager.getSnapshot();
+
+        taskManager.update(new Task(task.getId(), "t1", "", TaskStatus.NEW, base.plusHours(5), Duration.ofHours(1)));
+        taskManager.removeById(subtask.getId());
+        taskManager.add(new Task(0, "t2", "", TaskStatus.NEW, null, null));
+        BoardSnapshot after = taskManager.getSnapshot();
+
+        assertEquals(List.of(task, subtask), before.getPrioritizedTasks());
+        assertEquals(List.of(subtask), before.getSubtasks());
+        assertEquals(1, before.getTasks().size());
+        assertEquals(List.of(task), after.getPrioritizedTasks());
+        assertTrue(after.getSubtasks().isEmpty());
+        assertEquals(2, after.getTasks().size());
+        assertEquals(before.getVersion() + 3, after.getVersion());
+        assertEquals(base, before.getPrioritizedTasks().getFirst().getStartTime());
+        assertEquals(base.plusHours(5), after.getPrioritizedTasks().getFirst().getStartTime());
+        assertEquals(base.plusHours(2), before.getEpics().getFirst().getStartTime());
+        assertEquals(List.of(subtask), before.getEpicSubtasks(epic.getId()));
+        assertTrue(after.getEpicSubtasks(epic.getId()).isEmpty());
+        assertNull(after.getEpics().getFirst().getStartTime());
+        assertNotSame(task, after.getTasks().getFirst());
+
+        taskManager.removeAllEpics();
+        assertTrue(taskManager.getSnapshot().getEpics().isEmpty());
+        assertEquals(List.of(epic), after.getEpics());
+    }
+
+}
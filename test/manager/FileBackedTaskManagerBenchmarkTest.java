@@ -0,0 +1,113 @@
+package manager;
+
+import exception.TaskIntersectionException;
+import exception.TaskNotFoundException;
+import exception.WrongCSVLineException;
+import exception.WrongTaskArgumentException;
+import org.junit.jupiter.api.Test;
+import task.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rough performance checks of the data file formats. Timings are printed, assertions are kept loose.
+ */
+class FileBackedTaskManagerBenchmarkTest {
+
+    private static final int RUNS = 3;
+    private static final int BOARD_SIZE = 100_000;
+
+    @Test
+    void binaryFormatIsFasterThanCsv() throws IOException, WrongTaskArgumentException, TaskIntersectionException,
+            TaskNotFoundException, WrongCSVLineException {
+        File csv = createBoard();
+        File binary = File.createTempFile("tmanbench", ".bin");
+        binary.deleteOnExit();
+        FileBackedTaskManager.convert(csv, FileBackedTaskManager.StorageFormat.CSV,
+                binary, FileBackedTaskManager.StorageFormat.BINARY);
+        List<String> lines = Files.readAllLines(csv.toPath());
+        byte[] data = Files.readAllBytes(binary.toPath());
+        TaskFactory taskFactory = new TaskFactory();
+
+        long csvDecode = Long.MAX_VALUE;
+        long binaryDecode = Long.MAX_VALUE;
+        long csvEncode = Long.MAX_VALUE;
+        long binaryEncode = Long.MAX_VALUE;
+        long csvLoad = Long.MAX_VALUE;
+        long binaryLoad = Long.MAX_VALUE;
+        List<Task> records = new ArrayList<>();
+        for (int run = 0; run < RUNS; run++) {
+            records.clear();
+            long start = System.nanoTime();
+            for (int i = 1; i < lines.size(); i++) records.add(taskFactory.fromCSVLine(lines.get(i)));
+            csvDecode = Math.min(csvDecode, System.nanoTime() - start);
+            records.clear();
+            start = System.nanoTime();
+            for (BinaryTaskFormat.Reader reader = BinaryTaskFormat.reader(data); reader.hasNext(); ) {
+                records.add(reader.next());
+            }
+            binaryDecode = Math.min(binaryDecode, System.nanoTime() - start);
+            assertEquals(BOARD_SIZE, records.size());
+
+            StringBuilder builder = new StringBuilder();
+            start = System.nanoTime();
+            for (Task task : records) builder.append(task.toCSVLine()).append('\n');
+            byte[] encoded = builder.toString().getBytes(StandardCharsets.UTF_8);
+            csvEncode = Math.min(csvEncode, System.nanoTime() - start);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length);
+            start = System.nanoTime();
+            BinaryTaskFormat.write(out, records);
+            binaryEncode = Math.min(binaryEncode, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            FileBackedTaskManager.loadFromFile(csv);
+            csvLoad = Math.min(csvLoad, System.nanoTime() - start);
+            start = System.nanoTime();
+            FileBackedTaskManager.loadFromFile(binary, FileBackedTaskManager.PersistenceMode.SNAPSHOT,
+                    FileBackedTaskManager.StorageFormat.BINARY);
+            binaryLoad = Math.min(binaryLoad, System.nanoTime() - start);
+        }
+        System.out.println("======================== data file format benchmark ========================");
+        System.out.println("board of " + BOARD_SIZE + " tasks, CSV:    " + Files.size(csv.toPath()) / 1024 + " KB, decode "
+                + csvDecode / 1_000_000 + " ms, encode " + csvEncode / 1_000_000 + " ms, manager load "
+                + csvLoad / 1_000_000 + " ms");
+        System.out.println("board of " + BOARD_SIZE + " tasks, BINARY: " + data.length / 1024 + " KB, decode "
+                + binaryDecode / 1_000_000 + " ms, encode " + binaryEncode / 1_000_000 + " ms, manager load "
+                + binaryLoad / 1_000_000 + " ms");
+        assertTrue(data.length < Files.size(csv.toPath()), "binary file should be smaller");
+    }
+
+    /**
+     * Writes a CSV file of scheduled tasks through a journal without fsync
+     */
+    private File createBoard() throws IOException, WrongTaskArgumentException, TaskIntersectionException,
+            TaskNotFoundException {
+        File file = File.createTempFile("tmanbench", ".csv");
+        file.deleteOnExit();
+        TaskJournal journal = TaskJournal.forDataFile(file, TaskJournal.DurabilityPolicy.OS_BUFFERED,
+                TaskJournal.DEFAULT_FLUSH_INTERVAL_MILLIS);
+        journal.getFile().deleteOnExit();
+        FileBackedTaskManager tm = new FileBackedTaskManager(new TaskFactory(), new InMemoryHistoryManager(10), file, journal);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<Task> board = new ArrayList<>();
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            board.add(new Task(0, "task " + i, "description of task " + i, TaskStatus.NEW, base.plusHours(i),
+                    Duration.ofMinutes(30)));
+        }
+        tm.addAll(board);
+        tm.compact();
+        journal.close();
+        return file;
+    }
+
+}
@@ -9,12 +9,16 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestInstance(TestInstance.Lifecycle.PER_METHOD)
 class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
@@ -30,6 +34,8 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
         assertEquals("Epic", tMan.getTaskById(2).getTitle());
         assertEquals("Subtask", tMan.getTaskById(3).getTitle());
         assertEquals("Epic", ((Subtask) tMan.getTaskById(3)).getEpic().getTitle()  );
+        Epic epic = (Epic) tMan.getTaskById(2);
+        assertEquals(1, tMan.getSummary().getEpics().get(epic.getStatus()));
     }
 
     @Test
@@ -203,6 +209,89 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
         tm2.getPrioritizedTasks().forEach(System.out::println);
     }
 
+    @Test
+    void batchIsSaved() throws IOException, TaskIntersectionException, WrongTaskArgumentException, TaskNotFoundException {
+        File file = File.createTempFile("tman5", ".tmp");
+        FileBackedTaskManager tm = FileBackedTaskManager.loadFromFile(file);
+        Epic e1 = tm.add(new Epic(0, "e1", ""));
+        tm.addAll(List.of(
+                new Task(0, "t1", "", TaskStatus.NEW, LocalDateTime.of(2025, 1, 1, 9, 0), Duration.ofHours(1)),
+                new Subtask(0, e1.getId(), "s1", "", TaskStatus.NEW, LocalDateTime.of(2025, 1, 1, 10, 0), Duration.ofHours(1))));
+        tm.updateAll(List.of(new Task(2, "t1 updated", "", TaskStatus.DONE, null, null)));
+        tm.removeAll(List.of(3));
+
+        FileBackedTaskManager tm2 = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(2, tm2.getAllRecords().size());
+        assertEquals("t1 updated", tm2.getTaskById(2).getTitle());
+        assertTrue(tm2.getSubTasks().isEmpty());
+        assertTrue(tm2.getPrioritizedTasks().isEmpty());
+    }
+
+    @Test
+    void parallelReadFromCSV() throws IOException, TaskNotFoundException, WrongTaskArgumentException {
+        File file = File.createTempFile("tman5", ".csv");
+        file.deleteOnExit();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        int epics = 10_000;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("\"id\",\"type\",\"title\",\"status\",\"description\",\"starttime\",\"duration\",\"epic\"\n");
+            for (int k = 0; k < epics; k++) {
+                Epic epic = new Epic(3 * k + 1, "e" + k, "");
+                Subtask subtask = new Subtask(3 * k + 2, epic.getId(), "s" + k, "", TaskStatus.DONE, base.plusHours(k),
+                        Duration.ofMinutes(30));
+                epic.linkSubtask(subtask);
+                writer.write(subtask.toCSVLine() + "\n");                  // subtask before its epic
+                writer.write(epic.toCSVLine() + "\r\n");
+                writer.write(new Task(3 * k + 3, "t" + k, "a, b", TaskStatus.NEW, null, null).toCSVLine() + "\n\n");
+            }
+        }
+        FileBackedTaskManager tMan = new FileBackedTaskManager(new TaskFactory(), new InMemoryHistoryManager(), file);
+        tMan.setLoadPool(ForkJoinPool.commonPool());
+        tMan.load();
+
+        assertEquals(epics, tMan.getTasks().size());
+        assertEquals(epics, tMan.getSubTasks().size());
+        assertEquals(epics, tMan.getSummary().getEpics().get(TaskStatus.DONE));
+        assertEquals("a, b", tMan.getTaskById(3).getDescription());
+        assertEquals(1, ((Subtask) tMan.getTaskById(2)).getEpic().getId());
+        assertEquals(FileBackedTaskManager.loadFromFile(file).getPrioritizedTasks().stream().map(Task::getId).toList(),
+                tMan.getPrioritizedTasks().stream().map(Task::getId).toList());
+        assertEquals(3 * epics + 1, tMan.add(new Epic(0, "new", "")).getId());
+    }
+
+    @Test
+    void bothLoadPathsReadUtf8() throws IOException, TaskNotFoundException {
+        File file = File.createTempFile("tman7", ".csv");
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), "\"id\",\"type\",\"title\",\"status\",\"description\",\"starttime\",\"duration\",\"epic\"\n"
+                + new Task(1, "задача", "описание", TaskStatus.NEW, null, null).toCSVLine() + "\n", StandardCharsets.UTF_8);
+        FileBackedTaskManager parallel = new FileBackedTaskManager(new TaskFactory(), new InMemoryHistoryManager(), file);
+        parallel.setLoadPool(ForkJoinPool.commonPool());
+        parallel.load();
+
+        assertEquals("задача", FileBackedTaskManager.loadFromFile(file).getTaskById(1).getTitle());
+        assertEquals("описание", parallel.getTaskById(1).getDescription());
+    }
+
+    @Test
+    void parallelLoadException() throws IOException {
+        File file = File.createTempFile("tman6", ".csv");
+        file.deleteOnExit();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("\"id\",\"type\",\"title\",\"status\",\"description\",\"starttime\",\"duration\",\"epic\"\n");
+            for (int i = 1; i <= 20_000; i++) {
+                writer.write((i % 7_000 == 0) ? "\"" + i + "\",\"TASK\",\"broken\"\n"
+                        : new Task(i, "t" + i, "", TaskStatus.NEW, null, null).toCSVLine() + "\n");
+            }
+        }
+        ManagerLoadException sequential = assertThrows(ManagerLoadException.class,
+                () -> FileBackedTaskManager.loadFromFile(file));
+        FileBackedTaskManager tMan = new FileBackedTaskManager(new TaskFactory(), new InMemoryHistoryManager(), file);
+        ManagerLoadException parallel = assertThrows(ManagerLoadException.class,
+                () -> tMan.readFromCSV(ForkJoinPool.commonPool()));
+        assertEquals(sequential.getMessage(), parallel.getMessage());
+    }
+
     @Test
     void loadException() throws IOException {
         File file = File.createTempFile("tman3", ".tmp");
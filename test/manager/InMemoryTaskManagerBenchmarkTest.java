@@ -0,0 +1,132 @@
+package manager;
+
+import exception.TaskIntersectionException;
+import exception.TaskNotFoundException;
+import exception.WrongTaskArgumentException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import task.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Manual performance checks of the task manager: timings are printed, not asserted.
+ * Run with {@code -Dbenchmark=true}.
+ */
+class InMemoryTaskManagerBenchmarkTest {
+
+    private static final int RUNS = 5;
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void epicSubtasksDoNotDependOnBoardSize() throws TaskNotFoundException, WrongTaskArgumentException, TaskIntersectionException {
+        measureEpicSubtasks(1_000);                                // warm up
+        long smallBoard = measureEpicSubtasks(1_000);
+        long largeBoard = measureEpicSubtasks(200_000);
+        System.out.println("======================== getEpicSubtasks() benchmark ========================");
+        System.out.println("board of 1000 subtasks:   " + smallBoard + " ns per call");
+        System.out.println("board of 200000 subtasks: " + largeBoard + " ns per call");
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void removeAllSubtasksDoesNotTouchPlainTasks() throws WrongTaskArgumentException, TaskIntersectionException, TaskNotFoundException {
+        measureRemoveAllSubtasks(1_000);                           // warm up
+        long smallBoard = measureRemoveAllSubtasks(1_000);
+        long largeBoard = measureRemoveAllSubtasks(200_000);
+        System.out.println("======================== removeAllSubtasks() benchmark ========================");
+        System.out.println("board of 1000 tasks and 10 subtasks:   " + smallBoard + " ns per call");
+        System.out.println("board of 200000 tasks and 10 subtasks: " + largeBoard + " ns per call");
+    }
+
+    /**
+     * Creates a board of scheduled plain tasks, then measures removing of 10 scheduled subtasks.
+     * @return {@code long} best time of one call in nanoseconds
+     */
+    private long measureRemoveAllSubtasks(int boardSize) throws WrongTaskArgumentException, TaskIntersectionException, TaskNotFoundException {
+        TaskManager tm = new InMemoryTaskManager(new TaskFactory(), new InMemoryHistoryManager(10));
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < boardSize; i++) {
+            tm.add(new Task(0, "t", "", TaskStatus.NEW, base.plusHours(i), Duration.ofMinutes(30)));
+        }
+        Epic epic = tm.add(new Epic(0, "e", ""));
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS * 20; run++) {
+            for (int j = 0; j < 10; j++) {
+                tm.add(new Subtask(0, epic.getId(), "s", "", TaskStatus.NEW, base.plusHours(j).plusMinutes(30), Duration.ofMinutes(30)));
+            }
+            long start = System.nanoTime();
+            tm.removeAllSubtasks();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        assertEquals(boardSize, tm.getPrioritizedTasks().size());
+        return best;
+    }
+
+    /**
+     * Manual benchmark: heap usage measured around System.gc() is too noisy for an assertion,
+     * so it only prints the numbers. Run with {@code -Dbenchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void idMapMemoryPerEntry() {
+        int size = 1_000_000;
+        Task task = new Task(1, "t", "", TaskStatus.NEW, null, null);
+        long linked = measureMapMemory(LinkedHashMap::new, size, task);
+        long idMap = measureMapMemory(IdMap::new, size, task);
+        System.out.println("======================== ID map memory benchmark ========================");
+        System.out.println("LinkedHashMap<Integer, Task> of " + size + " entries: " + linked / size + " bytes per entry");
+        System.out.println("IdMap<Task> of " + size + " entries:                  " + idMap / size + " bytes per entry");
+    }
+
+    /**
+     * Fills a new map with one shared value and measures heap growth
+     * @return {@code long} retained heap of the map in bytes
+     */
+    private long measureMapMemory(Supplier<Map<Integer, Task>> mapSupplier, int size, Task value) {
+        long before = usedMemory();
+        Map<Integer, Task> map = mapSupplier.get();
+        for (int i = 0; i < size; i++) map.put(i + 1_000, value);
+        long after = usedMemory();
+        assertEquals(size, map.size());
+        return after - before;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Creates a board of epics with 10 subtasks each, then measures getEpicSubtasks() of the first epic.
+     * @return {@code long} best average time of one call in nanoseconds
+     */
+    private long measureEpicSubtasks(int boardSize) throws TaskNotFoundException, WrongTaskArgumentException, TaskIntersectionException {
+        TaskManager tm = new InMemoryTaskManager(new TaskFactory(), new InMemoryHistoryManager(10));
+        Epic small = null;
+        for (int i = 0; i < boardSize / 10; i++) {
+            Epic epic = tm.add(new Epic(0, "e", ""));
+            if (small == null) small = epic;
+            for (int j = 0; j < 10; j++) tm.add(new Subtask(0, epic.getId(), "s", "", TaskStatus.NEW, null, null));
+        }
+
+        int calls = 20_000;
+        long best = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < calls; i++) checksum += tm.getEpicSubtasks(small.getId()).size();
+            best = Math.min(best, (System.nanoTime() - start) / calls);
+        }
+        assertEquals(10L * calls * RUNS, checksum);
+        return best;
+    }
+
+}
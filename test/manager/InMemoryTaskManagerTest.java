@@ -28,6 +28,44 @@ class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
         assertThrows(IllegalArgumentException.class, () ->  new InMemoryTaskManager(null, new InMemoryHistoryManager()));
     }
 
+    @Test
+    void removeAllSubtasksDoesNotTouchPlainTasks() throws WrongTaskArgumentException, TaskIntersectionException,
+            TaskNotFoundException {
+        int[] scheduleOps = new int[2];                             // additions, removals
+        InMemoryTaskManager tm = new InMemoryTaskManager(new TaskFactory(), new InMemoryHistoryManager(10)) {
+            @Override
+            protected void addToSchedule(Task task) {
+                scheduleOps[0]++;
+                super.addToSchedule(task);
+            }
+
+            @Override
+            protected void removeFromSchedule(Task task) {
+                scheduleOps[1]++;
+                super.removeFromSchedule(task);
+            }
+        };
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < 100; i++) {
+            tm.add(new Task(0, "t", "", TaskStatus.NEW, base.plusHours(i), Duration.ofMinutes(30)));
+        }
+        Epic epic = tm.add(new Epic(0, "e", ""));
+        for (int j = 0; j < 10; j++) {
+            tm.add(new Subtask(0, epic.getId(), "s", "", TaskStatus.NEW, base.plusHours(j).plusMinutes(30),
+                    Duration.ofMinutes(30)));
+        }
+        List<Task> plainTasks = tm.getTasks();
+        scheduleOps[0] = 0;
+        scheduleOps[1] = 0;
+
+        tm.removeAllSubtasks();
+        assertEquals(0, scheduleOps[0], "remaining tasks should not be put to the schedule again");
+        assertEquals(10, scheduleOps[1], "only the subtasks should leave the schedule");
+        List<Task> prioritized = tm.getPrioritizedTasks();
+        assertEquals(plainTasks.size(), prioritized.size());
+        for (int i = 0; i < prioritized.size(); i++) assertSame(plainTasks.get(i), prioritized.get(i));
+    }
+
     @Test
     void continuousHistoryOps() throws TaskNotFoundException, WrongTaskArgumentException, TaskIntersectionException {
         TaskManager tm = new InMemoryTaskManager(new TaskFactory(), new InMemoryHistoryManager(10));
@@ -166,14 +204,17 @@ class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
 
         System.out.println("======================== The User Behaviour Imitation ========================");
         tm.getTasks().forEach(System.out::println);
-        tm.getEpics().stream()
-                .peek(System.out::println)
-                .forEach(e -> { tm.getEpicSubtasks(e.getId()).forEach(s -> {
-                    System.out.println("\t" + s.toString());
-                }); });
+        for (Epic e : tm.getEpics()) {
+            System.out.println(e);
+            for (Subtask s : tm.getEpicSubtasks(e.getId())) {
+                System.out.println("\t" + s.toString());
+            }
+        }
 
         // non-existent tasks
-        assertTrue(tm.getEpicSubtasks(444).isEmpty());
+        assertThrows(TaskNotFoundException.class, () -> {
+            tm.getEpicSubtasks(444);
+        });
         assertThrows(TaskNotFoundException.class, () -> {
             tm.getTaskById(4568);
         });
@@ -217,7 +258,9 @@ class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
         assertTrue(tm.getHistory().stream().noneMatch(t -> !(t instanceof Epic) && !(t instanceof Subtask)));
 
         tm.removeAllSubtasks();
-        tm.getEpics().forEach(e -> { assertTrue(tm.getEpicSubtasks(e.getId()).isEmpty()); });
+        for (Epic e : tm.getEpics()) {
+            assertTrue(tm.getEpicSubtasks(e.getId()).isEmpty());
+        }
         assertTrue(tm.getHistory().stream().noneMatch(s -> (s instanceof Subtask)));
 
         tm.removeAllEpics();
@@ -233,6 +276,10 @@ class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
         Task task2 = taskManager.add(new Task(0, "2", "", TaskStatus.NEW, LocalDateTime.of(2000, 1, 1, 3, 21), Duration.ofHours(5)));
         assertThrows(TaskIntersectionException.class, () -> {taskManager.checkIntersections(newtask);});
         assertDoesNotThrow(() -> {taskManager.checkIntersections(task1);});
+
+        Task task3 = taskManager.add(new Task(0, "3", "", TaskStatus.NEW, LocalDateTime.of(1999, 12, 31, 22, 0), Duration.ofHours(4)));
+        TaskIntersectionException e = assertThrows(TaskIntersectionException.class, () -> {taskManager.checkIntersections(newtask);});
+        assertEquals("Task \"new\" has intersections with other tasks: " + task3.getId() + ", " + task2.getId(), e.getMessage());
     }
 
 }
\ No newline at end of file
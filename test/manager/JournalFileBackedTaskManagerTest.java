@@ -0,0 +1,225 @@
+package manager;
+
+import exception.ManagerLoadException;
+import exception.TaskIntersectionException;
+import exception.TaskNotFoundException;
+import exception.WrongTaskArgumentException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import task.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class JournalFileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+
+    protected JournalFileBackedTaskManagerTest() throws IOException {
+        super(FileBackedTaskManager.loadFromFile(File.createTempFile("tmanj", ".tmp"),
+                FileBackedTaskManager.PersistenceMode.JOURNAL));
+    }
+
+    @Test
+    void changesAreAppendedAndReplayed() throws IOException, WrongTaskArgumentException, TaskIntersectionException,
+            TaskNotFoundException {
+        File file = File.createTempFile("tmanj1", ".csv");
+        File log = new File(file.getPath() + ".log");
+        log.deleteOnExit();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 10, 0);
+        FileBackedTaskManager tm = FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL);
+        Task t1 = tm.add(new Task(0, "t1, with comma", "", TaskStatus.NEW, base, Duration.ofHours(1)));
+        Epic e2 = tm.add(new Epic(0, "e2", ""));
+        Subtask s3 = tm.add(new Subtask(0, e2.getId(), "s3", "", TaskStatus.DONE, base.plusHours(1), Duration.ofHours(1)));
+        Task t4 = tm.add(new Task(0, "t4", "", TaskStatus.NEW, null, null));
+        tm.update(new Task(t1.getId(), "t1 updated", "d", TaskStatus.IN_PROGRESS, base.plusHours(3), Duration.ofHours(1)));
+        tm.removeById(t4.getId());
+        tm.addAll(List.of(new Task(0, "t5", "", TaskStatus.NEW, null, null)));
+
+        assertEquals(0, Files.size(file.toPath()));
+        assertEquals(7, Files.readAllLines(log.toPath()).size());
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL);
+        assertEquals(List.of(s3.getId(), t1.getId()), loaded.getPrioritizedTasks().stream().map(Task::getId).toList());
+        assertEquals("t1 updated", loaded.getTaskById(t1.getId()).getTitle());
+        assertEquals(TaskStatus.DONE, loaded.getTaskById(e2.getId()).getStatus());
+        assertThrows(TaskNotFoundException.class, () -> loaded.getTaskById(t4.getId()));
+        assertEquals(1, loaded.getSummary().getEpics().get(TaskStatus.DONE));
+        assertEquals(6, loaded.add(new Task(0, "t6", "", TaskStatus.NEW, null, null)).getId());
+
+        // loading compacts the journal to the snapshot
+        assertEquals(1, Files.readAllLines(log.toPath()).size());
+        assertTrue(Files.readAllLines(file.toPath()).size() > 1);
+
+        loaded.removeAllSubtasks();
+        loaded.clearAllData();
+        loaded.add(new Task(0, "after clear", "", TaskStatus.NEW, null, null));
+        FileBackedTaskManager cleared = FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL);
+        assertEquals(List.of("after clear"), cleared.getTasks().stream().map(Task::getTitle).toList());
+        assertEquals(1, cleared.getTasks().getFirst().getId());
+    }
+
+    @Test
+    void unfinishedLastRecordIsIgnored() throws IOException, WrongTaskArgumentException, TaskIntersectionException {
+        File file = File.createTempFile("tmanj2", ".csv");
+        File log = new File(file.getPath() + ".log");
+        log.deleteOnExit();
+        FileBackedTaskManager tm = FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL);
+        tm.add(new Task(0, "t1", "", TaskStatus.NEW, null, null));
+        try (FileWriter writer = new FileWriter(log, true)) {
+            writer.write("ADD,\"2\",\"TASK\",\"t2");
+        }
+        assertEquals(1, FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL)
+                .getTasks().size());
+
+        try (FileWriter writer = new FileWriter(log, true)) {
+            writer.write("MOVE,1\n");
+        }
+        assertThrows(ManagerLoadException.class,
+                () -> FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL));
+    }
+
+    @Test
+    void tornLineIsCutBeforeNextAppend() throws IOException, WrongTaskArgumentException, TaskIntersectionException {
+        File file = File.createTempFile("tmanj4", ".csv");
+        File log = new File(file.getPath() + ".log");
+        log.deleteOnExit();
+        try (FileWriter writer = new FileWriter(log)) {
+            writer.write("ADD,\"1\",\"TASK\",\"t1");
+        }
+        FileBackedTaskManager tm = FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL);
+        assertTrue(tm.getTasks().isEmpty());
+        assertEquals(0, Files.size(log.toPath()));
+
+        tm.add(new Task(0, "t2", "", TaskStatus.NEW, null, null));
+        tm.flush();
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL);
+        assertEquals(List.of("t2"), loaded.getTasks().stream().map(Task::getTitle).toList());
+    }
+
+    @Test
+    void subtaskOfRemovedEpicIsNotRestored() throws IOException, WrongTaskArgumentException, TaskIntersectionException,
+            TaskNotFoundException {
+        File file = File.createTempFile("tmanj5", ".csv");
+        File log = new File(file.getPath() + ".log");
+        log.deleteOnExit();
+        FileBackedTaskManager tm = FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL);
+        Epic epic = tm.add(new Epic(0, "e1", ""));
+        Subtask subtask = tm.add(new Subtask(0, epic.getId(), "s1", "", TaskStatus.NEW, null, null));
+        tm.update(new Subtask(subtask.getId(), epic.getId(), "s1 updated", "", TaskStatus.DONE, null, null));
+        tm.removeById(epic.getId());
+        tm.flush();
+        List<String> records = Files.readAllLines(log.toPath());
+
+        // the process died while compacting: the snapshot is written, the records after the last one
+        // covered by the previous snapshot are replayed again
+        tm.compact();
+        Files.write(log.toPath(), records.subList(2, 4));
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL);
+        assertTrue(loaded.getEpics().isEmpty());
+        assertTrue(loaded.getSubTasks().isEmpty());
+        assertTrue(loaded.getPrioritizedTasks().isEmpty());
+    }
+
+    @Test
+    void batchIsReplayedWholeOrNotAtAll() throws IOException, WrongTaskArgumentException, TaskIntersectionException,
+            TaskNotFoundException {
+        File file = File.createTempFile("tmanj7", ".csv");
+        File log = new File(file.getPath() + ".log");
+        log.deleteOnExit();
+        FileBackedTaskManager tm = FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL);
+        Task t1 = tm.add(new Task(0, "t1", "", TaskStatus.NEW, null, null));
+        List<Task> added = tm.addAll(List.of(new Task(0, "t2", "two\nlines", TaskStatus.NEW, null, null),
+                new Task(0, "t3", "", TaskStatus.NEW, null, null), new Task(0, "t4", "", TaskStatus.NEW, null, null)));
+        tm.updateAll(List.of(new Task(added.get(0).getId(), "t2 updated", "two\nlines", TaskStatus.DONE, null, null),
+                new Task(added.get(1).getId(), "t3 updated", "", TaskStatus.DONE, null, null)));
+        tm.removeAll(List.of(t1.getId(), added.get(2).getId()));
+        tm.flush();
+        byte[] journal = Files.readAllBytes(log.toPath());
+        List<String> records = Files.readAllLines(log.toPath());
+        assertEquals(4, records.size(), "every batch should be one record");
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL);
+        assertEquals(List.of("t2 updated", "t3 updated"), loaded.getTasks().stream().map(Task::getTitle).toList());
+        assertEquals("two\nlines", loaded.getTaskById(added.get(0).getId()).getDescription());
+
+        // the process died in the middle of writing the batch
+        tm.compact();
+        Files.delete(file.toPath());
+        int batchStart = records.getFirst().length() + 1;
+        Files.write(log.toPath(), Arrays.copyOf(journal, batchStart + records.get(1).length() / 2));
+        FileBackedTaskManager cut = FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL);
+        assertEquals(List.of("t1"), cut.getTasks().stream().map(Task::getTitle).toList());
+    }
+
+    @Test
+    void lineBreaksInTextDontBreakRecords() throws IOException, WrongTaskArgumentException, TaskIntersectionException,
+            TaskNotFoundException {
+        File file = File.createTempFile("tmanj6", ".csv");
+        File log = new File(file.getPath() + ".log");
+        log.deleteOnExit();
+        FileBackedTaskManager tm = FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL);
+        Task task = tm.add(new Task(0, "two\nlines", "c:\\new\r\n", TaskStatus.NEW, null, null));
+        tm.flush();
+        assertEquals(1, Files.readAllLines(log.toPath()).size());
+
+        List<Task> replayed = new ArrayList<>();
+        TaskFactory taskFactory = new TaskFactory();
+        tm.getJournal().replay((operation, payload) -> replayed.add(taskFactory.fromCSVLine(payload)));
+        assertEquals("two\nlines", replayed.getFirst().getTitle());
+        assertEquals("c:\\new\r\n", replayed.getFirst().getDescription());
+        assertEquals(task.getId(), replayed.getFirst().getId());
+    }
+
+    @Test
+    void backgroundCompactionSwapsSnapshot() throws IOException, WrongTaskArgumentException, TaskIntersectionException,
+            TaskNotFoundException, InterruptedException {
+        File file = File.createTempFile("tmanj3", ".csv");
+        File log = new File(file.getPath() + ".log");
+        log.deleteOnExit();
+        FileBackedTaskManager tm = FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL);
+        SnapshotCompactor compactor = SnapshotCompactor.start(tm, 1, Duration.ofHours(1), 5);
+        int added = 0;
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (compactor.getCompactions() == 0 && System.currentTimeMillis() < deadline) {
+            tm.add(new Task(0, "t" + added++, "", TaskStatus.NEW, null, null));
+            Thread.sleep(2);
+        }
+        compactor.close();
+        assertTrue(compactor.getCompactions() > 0);
+        assertFalse(tm.getJournal().getRotatedFile().exists());
+        assertTrue(Files.readAllLines(file.toPath()).size() > 1);
+        assertTrue(!log.exists() || Files.readAllLines(log.toPath()).size() < added);
+
+        // subtasks of a background snapshot keep their epics
+        Epic epic = tm.add(new Epic(0, "epic", ""));
+        Subtask subtask = tm.add(new Subtask(0, epic.getId(), "subtask", "", TaskStatus.DONE, null, null));
+        compactor = SnapshotCompactor.start(tm, Long.MAX_VALUE, Duration.ofHours(1), 5);
+        long compactions = compactor.getCompactions();
+        compactor.requestCompaction();
+        tm.add(new Task(0, "trigger", "", TaskStatus.NEW, null, null));
+        compactor.close();
+        assertEquals(compactions + 1, compactor.getCompactions());
+        FileBackedTaskManager snapshot = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(List.of(subtask.getId()), snapshot.getEpicSubtasks(epic.getId()).stream().map(Task::getId).toList());
+        added += 1;
+        tm.removeById(epic.getId());
+
+        // a rotated file left by a crash before the snapshot swap is replayed first
+        tm.add(new Task(0, "rotated", "", TaskStatus.NEW, null, null));
+        tm.getJournal().rotate(Long.MAX_VALUE);
+        tm.add(new Task(0, "active", "", TaskStatus.NEW, null, null));
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL);
+        assertEquals(added + 2, loaded.getTasks().size());
+        assertFalse(loaded.getJournal().getRotatedFile().exists());
+    }
+
+}
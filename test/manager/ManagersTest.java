@@ -9,7 +9,11 @@ import task.Task;
 import task.TaskFactory;
 import task.TaskStatus;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 @TestInstance(TestInstance.Lifecycle.PER_METHOD)
 class ManagersTest {
@@ -51,4 +55,47 @@ class ManagersTest {
         assertEquals(3, tm.getHistory().size());
     }
 
-}
\ No newline at end of file
+    @Test
+    void createNewConcurrent() throws WrongTaskArgumentException, TaskIntersectionException, TaskNotFoundException {
+        TaskManager tm = Managers.createNewConcurrent();
+        assertInstanceOf(ConcurrentTaskManager.class, tm);
+        assertSame(tm, Managers.getDefault());
+        tm.add(new Task(0, "task 1", "1", TaskStatus.NEW, null, null));
+        assertEquals("task 1", tm.getTaskById(1).getTitle());
+        assertThrows(IllegalArgumentException.class, () -> Managers.createNewConcurrent(null, Managers.getDefaultHistory()));
+        TaskManager striped = Managers.createNewConcurrent(Managers.getDefaultFactory(), Managers.getDefaultHistory(),
+                ConcurrentTaskManager.LockMode.STRIPED);
+        assertEquals(ConcurrentTaskManager.LockMode.STRIPED, ((ConcurrentTaskManager) striped).getLockMode());
+        assertThrows(IllegalArgumentException.class,
+                () -> Managers.createNewConcurrent(Managers.getDefaultFactory(), Managers.getDefaultHistory(), null));
+    }
+
+    @Test
+    void leasingFactoryPersistsHighWaterMark() throws IOException, WrongTaskArgumentException, TaskIntersectionException {
+        File file = File.createTempFile("tasks", ".csv");
+        File marks = new File(file.getPath() + ".ids");
+        file.deleteOnExit();
+        marks.deleteOnExit();
+        TaskManager first = Managers.createNewInMemory(Managers.getLeasingFactory(100, file), Managers.getDefaultHistory());
+        TaskManager second = Managers.createNewInMemory(Managers.getLeasingFactory(100, file), Managers.getDefaultHistory());
+        assertEquals(1, first.add(new Task(0, "t1", "", TaskStatus.NEW, null, null)).getId());
+        assertEquals(101, second.add(new Task(0, "t2", "", TaskStatus.NEW, null, null)).getId());
+        assertEquals(2, first.add(new Task(0, "t3", "", TaskStatus.NEW, null, null)).getId());
+        assertEquals(200, FileIdBlockSource.forDataFile(file).getHighWaterMark());
+        assertSame(FileIdBlockSource.forDataFile(file), FileIdBlockSource.forFile(new File(file.getParentFile(),
+                "./" + marks.getName())));
+    }
+
+    @Test
+    void idsMarkIsOverwrittenInPlace() throws IOException {
+        File marks = File.createTempFile("tasks", ".csv.ids");
+        marks.deleteOnExit();
+        Files.writeString(marks.toPath(), "42\n");
+        FileIdBlockSource source = FileIdBlockSource.forFile(marks);
+        assertEquals(43, source.lease(10));
+        assertEquals("0000000052\n", Files.readString(marks.toPath()));
+        source.raiseTo(7);
+        assertEquals(52, source.getHighWaterMark());
+    }
+
+}
@@ -0,0 +1,135 @@
+package manager;
+
+import exception.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import task.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class MappedTaskManagerTest extends TaskManagerTest<MappedTaskManager> {
+
+    protected MappedTaskManagerTest() throws IOException {
+        super(MappedTaskManager.loadFromFile(tempFile("tmanm")));
+    }
+
+    private static File tempFile(String prefix) throws IOException {
+        File file = File.createTempFile(prefix, ".store");
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    void changesAreWrittenInPlace() throws IOException, WrongTaskArgumentException, TaskIntersectionException,
+            TaskNotFoundException {
+        File file = tempFile("tmanm1");
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 10, 0);
+        MappedTaskManager tm = MappedTaskManager.loadFromFile(file, true);
+        Epic e1 = tm.add(new Epic(0, "e1", ""));
+        Subtask s2 = tm.add(new Subtask(0, e1.getId(), "s2", "", TaskStatus.DONE, base, Duration.ofHours(1)));
+        Task t3 = tm.add(new Task(0, "t3", "", TaskStatus.NEW, base.plusHours(2), Duration.ofMinutes(30)));
+        Task t4 = tm.add(new Task(0, "t4", "", TaskStatus.NEW, null, null));
+        int blocks = tm.getStore().getBlocks();
+
+        tm.update(new Task(t3.getId(), "t3 updated", "d", TaskStatus.IN_PROGRESS, base.plusHours(3), Duration.ofHours(1)));
+        tm.removeById(t4.getId());
+        Task t5 = tm.add(new Task(0, "t5", "", TaskStatus.NEW, null, null));
+        assertEquals(blocks, tm.getStore().getBlocks(), "removed block should be reused");
+        tm.close();
+
+        MappedTaskManager loaded = MappedTaskManager.loadFromFile(file);
+        assertEquals("t3 updated", loaded.getTaskById(t3.getId()).getTitle());
+        assertEquals(TaskStatus.IN_PROGRESS, loaded.getTaskById(t3.getId()).getStatus());
+        assertEquals(List.of(s2.getId(), t3.getId()), loaded.getPrioritizedTasks().stream().map(Task::getId).toList());
+        assertEquals(TaskStatus.DONE, loaded.getTaskById(e1.getId()).getStatus());
+        assertEquals(e1.getId(), ((Subtask) loaded.getTaskById(s2.getId())).getEpic().getId());
+        assertThrows(TaskNotFoundException.class, () -> loaded.getTaskById(t4.getId()));
+        assertEquals("t5", loaded.getTaskById(t5.getId()).getTitle());
+        assertEquals(t5.getId() + 1, loaded.add(new Task(0, "t6", "", TaskStatus.NEW, null, null)).getId());
+
+        loaded.removeById(e1.getId());
+        loaded.clearAllData();
+        loaded.add(new Task(0, "after clear", "", TaskStatus.NEW, null, null));
+        loaded.close();
+        assertEquals(List.of("after clear"), MappedTaskManager.loadFromFile(file).getTasks().stream()
+                .map(Task::getTitle).toList());
+    }
+
+    @Test
+    void longDescriptionsUseOverflowBlocks() throws IOException, WrongTaskArgumentException, TaskIntersectionException,
+            TaskNotFoundException {
+        File file = tempFile("tmanm2");
+        MappedTaskManager tm = MappedTaskManager.loadFromFile(file);
+        String longText = "описание ".repeat(200);
+        Task t1 = tm.add(new Task(0, "t1", longText, TaskStatus.NEW, null, null));
+        int blocksWithOverflow = tm.getStore().getBlocks();
+        assertTrue(blocksWithOverflow > 2);
+
+        tm.update(new Task(t1.getId(), "t1", "short", TaskStatus.NEW, null, null));
+        Task t2 = tm.add(new Task(0, "t2", longText.substring(0, 1000), TaskStatus.NEW, null, null));
+        assertEquals(blocksWithOverflow, tm.getStore().getBlocks(), "freed overflow blocks should be reused");
+        tm.close();
+
+        MappedTaskManager loaded = MappedTaskManager.loadFromFile(file);
+        assertEquals("short", loaded.getTaskById(t1.getId()).getDescription());
+        assertEquals(longText.substring(0, 1000), loaded.getTaskById(t2.getId()).getDescription());
+    }
+
+    @Test
+    void usedBlockInFreeListIsNotReused() throws IOException, WrongTaskArgumentException, TaskIntersectionException,
+            TaskNotFoundException {
+        File file = tempFile("tmanm4");
+        MappedTaskManager tm = MappedTaskManager.loadFromFile(file, true);
+        Task t1 = tm.add(new Task(0, "t1", "", TaskStatus.NEW, null, null));
+        Task t2 = tm.add(new Task(0, "t2", "", TaskStatus.NEW, null, null));
+        tm.removeById(t2.getId());
+        Task t3 = tm.add(new Task(0, "t3", "", TaskStatus.NEW, null, null));
+        int blocks = tm.getStore().getBlocks();
+        tm.close();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(16);                                           // header as left by a crash before it was written
+            raf.writeInt(blocks - 1);
+        }
+
+        MappedTaskManager loaded = MappedTaskManager.loadFromFile(file, true);
+        Task t4 = loaded.add(new Task(0, "t4", "", TaskStatus.NEW, null, null));
+        assertEquals(blocks + 1, loaded.getStore().getBlocks());
+        loaded.close();
+        MappedTaskManager reloaded = MappedTaskManager.loadFromFile(file);
+        assertEquals(List.of(t1.getId(), t3.getId(), t4.getId()), reloaded.getTasks().stream().map(Task::getId).toList());
+        assertEquals("t3", reloaded.getTaskById(t3.getId()).getTitle());
+    }
+
+    @Test
+    void clearedRecordsDontComeBack() throws IOException, WrongTaskArgumentException, TaskIntersectionException {
+        File file = tempFile("tmanm5");
+        MappedTaskManager tm = MappedTaskManager.loadFromFile(file, true);
+        for (int i = 0; i < 3; i++) tm.add(new Task(0, "t" + i, "", TaskStatus.NEW, null, null));
+        int blocks = tm.getStore().getBlocks();
+        tm.clearAllData();
+        tm.close();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(12);                                           // header grown by allocation, block not written yet
+            raf.writeInt(blocks);
+        }
+
+        assertTrue(MappedTaskManager.loadFromFile(file).getTasks().isEmpty());
+    }
+
+    @Test
+    void loadException() throws IOException {
+        File file = tempFile("tmanm3");
+        Files.writeString(file.toPath(), "\"id\",\"type\",\"title\",\"status\",\"description\",\"starttime\",\"duration\"");
+        assertThrows(ManagerLoadException.class, () -> MappedTaskManager.loadFromFile(file));
+    }
+
+}
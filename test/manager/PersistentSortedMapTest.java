@@ -0,0 +1,59 @@
+package manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentSortedMapTest {
+
+    @Test
+    void putRemoveKeepOldVersions() {
+        PersistentSortedMap<Integer, String> empty = PersistentSortedMap.empty(Comparator.naturalOrder());
+        PersistentSortedMap<Integer, String> v1 = empty.put(2, "two").put(1, "one").put(3, "three");
+        PersistentSortedMap<Integer, String> v2 = v1.remove(2).put(4, "four");
+        PersistentSortedMap<Integer, String> v3 = v2.put(1, "ONE");
+
+        assertTrue(empty.isEmpty());
+        assertEquals(List.of("one", "two", "three"), v1.values());
+        assertEquals(List.of("one", "three", "four"), v2.values());
+        assertEquals(List.of("ONE", "three", "four"), v3.values());
+        assertEquals("three", v3.values().get(1));
+        assertSame(v3, v3.remove(100));
+        assertNull(v3.get(2));
+        assertThrows(UnsupportedOperationException.class, () -> v3.values().add("five"));
+        assertThrows(IndexOutOfBoundsException.class, () -> v3.values().get(3));
+    }
+
+    @Test
+    void randomOperationsMatchTreeMap() {
+        Random random = new Random(7);
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        PersistentSortedMap<Integer, Integer> map = PersistentSortedMap.empty(Comparator.naturalOrder());
+        List<PersistentSortedMap<Integer, Integer>> versions = new ArrayList<>();
+        List<List<Integer>> versionValues = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            int key = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+            if (i % 500 == 0) {
+                versions.add(map);
+                versionValues.add(new ArrayList<>(expected.values()));
+            }
+        }
+        assertEquals(new ArrayList<>(expected.values()), map.values());
+        for (int i = 0; i < versions.size(); i++) assertEquals(versionValues.get(i), versions.get(i).values());
+    }
+
+}
@@ -0,0 +1,92 @@
+package manager;
+
+import exception.TaskIntersectionException;
+import exception.TaskNotFoundException;
+import exception.WrongTaskArgumentException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import task.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class StripedConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+
+    protected StripedConcurrentTaskManagerTest() {
+        super(new ConcurrentTaskManager(new TaskFactory(), new InMemoryHistoryManager(10),
+                ConcurrentTaskManager.LockMode.STRIPED));
+    }
+
+    @Test
+    void parallelSubtasksOfDifferentEpics() throws WrongTaskArgumentException, TaskNotFoundException,
+            InterruptedException, ExecutionException {
+        int threads = 8;
+        int subtasksPerThread = 300;
+        List<Epic> epics = new ArrayList<>();
+        for (int t = 0; t < threads; t++) epics.add(taskManager.add(new Epic(0, "e" + t, "")));
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Epic epic = epics.get(t);
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < subtasksPerThread; i++) {
+                    LocalDateTime start = base.plusHours((long) i * threads + thread);    // own slots of the thread
+                    Subtask subtask = taskManager.add(new Subtask(0, epic.getId(), "s", "", TaskStatus.NEW,
+                            start, Duration.ofMinutes(30)));
+                    taskManager.update(new Subtask(subtask.getId(), epic.getId(), "s", "", TaskStatus.DONE,
+                            start, Duration.ofMinutes(45)));
+                    if (i % 3 == 0) taskManager.removeById(subtask.getId());
+                }
+                return null;
+            }));
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < subtasksPerThread; i++) {
+                    taskManager.getPrioritizedTasks();
+                    taskManager.getEpicSubtasks(epic.getId());
+                    try {
+                        taskManager.getTaskById(i + 1);
+                    } catch (TaskNotFoundException e) {
+                        // not added yet or already removed
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) future.get();
+        executor.shutdown();
+
+        int kept = subtasksPerThread - (subtasksPerThread + 2) / 3;
+        assertEquals(kept * threads, taskManager.getSubTasks().size());
+        assertEquals(kept * threads, taskManager.getPrioritizedTasks().size());
+        for (Epic epic : epics) {
+            assertEquals(kept, taskManager.getEpicSubtasks(epic.getId()).size());
+            assertEquals(TaskStatus.DONE, epic.getStatus());
+        }
+        List<Task> prioritized = taskManager.getPrioritizedTasks();
+        for (int i = 1; i < prioritized.size(); i++) {
+            assertFalse(prioritized.get(i).getStartTime().isBefore(prioritized.get(i - 1).getEndTime()));
+        }
+    }
+
+    @Test
+    void stripedModeDetectsIntersectionsBetweenEpics() throws WrongTaskArgumentException, TaskIntersectionException, TaskNotFoundException {
+        Epic first = taskManager.add(new Epic(0, "e1", ""));
+        Epic second = taskManager.add(new Epic(0, "e2", ""));
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+        taskManager.add(new Subtask(0, first.getId(), "s1", "", TaskStatus.NEW, start, Duration.ofHours(1)));
+        assertThrows(TaskIntersectionException.class, () -> taskManager.add(new Subtask(0, second.getId(), "s2", "",
+                TaskStatus.NEW, start.plusMinutes(30), Duration.ofHours(1))));
+        assertTrue(taskManager.getEpicSubtasks(second.getId()).isEmpty());
+        assertThrows(TaskNotFoundException.class, () -> taskManager.add(new Subtask(0, 100, "s3", "",
+                TaskStatus.NEW, null, null)));
+    }
+
+}
@@ -0,0 +1,102 @@
+package manager;
+
+import exception.TaskIntersectionException;
+import exception.TaskNotFoundException;
+import exception.WrongTaskArgumentException;
+import org.junit.jupiter.api.Test;
+import task.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskEventBusTest {
+
+    private final InMemoryTaskManager taskManager = new InMemoryTaskManager(new TaskFactory(), new InMemoryHistoryManager(10));
+
+    @Test
+    void eventsKeepOrderAndStates() throws WrongTaskArgumentException, TaskIntersectionException,
+            TaskNotFoundException, InterruptedException {
+        BlockingQueue<TaskEvent> received = new LinkedBlockingQueue<>();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 10, 0);
+        TaskEventBus.Subscription subscription = taskManager.subscribe(received::add);
+        try {
+            Task task = taskManager.add(new Task(0, "t1", "", TaskStatus.NEW, base, Duration.ofHours(1)));
+            taskManager.update(new Task(task.getId(), "t1", "", TaskStatus.DONE, base, Duration.ofHours(1)));
+            Epic epic = taskManager.add(new Epic(0, "e1", ""));
+            Subtask subtask = taskManager.add(new Subtask(0, epic.getId(), "s1", "", TaskStatus.DONE,
+                    base.plusHours(2), Duration.ofHours(1)));
+            taskManager.removeById(epic.getId());
+
+            List<TaskEvent> events = take(received, 7);
+            for (int i = 0; i < events.size(); i++) assertEquals(i + 1, events.get(i).getVersion());
+            assertEquals(List.of(TaskEvent.Type.CREATED, TaskEvent.Type.UPDATED, TaskEvent.Type.CREATED,
+                    TaskEvent.Type.CREATED, TaskEvent.Type.UPDATED, TaskEvent.Type.REMOVED, TaskEvent.Type.REMOVED),
+                    events.stream().map(TaskEvent::getType).toList());
+
+            assertNull(events.get(0).getBefore());
+            assertEquals(TaskStatus.NEW, events.get(1).getBefore().getStatus());
+            assertEquals(TaskStatus.DONE, events.get(1).getAfter().getStatus());
+            assertNotSame(task, events.get(1).getAfter());
+
+            TaskEvent epicUpdate = events.get(4);
+            assertEquals(epic.getId(), epicUpdate.getTaskId());
+            assertEquals(TaskStatus.NEW, epicUpdate.getBefore().getStatus());
+            assertNull(epicUpdate.getBefore().getStartTime());
+            assertEquals(TaskStatus.DONE, epicUpdate.getAfter().getStatus());
+            assertEquals(base.plusHours(2), epicUpdate.getAfter().getStartTime());
+
+            assertEquals(subtask.getId(), events.get(5).getTaskId());
+            assertEquals(epic.getId(), events.get(6).getTaskId());
+            assertNull(events.get(6).getAfter());
+        } finally {
+            subscription.close();
+        }
+        taskManager.clearAllData();
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void slowSubscriberDoesNotBlockWriters() throws WrongTaskArgumentException, TaskIntersectionException,
+            InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<TaskEvent> received = new LinkedBlockingQueue<>();
+        TaskEventBus.Subscription slow = taskManager.subscribe(event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 4);
+        TaskEventBus.Subscription fast = taskManager.subscribe(received::add);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) taskManager.add(new Task(0, "t" + i, "", TaskStatus.NEW, null, null));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+        assertTrue(slow.getDroppedCount() > 0);
+        assertEquals(100, take(received, 100).size());
+        assertEquals(0, fast.getDroppedCount());
+        release.countDown();
+        slow.close();
+        fast.close();
+    }
+
+    private static List<TaskEvent> take(BlockingQueue<TaskEvent> queue, int count) throws InterruptedException {
+        List<TaskEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TaskEvent event = queue.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "Event #" + (i + 1) + " not received");
+            events.add(event);
+        }
+        return events;
+    }
+
+}
@@ -0,0 +1,83 @@
+package manager;
+
+import org.junit.jupiter.api.Test;
+import task.Task;
+import task.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskIntervalTreeTest {
+
+    @Test
+    void addRemoveFind() {
+        TaskIntervalTree tree = new TaskIntervalTree();
+        Task t1 = new Task(1, "t1", "", TaskStatus.NEW, LocalDateTime.of(2025, 1, 10, 9, 0), Duration.ofHours(1));
+        Task t2 = new Task(2, "t2", "", TaskStatus.NEW, LocalDateTime.of(2025, 1, 10, 12, 0), Duration.ofHours(2));
+        Task t3 = new Task(3, "t3", "", TaskStatus.NEW, null, null);
+        assertTrue(tree.add(t1));
+        assertTrue(tree.add(t2));
+        assertFalse(tree.add(t2));
+        assertFalse(tree.add(t3));
+        assertEquals(2, tree.size());
+
+        assertEquals(List.of(t1, t2), tree.findOverlapping(LocalDateTime.of(2025, 1, 10, 9, 30), LocalDateTime.of(2025, 1, 10, 12, 1)));
+        assertTrue(tree.findOverlapping(LocalDateTime.of(2025, 1, 10, 10, 0), LocalDateTime.of(2025, 1, 10, 12, 0)).isEmpty());
+
+        assertTrue(tree.remove(t1));
+        assertFalse(tree.remove(t1));
+        assertEquals(List.of(t2), tree.findOverlapping(LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0)));
+        tree.clear();
+        assertEquals(0, tree.size());
+    }
+
+    @Test
+    void findRunning() {
+        TaskIntervalTree tree = new TaskIntervalTree();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 10, 0, 0);
+        Task before = new Task(1, "before", "", TaskStatus.NEW, base.minusHours(2), Duration.ofHours(1));
+        Task over = new Task(2, "over", "", TaskStatus.NEW, base.minusHours(1), Duration.ofHours(2));
+        Task zero = new Task(3, "zero", "", TaskStatus.NEW, base, Duration.ZERO);
+        Task last = new Task(4, "last", "", TaskStatus.NEW, base.plusHours(23), Duration.ofHours(2));
+        Task next = new Task(5, "next", "", TaskStatus.NEW, base.plusDays(1), Duration.ZERO);
+        for (Task task : List.of(before, over, zero, last, next)) tree.add(task);
+        assertEquals(List.of(over, zero, last), tree.findRunning(base, base.plusDays(1)));
+        assertEquals(List.of(over, last), tree.findOverlapping(base, base.plusDays(1)));
+        assertTrue(tree.findRunning(null, base).isEmpty());
+    }
+
+    @Test
+    void randomAgainstBruteForce() {
+        TaskIntervalTree tree = new TaskIntervalTree();
+        List<Task> all = new ArrayList<>();
+        Random rnd = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 1; i <= 2000; i++) {
+            Task task = new Task(i, "t", "", TaskStatus.NEW, base.plusMinutes(rnd.nextInt(100_000)),
+                    Duration.ofMinutes(rnd.nextInt(600)));
+            tree.add(task);
+            all.add(task);
+            if (rnd.nextInt(4) == 0) {
+                Task removed = all.remove(rnd.nextInt(all.size()));
+                assertTrue(tree.remove(removed));
+            }
+        }
+        assertEquals(all.size(), tree.size());
+        all.sort(Comparator.comparing(Task::getStartTime).thenComparing(Task::getId));
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime start = base.plusMinutes(rnd.nextInt(100_000));
+            LocalDateTime end = start.plusMinutes(rnd.nextInt(1000));
+            List<Task> expected = all.stream()
+                    .filter(t -> t.getStartTime().isBefore(end) && start.isBefore(t.getEndTime()))
+                    .toList();
+            assertEquals(expected, tree.findOverlapping(start, end));
+        }
+    }
+
+}
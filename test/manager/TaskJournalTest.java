@@ -0,0 +1,112 @@
+package manager;
+
+import exception.TaskIntersectionException;
+import exception.TaskNotFoundException;
+import exception.WrongTaskArgumentException;
+import org.junit.jupiter.api.Test;
+import task.Task;
+import task.TaskFactory;
+import task.TaskStatus;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskJournalTest {
+
+    private static File tempLog(String prefix) throws IOException {
+        File file = File.createTempFile(prefix, ".log");
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    void concurrentSyncAppendsAreAllDurable() throws IOException, InterruptedException {
+        TaskJournal journal = new TaskJournal(tempLog("tj1"));
+        int threads = 8;
+        int perThread = 100;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int writer = t;
+            writers.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) journal.append(TaskJournal.Operation.REMOVE, writer + "-" + i);
+            }));
+        }
+        writers.forEach(Thread::start);
+        start.countDown();
+        for (Thread writer : writers) writer.join();
+
+        JournalMetrics metrics = journal.getMetrics();
+        assertEquals(threads * perThread, metrics.getRecords());
+        assertTrue(metrics.getMaxBatchSize() > 1, "appends waiting for a sync should be written together");
+        assertTrue(metrics.getFlushes() < metrics.getRecords());
+        assertEquals(threads * perThread, journal.replay((operation, payload) -> {}));
+        journal.close();
+    }
+
+    @Test
+    void syncManagerSyncsBatchOnce() throws IOException, WrongTaskArgumentException, TaskIntersectionException,
+            TaskNotFoundException {
+        File file = File.createTempFile("tj4", ".csv");
+        file.deleteOnExit();
+        new File(file.getPath() + ".log").deleteOnExit();
+        FileBackedTaskManager tm = FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL);
+        assertEquals(TaskJournal.DurabilityPolicy.SYNC, tm.getJournal().getPolicy());
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) tasks.add(new Task(0, "t" + i, "", TaskStatus.NEW, null, null));
+        List<Task> added = tm.addAll(tasks);
+        tm.updateAll(added);
+        tm.removeAll(added.stream().map(Task::getId).toList());
+
+        JournalMetrics metrics = tm.getJournalMetrics();
+        assertEquals(3, metrics.getFlushes(), "every batch should be synced once");
+        assertEquals(300, metrics.getRecords());
+        assertEquals(100, metrics.getMaxBatchSize());
+    }
+
+    @Test
+    void intervalPolicyWritesOneBatch() throws IOException {
+        File log = tempLog("tj2");
+        TaskJournal journal = new TaskJournal(log, TaskJournal.DurabilityPolicy.INTERVAL, 10_000);
+        for (int i = 0; i < 50; i++) journal.append(TaskJournal.Operation.REMOVE, String.valueOf(i));
+        assertEquals(0, Files.size(log.toPath()));
+
+        journal.flush();
+        assertEquals(50, Files.readAllLines(log.toPath()).size());
+        assertEquals(1, journal.getMetrics().getFlushes());
+        assertEquals(50, journal.getMetrics().getMaxBatchSize());
+
+        journal.append(TaskJournal.Operation.CLEAR, "");
+        journal.truncate();
+        assertEquals(0, Files.size(log.toPath()));
+        journal.close();
+    }
+
+    @Test
+    void osBufferedManagerIsReloaded() throws IOException, WrongTaskArgumentException,
+            TaskIntersectionException {
+        File file = File.createTempFile("tj3", ".csv");
+        file.deleteOnExit();
+        new File(file.getPath() + ".log").deleteOnExit();
+        FileBackedTaskManager tm = (FileBackedTaskManager) Managers.createNewFromFile(new TaskFactory(),
+                new InMemoryHistoryManager(), file, TaskJournal.DurabilityPolicy.OS_BUFFERED, 10);
+        for (int i = 0; i < 10; i++) tm.add(new Task(0, "t" + i, "", TaskStatus.NEW, null, null));
+        tm.flush();
+        assertEquals(10, tm.getJournalMetrics().getRecords());
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, FileBackedTaskManager.PersistenceMode.JOURNAL);
+        assertEquals(10, loaded.getTasks().size());
+    }
+
+}
@@ -10,9 +10,14 @@ import task.Task;
 import task.TaskStatus;
 
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,8 +52,31 @@ abstract class TaskManagerTest<T extends TaskManager> {
         List<Subtask> subtasks = taskManager.getEpicSubtasks(epics.get(0).getId());
         assertEquals("subtask 1", subtasks.get(0).getTitle());
         assertEquals("subtask 2", subtasks.get(1).getTitle());
-        assertTrue(taskManager.getEpicSubtasks(1).isEmpty());
-        assertTrue(taskManager.getEpicSubtasks(4).isEmpty());
+        assertThrows(TaskNotFoundException.class, () -> taskManager.getEpicSubtasks(1));
+        assertThrows(TaskNotFoundException.class, () -> taskManager.getEpicSubtasks(4));
+        assertThrows(TaskNotFoundException.class, () -> taskManager.getEpicSubtasks(444));
+    }
+
+    @Test
+    void viewMethods() throws TaskNotFoundException, WrongTaskArgumentException, TaskIntersectionException {
+        taskManager.add(new Task(0, "task 1", "1", TaskStatus.NEW, LocalDateTime.of(2025, 1, 10, 9, 0), Duration.ofHours(1)));
+        Epic e1 = taskManager.add(new Epic(0, "epic 1", "2"));
+        taskManager.add(new Subtask(0, e1.getId(), "subtask 1", "3", TaskStatus.NEW, LocalDateTime.of(2025, 1, 10, 8, 0), Duration.ofHours(1)));
+        taskManager.add(new Subtask(0, e1.getId(), "subtask 2", "4", TaskStatus.NEW, null, null));
+
+        assertEquals(taskManager.getTasks(), List.copyOf(taskManager.viewTasks()));
+        assertEquals(taskManager.getEpics(), List.copyOf(taskManager.viewEpics()));
+        assertEquals(taskManager.getSubTasks(), List.copyOf(taskManager.viewSubtasks()));
+        assertEquals(taskManager.getEpicSubtasks(e1.getId()), List.copyOf(taskManager.viewEpicSubtasks(e1.getId())));
+        assertEquals(taskManager.getPrioritizedTasks(), List.copyOf(taskManager.viewPrioritizedTasks()));
+        assertThrows(TaskNotFoundException.class, () -> taskManager.viewEpicSubtasks(1));
+        assertThrows(UnsupportedOperationException.class, () -> taskManager.viewTasks().clear());
+        assertThrows(UnsupportedOperationException.class, () -> taskManager.viewPrioritizedTasks().add(e1));
+        assertThrows(UnsupportedOperationException.class, () -> {
+            var iterator = taskManager.viewSubtasks().iterator();
+            iterator.next();
+            iterator.remove();
+        });
     }
 
     @Test
@@ -148,12 +176,12 @@ abstract class TaskManagerTest<T extends TaskManager> {
         });
         assertEquals(4, taskManager.getHistory().size());
 
-        assertEquals(2, taskManager.getEpics().getFirst().getSubtasks().size());
+        assertEquals(2, taskManager.getEpicSubtasks(2).size());
         taskManager.removeById(3);                                         // remove subtask #3
         assertThrows(TaskNotFoundException.class, () -> {
             taskManager.getTaskById(3);
         });
-        assertEquals(1, taskManager.getEpics().getFirst().getSubtasks().size());
+        assertEquals(1, taskManager.getEpicSubtasks(2).size());
         assertEquals(3, taskManager.getHistory().size());
 
         assertEquals(3, taskManager.getTasks().size() + taskManager.getEpics().size() + taskManager.getEpicSubtasks(2).size());
@@ -227,7 +255,7 @@ abstract class TaskManagerTest<T extends TaskManager> {
         taskManager.removeAllEpics();
         assertEquals(2, taskManager.getTasks().size());
         assertTrue(taskManager.getEpics().isEmpty());
-        assertTrue(taskManager.getEpicSubtasks(2).isEmpty());
+        assertThrows(TaskNotFoundException.class, () -> taskManager.getEpicSubtasks(2));
         assertEquals(2, taskManager.getHistory().size());
     }
 
@@ -258,6 +286,16 @@ abstract class TaskManagerTest<T extends TaskManager> {
         assertEquals(e2.getStatus(), s2.getStatus());
     }
 
+    @Test
+    void addSubtaskAsTask() throws TaskNotFoundException, WrongTaskArgumentException, TaskIntersectionException {
+        Task subtask = new Subtask(0, 100, "subtask", "no epic", TaskStatus.DONE, null, null);
+        Task task = taskManager.add(subtask);
+        assertEquals(Task.class, task.getClass());
+        assertEquals("subtask", task.getTitle());
+        assertEquals(List.of(task), taskManager.getTasks());
+        assertTrue(taskManager.getSubTasks().isEmpty());
+    }
+
     @Test
     void sortedTasks() throws TaskNotFoundException, WrongTaskArgumentException, TaskIntersectionException {
         taskManager.add(new Task(0, "task 1", "1", TaskStatus.NEW, LocalDateTime.of(2025, 1, 10, 9, 0), Duration.ofHours(1)));
@@ -347,5 +385,290 @@ abstract class TaskManagerTest<T extends TaskManager> {
         });
     }
 
+    @Test
+    void tasksBetween() throws WrongTaskArgumentException, TaskIntersectionException, TaskNotFoundException {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 10, 9, 0);
+        Task t1 = taskManager.add(new Task(0, "t1", "", TaskStatus.NEW, base, Duration.ofHours(2)));
+        Epic e1 = taskManager.add(new Epic(0, "e1", ""));
+        Subtask s1 = taskManager.add(new Subtask(0, e1.getId(), "s1", "", TaskStatus.NEW, base.plusHours(3), Duration.ofHours(1)));
+        Task t2 = taskManager.add(new Task(0, "t2", "", TaskStatus.NEW, base.plusHours(4), Duration.ZERO));
+        Task t3 = taskManager.add(new Task(0, "t3", "", TaskStatus.NEW, base.plusHours(4), Duration.ofHours(1)));
+        taskManager.add(new Task(0, "t4", "", TaskStatus.NEW, null, null));
+
+        assertEquals(List.of(t1, s1, t2, t3), taskManager.getTasksBetween(null, null));
+        assertEquals(List.of(t1, s1), taskManager.getTasksBetween(base.plusHours(1), base.plusHours(4)));
+        assertEquals(List.of(s1, t2, t3), taskManager.getTasksBetween(base.plusHours(2), null));
+        assertEquals(List.of(t1), taskManager.getTasksBetween(null, base.plusHours(3)));
+        assertTrue(taskManager.getTasksBetween(base.plusHours(2), base.plusHours(3)).isEmpty());
+        assertTrue(taskManager.getTasksBetween(base.plusHours(5), base).isEmpty());
+
+        // paging: the next page starts after the start time and ID of the last task of the previous page
+        List<Task> page = taskManager.getTasksBetween(base, null, 2);
+        assertEquals(List.of(t1, s1), page);
+        page = taskManager.getTasksAfter(page.getLast().getStartTime(), page.getLast().getId(), null, 2);
+        assertEquals(List.of(t2, t3), page);
+        page = taskManager.getTasksAfter(page.getLast().getStartTime(), page.getLast().getId(), null, 2);
+        assertTrue(page.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> taskManager.getTasksBetween(null, null, 0));
+
+        // pages of one task don't repeat the task without duration
+        List<Task> all = new ArrayList<>(taskManager.getTasksBetween(null, null, 1));
+        while (true) {
+            page = taskManager.getTasksAfter(all.getLast().getStartTime(), all.getLast().getId(), null, 1);
+            if (page.isEmpty()) break;
+            all.addAll(page);
+        }
+        assertEquals(List.of(t1, s1, t2, t3), all);
+        assertEquals(List.of(s1), taskManager.getTasksAfter(t1.getStartTime(), t1.getId(), base.plusHours(4), 5));
+        assertTrue(taskManager.getTasksAfter(base.plusHours(4), t1.getId(), base.plusHours(4), 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> taskManager.getTasksAfter(null, 1, null, 1));
+    }
+
+    @Test
+    void queriesMatchFullScan() throws WrongTaskArgumentException, TaskIntersectionException, TaskNotFoundException {
+        Random rnd = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 10, 0, 0);
+        List<Epic> epics = new ArrayList<>();
+        for (int i = 0; i < 5; i++) epics.add(taskManager.add(new Epic(0, "e" + i, "")));
+        for (int hour = 0; hour < 200; hour++) {
+            int choice = rnd.nextInt(4);
+            LocalDateTime start = (rnd.nextInt(5) == 0) ? null : base.plusHours(hour);
+            Duration duration = (start == null) ? null : Duration.ofMinutes(rnd.nextInt(5) * 15L);
+            if (choice == 0) continue;
+            if (choice == 1) {
+                taskManager.add(new Task(0, "t", "", TaskStatus.NEW, start, duration));
+            } else {
+                int epicId = epics.get(rnd.nextInt(epics.size())).getId();
+                taskManager.add(new Subtask(0, epicId, "s", "", TaskStatus.NEW, start, duration));
+            }
+        }
+        List<Task> scheduled = new ArrayList<>(taskManager.getTasks());
+        scheduled.addAll(taskManager.getSubTasks());
+        scheduled.removeIf(task -> task.getStartTime() == null);
+        scheduled.sort(Comparator.comparing(Task::getStartTime).thenComparing(Task::getId));
+
+        assertEquals(ids(scheduled), ids(taskManager.getPrioritizedTasks()));
+        for (Epic epic : epics) {
+            assertEquals(ids(taskManager.getSubTasks().stream().filter(s -> epicIdOf(s) == epic.getId()).toList()),
+                    ids(taskManager.getEpicSubtasks(epic.getId())));
+        }
+        for (int i = 0; i < 50; i++) {
+            LocalDateTime from = base.plusMinutes(rnd.nextInt(200 * 60));
+            LocalDateTime to = from.plusMinutes(rnd.nextInt(20 * 60));
+            List<Task> expected = scheduled.stream().filter(task -> task.getStartTime().isBefore(to)
+                    && (!task.getStartTime().isBefore(from) || task.getEndTime().isAfter(from))).toList();
+            assertEquals(ids(expected), ids(taskManager.getTasksBetween(from, to)), "tasks between " + from + " and " + to);
+        }
+    }
+
+    /**
+     * Returns ID of the epic of a live subtask or of a detached copy
+     */
+    private static int epicIdOf(Subtask subtask) {
+        return (subtask.getEpic() != null) ? subtask.getEpic().getId() : subtask.getEpicId();
+    }
+
+    private static List<Integer> ids(List<? extends Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    @Test
+    void calendarDaysAndWeek() throws WrongTaskArgumentException, TaskIntersectionException, TaskNotFoundException {
+        LocalDate monday = LocalDate.of(2025, 1, 6);
+        Task night = taskManager.add(new Task(0, "night", "", TaskStatus.NEW,
+                monday.atTime(22, 0), Duration.ofHours(4)));
+        Task midnight = taskManager.add(new Task(0, "till midnight", "", TaskStatus.NEW,
+                monday.plusDays(1).atTime(23, 0), Duration.ofHours(1)));
+        Epic epic = taskManager.add(new Epic(0, "e", ""));
+        Subtask multiDay = taskManager.add(new Subtask(0, epic.getId(), "three days", "", TaskStatus.NEW,
+                monday.plusDays(2).atTime(12, 0), Duration.ofDays(2)));
+        taskManager.add(new Task(0, "not scheduled", "", TaskStatus.NEW, null, null));
+
+        assertEquals(List.of(night), taskManager.getTasksOfDay(monday));
+        assertEquals(List.of(night, midnight), taskManager.getTasksOfDay(monday.plusDays(1)));
+        assertEquals(List.of(multiDay), taskManager.getTasksOfDay(monday.plusDays(4)));
+        assertTrue(taskManager.getTasksOfDay(monday.plusDays(5)).isEmpty());
+
+        Map<LocalDate, List<Task>> week = taskManager.getTasksOfWeek(monday.plusDays(3));
+        assertEquals(7, week.size());
+        assertEquals(monday, week.keySet().iterator().next());
+        assertEquals(List.of(multiDay), week.get(monday.plusDays(3)));
+        assertEquals(List.of(night), taskManager.getTasksOfWeek(monday.plusDays(6)).get(monday));
+        assertFalse(taskManager.getTasksOfWeek(monday.minusDays(1)).containsKey(monday));
+
+        taskManager.update(new Task(night.getId(), "night", "", TaskStatus.NEW, monday.atTime(20, 0), Duration.ofHours(1)));
+        assertEquals(List.of(midnight), taskManager.getTasksOfDay(monday.plusDays(1)));
+        taskManager.removeById(epic.getId());
+        assertTrue(taskManager.getTasksOfDay(monday.plusDays(4)).isEmpty());
+
+        // a zero-duration task at midnight belongs to its day, a task of years is found without per-day entries
+        Task atMidnight = taskManager.add(new Task(0, "at midnight", "", TaskStatus.NEW, monday.plusDays(5).atStartOfDay(), Duration.ZERO));
+        Task years = taskManager.add(new Task(0, "years", "", TaskStatus.NEW, monday.plusWeeks(1).atStartOfDay(), Duration.ofDays(3650)));
+        assertEquals(List.of(atMidnight), taskManager.getTasksOfDay(monday.plusDays(5)));
+        assertTrue(taskManager.getTasksOfDay(monday.plusDays(4)).isEmpty());
+        assertEquals(List.of(years), taskManager.getTasksOfDay(monday.plusYears(5)));
+        week = taskManager.getTasksOfWeek(monday.plusYears(5));
+        assertTrue(week.values().stream().allMatch(List.of(years)::equals));
+        taskManager.clearAllData();
+        assertTrue(taskManager.getTasksOfDay(monday).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> taskManager.getTasksOfDay(null));
+    }
+
+    @Test
+    void summaryCounters() throws WrongTaskArgumentException, TaskIntersectionException, TaskNotFoundException {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Task task = taskManager.add(new Task(0, "t", "", TaskStatus.NEW, base, Duration.ofHours(1)));
+        taskManager.add(new Task(0, "t2", "", TaskStatus.DONE, null, null));
+        Epic epic = taskManager.add(new Epic(0, "e", ""));
+        Subtask first = taskManager.add(new Subtask(0, epic.getId(), "s1", "", TaskStatus.DONE, base.plusHours(1), Duration.ofHours(2)));
+        Subtask second = taskManager.add(new Subtask(0, epic.getId(), "s2", "", TaskStatus.NEW, null, null));
+
+        BoardSummary summary = taskManager.getSummary();
+        assertEquals(Map.of(TaskStatus.NEW, 1, TaskStatus.IN_PROGRESS, 0, TaskStatus.DONE, 1), summary.getTasks());
+        assertEquals(Map.of(TaskStatus.NEW, 0, TaskStatus.IN_PROGRESS, 1, TaskStatus.DONE, 0), summary.getEpics());
+        assertEquals(Map.of(TaskStatus.NEW, 1, TaskStatus.IN_PROGRESS, 0, TaskStatus.DONE, 1), summary.getSubtasks());
+        assertEquals(2, summary.getScheduled());
+        assertEquals(Duration.ofHours(3), summary.getScheduledTime());
+
+        taskManager.update(new Subtask(second.getId(), epic.getId(), "s2", "", TaskStatus.DONE, null, null));
+        taskManager.update(new Task(task.getId(), "t", "", TaskStatus.IN_PROGRESS, base, Duration.ofMinutes(30)));
+        summary = taskManager.getSummary();
+        assertEquals(1, summary.getEpics().get(TaskStatus.DONE));
+        assertEquals(2, summary.getSubtasks().get(TaskStatus.DONE));
+        assertEquals(1, summary.getTasks().get(TaskStatus.IN_PROGRESS));
+        assertEquals(Duration.ofMinutes(150), summary.getScheduledTime());
+
+        taskManager.removeById(first.getId());
+        assertEquals(Duration.ofMinutes(30), taskManager.getSummary().getScheduledTime());
+        taskManager.removeAllSubtasks();
+        assertEquals(1, taskManager.getSummary().getEpics().get(TaskStatus.NEW));
+        taskManager.removeAllEpics();
+        taskManager.removeAllTasks();
+        summary = taskManager.getSummary();
+        for (Map<TaskStatus, Integer> counts : List.of(summary.getTasks(), summary.getEpics(), summary.getSubtasks())) {
+            assertEquals(0, counts.values().stream().mapToInt(Integer::intValue).sum());
+        }
+        assertEquals(0, summary.getScheduled());
+        taskManager.add(new Task(0, "t3", "", TaskStatus.NEW, base, Duration.ofHours(1)));
+        taskManager.clearAllData();
+        assertEquals(0, taskManager.getSummary().getTasks().get(TaskStatus.NEW));
+        assertEquals(Duration.ZERO, taskManager.getSummary().getScheduledTime());
+    }
+
+    @Test
+    void search() throws WrongTaskArgumentException, TaskIntersectionException, TaskNotFoundException {
+        Task report = taskManager.add(new Task(0, "Quarterly report", "Send the report to finance", TaskStatus.NEW, null, null));
+        Epic release = taskManager.add(new Epic(0, "Release 2.0", "Finance approval and report"));
+        Subtask notes = taskManager.add(new Subtask(0, release.getId(), "Release notes", "Notes of the release", TaskStatus.NEW, null, null));
+
+        assertEquals(List.of(report, release), taskManager.search("REPORT finance"));
+        assertEquals(List.of(notes, release), taskManager.search("release"));
+        assertEquals(List.of(notes), taskManager.search("release", 1));
+        assertTrue(taskManager.search("report notes").isEmpty());
+        assertTrue(taskManager.search(" , ").isEmpty());
+        assertTrue(taskManager.getHistory().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> taskManager.search(null));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.search("report", 0));
+
+        taskManager.update(new Task(report.getId(), "Yearly summary", "", TaskStatus.NEW, null, null));
+        assertEquals(List.of(release), taskManager.search("report"));
+        assertEquals(List.of(report), taskManager.search("summary"));
+        taskManager.removeById(release.getId());
+        assertTrue(taskManager.search("release").isEmpty());
+        taskManager.clearAllData();
+        assertTrue(taskManager.search("summary").isEmpty());
+    }
+
+    @Test
+    void findFreeSlot() throws WrongTaskArgumentException, TaskIntersectionException, TaskNotFoundException {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 10, 9, 0);
+        assertEquals(base, taskManager.findFreeSlot(Duration.ofHours(1), base, null));
+        taskManager.add(new Task(0, "t1", "", TaskStatus.NEW, base, Duration.ofHours(2)));
+        Epic e1 = taskManager.add(new Epic(0, "e1", ""));
+        taskManager.add(new Subtask(0, e1.getId(), "s1", "", TaskStatus.NEW, base.plusHours(3), Duration.ofHours(1)));
+        taskManager.add(new Task(0, "t2", "", TaskStatus.NEW, base.plusHours(5), Duration.ofHours(1)));
+
+        assertEquals(base.plusHours(2), taskManager.findFreeSlot(Duration.ofHours(1), base.plusHours(1), null));
+        assertEquals(base.plusHours(4), taskManager.findFreeSlot(Duration.ofHours(1), base.plusHours(3), null));
+        assertEquals(base.plusHours(6), taskManager.findFreeSlot(Duration.ofHours(2), base, null));
+        assertEquals(base.minusHours(1), taskManager.findFreeSlot(Duration.ofHours(1), base.minusHours(1), null));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.findFreeSlot(Duration.ZERO, base.plusHours(1), null));
+        assertNull(taskManager.findFreeSlot(Duration.ofHours(2), base, base.plusHours(7)));
+        assertEquals(base.plusHours(6), taskManager.findFreeSlot(Duration.ofHours(2), base, base.plusHours(8)));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.findFreeSlot(Duration.ofHours(-1), base, null));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.findFreeSlot(Duration.ofHours(1), null, null));
+
+        LocalDateTime slot = taskManager.findFreeSlot(Duration.ofMinutes(90), base, null);
+        assertDoesNotThrow(() -> taskManager.add(new Task(0, "t3", "", TaskStatus.NEW, slot, Duration.ofMinutes(90))));
+    }
+
+    @Test
+    void batchAddUpdateRemove() throws TaskNotFoundException, WrongTaskArgumentException, TaskIntersectionException {
+        Epic e1 = taskManager.add(new Epic(0, "e1", ""));
+        LocalDateTime base = LocalDateTime.of(2025, 1, 10, 9, 0);
+        List<Task> added = taskManager.addAll(List.of(
+                new Task(0, "t1", "", TaskStatus.NEW, base, Duration.ofHours(1)),
+                new Subtask(0, e1.getId(), "s1", "", TaskStatus.DONE, base.plusHours(1), Duration.ofHours(1)),
+                new Epic(0, "e2", ""),
+                new Task(0, "t2", "", TaskStatus.NEW, null, null)));
+        assertEquals(List.of(2, 3, 4, 5), added.stream().map(Task::getId).toList());
+        assertEquals(2, taskManager.getTasks().size());
+        assertEquals(2, taskManager.getEpics().size());
+        assertEquals(TaskStatus.DONE, e1.getStatus());
+        assertEquals(List.of(added.get(0), added.get(1)), taskManager.getPrioritizedTasks());
+
+        // tasks exchange their slots: fine for the whole list, though each update alone would intersect
+        taskManager.updateAll(List.of(
+                new Task(2, "t1", "", TaskStatus.NEW, base.plusHours(1), Duration.ofHours(1)),
+                new Subtask(3, e1.getId(), "s1", "", TaskStatus.DONE, base, Duration.ofHours(1)),
+                new Epic(4, "e2 updated", "")));
+        assertEquals(List.of(added.get(1), added.get(0)), taskManager.getPrioritizedTasks());
+        assertEquals("e2 updated", taskManager.getTaskById(4).getTitle());
+
+        taskManager.removeAll(List.of(1, 3, 5));
+        assertEquals(List.of(added.get(0)), taskManager.getPrioritizedTasks());
+        assertEquals(1, taskManager.getEpics().size());
+        assertTrue(taskManager.getSubTasks().isEmpty());
+        assertThrows(TaskNotFoundException.class, () -> taskManager.removeAll(List.of(4, 100)));
+        assertEquals(1, taskManager.getEpics().size());
+    }
+
+    @Test
+    void batchIsValidatedBeforeApplying() throws TaskNotFoundException, WrongTaskArgumentException, TaskIntersectionException {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 10, 9, 0);
+        Task t1 = taskManager.add(new Task(0, "t1", "", TaskStatus.NEW, base, Duration.ofHours(1)));
+        Epic e1 = taskManager.add(new Epic(0, "e1", ""));
+
+        assertThrows(TaskIntersectionException.class, () -> taskManager.addAll(List.of(
+                new Task(0, "t2", "", TaskStatus.NEW, base.plusHours(2), Duration.ofHours(2)),
+                new Task(0, "t3", "", TaskStatus.NEW, base.plusHours(3), Duration.ofHours(1)))));
+        assertThrows(TaskIntersectionException.class, () -> taskManager.addAll(List.of(
+                new Task(0, "t2", "", TaskStatus.NEW, base.plusHours(2), Duration.ofHours(2)),
+                new Task(0, "t3", "", TaskStatus.NEW, base.plusMinutes(30), Duration.ofHours(1)))));
+        assertThrows(TaskNotFoundException.class, () -> taskManager.addAll(List.of(
+                new Task(0, "t2", "", TaskStatus.NEW, base.plusHours(2), Duration.ofHours(2)),
+                new Subtask(0, t1.getId(), "s1", "", TaskStatus.NEW, null, null))));
+        assertEquals(List.of(t1), taskManager.getPrioritizedTasks());
+        assertEquals(1, taskManager.getTasks().size());
+        assertEquals(Set.of(e1), Set.copyOf(taskManager.getEpics()));
+
+        assertThrows(WrongTaskArgumentException.class, () -> taskManager.updateAll(List.of(
+                new Task(t1.getId(), "a", "", TaskStatus.NEW, null, null),
+                new Task(t1.getId(), "b", "", TaskStatus.NEW, null, null))));
+        assertThrows(WrongTaskArgumentException.class, () -> taskManager.updateAll(List.of(
+                new Task(e1.getId(), "a", "", TaskStatus.NEW, null, null))));
+        assertThrows(TaskNotFoundException.class, () -> taskManager.updateAll(List.of(
+                new Task(t1.getId(), "a", "", TaskStatus.NEW, null, null),
+                new Task(100, "b", "", TaskStatus.NEW, null, null))));
+        assertEquals("t1", t1.getTitle());
+        assertEquals(base, t1.getStartTime());
+
+        Task t2 = taskManager.add(new Task(0, "t2", "", TaskStatus.NEW, base.plusHours(2), Duration.ofHours(1)));
+        TaskIntersectionException e = assertThrows(TaskIntersectionException.class, () -> taskManager.updateAll(List.of(
+                new Task(t1.getId(), "t1", "", TaskStatus.NEW, base.plusHours(5), Duration.ofHours(1)),
+                new Task(t2.getId(), "t2", "", TaskStatus.NEW, base.plusHours(5).plusMinutes(30), Duration.ofHours(1)))));
+        assertTrue(e.getMessage().endsWith("other task of the list: " + t1.getId()));
+    }
+
 
 }
\ No newline at end of file
@@ -5,8 +5,7 @@ import org.junit.jupiter.api.Test;
 import java.time.Duration;
 import java.time.LocalDateTime;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 class EpicTest {
 
@@ -57,4 +56,37 @@ class EpicTest {
         assertEquals(TaskStatus.IN_PROGRESS, epic3.getStatus());
     }
 
-}
\ No newline at end of file
+    @Test
+    void rollupAfterUpdateAndUnlink() {
+        Epic epic = new Epic(1, "e1", "");
+        Subtask s2 = new Subtask(2, 1, "s2", "", TaskStatus.DONE, LocalDateTime.of(2025, 1, 10, 9, 0), Duration.ofHours(1));
+        Subtask s3 = new Subtask(3, 1, "s3", "", TaskStatus.DONE, LocalDateTime.of(2025, 1, 10, 12, 0), Duration.ofHours(2));
+        Subtask s4 = new Subtask(4, 1, "s4", "", TaskStatus.DONE, LocalDateTime.of(2025, 1, 10, 12, 0), Duration.ofHours(1));
+        epic.linkSubtask(s2);
+        epic.linkSubtask(s3);
+        epic.linkSubtask(s4);
+        assertEquals(TaskStatus.DONE, epic.getStatus());
+        assertEquals(LocalDateTime.of(2025, 1, 10, 9, 0), epic.getStartTime());
+        assertEquals(LocalDateTime.of(2025, 1, 10, 14, 0), epic.getEndTime());
+
+        s3.update(new Subtask(3, 1, "s3", "", TaskStatus.NEW, null, null));
+        assertEquals(TaskStatus.IN_PROGRESS, epic.getStatus());
+        assertEquals(LocalDateTime.of(2025, 1, 10, 13, 0), epic.getEndTime());
+
+        epic.unlinkSubtask(2);
+        assertEquals(LocalDateTime.of(2025, 1, 10, 12, 0), epic.getStartTime());
+        assertEquals(Duration.ofHours(1), epic.getDuration());
+
+        s4.setTiming(null, (Duration) null);
+        assertNull(epic.getStartTime());
+        assertNull(epic.getEndTime());
+        assertNull(epic.getDuration());
+
+        epic.unlinkSubtask(4);
+        assertEquals(TaskStatus.NEW, epic.getStatus());
+        epic.unlinkSubtask(3);
+        assertEquals(TaskStatus.NEW, epic.getStatus());
+        assertTrue(epic.getSubtasks().isEmpty());
+    }
+
+}
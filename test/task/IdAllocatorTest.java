@@ -0,0 +1,81 @@
+package task;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdAllocatorTest {
+
+    @Test
+    void sequentialByDefault() {
+        IdAllocator allocator = new IdAllocator();
+        assertEquals(1, allocator.next());
+        assertEquals(2, allocator.next());
+        allocator.reserveUpTo(10);
+        allocator.reserveUpTo(5);
+        assertEquals(11, allocator.next());
+        allocator.reset();
+        assertEquals(1, allocator.next());
+    }
+
+    @Test
+    void leasesBlocksFromSource() {
+        AtomicInteger mark = new AtomicInteger();
+        AtomicInteger leases = new AtomicInteger();
+        IdBlockSource source = new IdBlockSource() {
+            @Override
+            public int lease(int size) {
+                leases.incrementAndGet();
+                return mark.getAndAdd(size) + 1;
+            }
+
+            @Override
+            public void raiseTo(int id) {
+                mark.accumulateAndGet(id, Math::max);
+            }
+        };
+        IdAllocator first = new IdAllocator(10, source);
+        IdAllocator second = new IdAllocator(10, source);
+        first.reserveUpTo(5);
+        assertEquals(6, first.next());
+        assertEquals(16, second.next());
+        assertEquals(7, first.next());
+        for (int i = 0; i < 8; i++) first.next();
+        assertEquals(26, first.next());
+        assertEquals(3, leases.get());
+        assertEquals(35, first.getHighWaterMark());
+        assertThrows(IllegalArgumentException.class, () -> new IdAllocator(0, null));
+    }
+
+    @Test
+    void parallelThreadsGetUniqueIds() throws InterruptedException, ExecutionException {
+        for (IdAllocator allocator : List.of(new IdAllocator(), new IdAllocator(64, null))) {
+            int threads = 8;
+            int idsPerThread = 10_000;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    int[] ids = new int[idsPerThread];
+                    for (int i = 0; i < idsPerThread; i++) ids[i] = allocator.next();
+                    return ids;
+                }));
+            }
+            Set<Integer> all = new HashSet<>();
+            for (Future<int[]> future : futures) {
+                for (int id : future.get()) assertTrue(all.add(id), "Duplicate ID " + id);
+            }
+            executor.shutdown();
+            assertEquals(threads * idsPerThread, all.size());
+            assertTrue(allocator.getHighWaterMark() >= threads * idsPerThread);
+        }
+    }
+
+}
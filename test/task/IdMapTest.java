@@ -0,0 +1,61 @@
+package task;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdMapTest {
+
+    @Test
+    void keepsInsertionOrder() {
+        IdMap<String> map = new IdMap<>();
+        map.put(30, "c");
+        map.put(10, "a");
+        map.put(20, "b");
+        map.put(10, "A");
+        assertEquals(List.of(30, 10, 20), new ArrayList<>(map.keySet()));
+        assertEquals(List.of("c", "A", "b"), new ArrayList<>(map.values()));
+        assertEquals("A", map.get(10));
+        assertEquals("A", map.get((Object) 10));
+        assertNull(map.get("10"));
+
+        assertEquals("c", map.remove(30));
+        assertNull(map.remove(30));
+        map.put(30, "C");
+        assertEquals(List.of(10, 20, 30), new ArrayList<>(map.keySet()));
+        assertEquals(Map.of(10, "A", 20, "b", 30, "C"), map);
+        assertThrows(IllegalArgumentException.class, () -> map.put(40, null));
+
+        Iterator<String> iterator = map.values().iterator();
+        iterator.next();
+        iterator.remove();
+        assertFalse(map.containsKey(10));
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void randomOperationsMatchLinkedHashMap() {
+        Random random = new Random(11);
+        LinkedHashMap<Integer, String> expected = new LinkedHashMap<>();
+        IdMap<String> map = new IdMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            int id = random.nextInt(2_000) - 1_000;
+            switch (random.nextInt(4)) {
+                case 0 -> assertEquals(expected.remove(id), map.remove(id));
+                case 1 -> assertEquals(expected.get(id), map.get(id));
+                default -> assertEquals(expected.put(id, "v" + i), map.put(id, "v" + i));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(map.entrySet()));
+    }
+
+}
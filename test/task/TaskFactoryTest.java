@@ -73,6 +73,43 @@ class TaskFactoryTest {
 
     }
 
+    @Test
+    void quotesAndCommasAreEscaped() throws WrongCSVLineException {
+        Task t1 = new Task(7, "Say \"hello\", then \"\"bye\"\"", "\"", TaskStatus.NEW, null, null);
+        Task t2 = taskFactory.fromCSVLine(t1.toCSVLine());
+        assertEquals(t1.getTitle(), t2.getTitle());
+        assertEquals(t1.getDescription(), t2.getDescription());
+        assertNull(t2.getStartTime());
+        assertNull(t2.getDuration());
+
+        Task unquoted = taskFactory.fromCSVLine("8,TASK,plain,IN_PROGRESS,,01.03.2024 09:05,-60");
+        assertEquals("plain", unquoted.getTitle());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 9, 5), unquoted.getStartTime());
+        assertEquals(Duration.ofSeconds(-60), unquoted.getDuration());
+
+        // lines written before escaping: quotes are dropped like the old parser did
+        Task legacy = taskFactory.fromCSVLine("\"9\",\"TASK\",\"say \"hi\"\",\"NEW\",\"a \"b\" c, d\",\"\",\"\"");
+        assertEquals("say hi", legacy.getTitle());
+        assertEquals("a b c, d", legacy.getDescription());
+        assertEquals(TaskStatus.NEW, legacy.getStatus());
+    }
+
+    @Test
+    void datesAreParsedLikeFormatter() throws WrongCSVLineException {
+        for (String date : new String[]{"29.02.2024 23:59", "31.02.2025 00:00", "31.04.2025 12:30", "01.01.0001 00:00",
+                "31.12.2024 24:00", "28.02.2025 24:00"}) {
+            Task task = taskFactory.fromCSVLine("\"1\",\"TASK\",\"t\",\"NEW\",\"\",\"" + date + "\",\"60\"");
+            assertEquals(LocalDateTime.parse(date, Task.DATE_TIME_FORMATTER), task.getStartTime(), date);
+        }
+        for (String date : new String[]{"32.01.2025 00:00", "01.13.2025 00:00", "01.01.2025 25:00", "01.01.2025 24:01",
+                "1.01.2025 00:00"}) {
+            assertThrows(WrongCSVLineException.class,
+                    () -> taskFactory.fromCSVLine("\"1\",\"TASK\",\"t\",\"NEW\",\"\",\"" + date + "\",\"60\""), date);
+        }
+        assertThrows(WrongCSVLineException.class,
+                () -> taskFactory.fromCSVLine("\"99999999999\",\"TASK\",\"t\",\"NEW\",\"\",\"\",\"\""));
+    }
+
     @Test
     void throwExceptions() {
         String good = "\"1\",\"TASK\",\"Праздновать новый год\",\"DONE\",\"всю ночь\",\"31.12.2024 21:00\",\"43200\"";